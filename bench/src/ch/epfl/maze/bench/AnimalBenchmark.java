@@ -0,0 +1,73 @@
+package ch.epfl.maze.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.physical.World;
+import ch.epfl.maze.util.Direction;
+
+/**
+ * Benchmark of the {@code move(Direction[])} of each zoo animal, alone in a
+ * maze. An operation is one decision followed by the update of the position,
+ * as in a simulation. The maze is reset when the animal reaches the exit.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AnimalBenchmark {
+
+	@Param({ "Mouse", "Monkey", "Hamster", "Panda" })
+	public String animal;
+
+	@Param({ Labyrinths.SMALL, Labyrinths.MEDIUM, Labyrinths.LARGE })
+	public String maze;
+
+	/* maze and its only animal */
+	private Maze mMaze;
+	private Animal mAnimal;
+
+	/* seed of the next run of the animal */
+	private long mSeed;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		mMaze = new Maze(Labyrinths.get(maze));
+		mMaze.addAnimal(Labyrinths.createAnimal(animal, mMaze.getStart()));
+		mSeed = 0;
+		reset();
+	}
+
+	@Benchmark
+	public Direction move() {
+		Direction[] choices = mMaze.getChoices(mAnimal.getPosition());
+		Direction choice = mAnimal.move(choices);
+		mAnimal.update(choice);
+		if (mMaze.tileAt(mMaze.indexOf(mAnimal.getPosition())) == World.EXIT) {
+			reset();
+		}
+		return choice;
+	}
+
+	/**
+	 * Puts the animal back at the start, with a new random generator.
+	 */
+
+	private void reset() {
+		mMaze.reset();
+		mMaze.seedAnimals(mSeed++);
+		mAnimal = mMaze.getAnimals().get(0);
+	}
+}
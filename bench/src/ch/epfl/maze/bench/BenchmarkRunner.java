@@ -0,0 +1,64 @@
+package ch.epfl.maze.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the benchmarks of the package with the GC profiler, so that every
+ * result comes with the number of bytes allocated per operation.
+ * <p>
+ * The arguments are the usual JMH command line options, such as a regular
+ * expression selecting the benchmarks or {@code -p maze=large}.
+ *
+ */
+
+public final class BenchmarkRunner {
+
+	/* default number and length of the iterations */
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int MEASUREMENT_ITERATIONS = 5;
+	private static final int ITERATION_SECONDS = 1;
+	private static final int FORKS = 2;
+
+	/**
+	 * Never instantiated.
+	 */
+
+	private BenchmarkRunner() {
+	}
+
+	/**
+	 * Runs the benchmarks selected by the command line.
+	 *
+	 * @param args
+	 *            JMH command line options
+	 */
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions line = new CommandLineOptions(args);
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(line)
+				.addProfiler(GCProfiler.class);
+
+		// the defaults only apply to the options missing from the command line
+		if (line.getIncludes().isEmpty()) {
+			builder.include(BenchmarkRunner.class.getPackage().getName() + ".*Benchmark");
+		}
+		TimeValue iteration = TimeValue.seconds(ITERATION_SECONDS);
+		if (!line.getWarmupIterations().hasValue()) {
+			builder.warmupIterations(WARMUP_ITERATIONS).warmupTime(iteration);
+		}
+		if (!line.getMeasurementIterations().hasValue()) {
+			builder.measurementIterations(MEASUREMENT_ITERATIONS).measurementTime(iteration);
+		}
+		if (!line.getForkCount().hasValue()) {
+			builder.forks(FORKS);
+		}
+		new Runner(builder.build()).run();
+	}
+}
@@ -0,0 +1,49 @@
+package ch.epfl.maze.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ch.epfl.maze.simulation.DaedalusSimulation;
+
+/**
+ * Benchmark of {@link DaedalusSimulation#move(ch.epfl.maze.graphics.Animation)}
+ * with the four ghosts and three Pac-Mans, without any animation. Every step
+ * moves the predators and the preys and checks their collisions. The
+ * simulation is restarted whenever it is over.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DaedalusSimulationBenchmark {
+
+	@Param({ Labyrinths.SMALL, Labyrinths.MEDIUM, Labyrinths.LARGE, Labyrinths.PACMAN })
+	public String maze;
+
+	/* simulation under measure */
+	private DaedalusSimulation mSimulation;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		mSimulation = new DaedalusSimulation(Labyrinths.createDaedalus(maze), 0);
+	}
+
+	@Benchmark
+	public int move() {
+		if (mSimulation.isOver()) {
+			mSimulation.restart();
+		}
+		mSimulation.move(null);
+		return mSimulation.getSteps();
+	}
+}
@@ -0,0 +1,79 @@
+package ch.epfl.maze.bench;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import ch.epfl.maze.util.Labyrinth;
+import ch.epfl.maze.util.LabyrinthFile;
+import ch.epfl.maze.util.LabyrinthGenerator;
+
+/**
+ * Benchmark of {@link LabyrinthGenerator#readFromFile(String)}, compared with
+ * the binary format of {@link LabyrinthFile}. Both files are written once,
+ * in a temporary directory, before the measures.
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LabyrinthReadBenchmark {
+
+	@Param({ Labyrinths.SMALL, Labyrinths.MEDIUM, Labyrinths.LARGE, Labyrinths.PACMAN })
+	public String maze;
+
+	/* files holding the labyrinth */
+	private File mText;
+	private File mBinary;
+
+	@Setup
+	public void setUp() throws IOException {
+		int[][] labyrinth = Labyrinths.get(maze);
+		mText = File.createTempFile(maze, ".txt");
+		mBinary = File.createTempFile(maze, ".maze");
+
+		// writes the text format, one row per line as in the source files
+		Writer writer = new FileWriter(mText);
+		try {
+			for (int[] row : labyrinth) {
+				StringBuilder line = new StringBuilder("{ ");
+				for (int x = 0; x < row.length; x++) {
+					line.append(x == 0 ? "" : ", ").append(row[x]);
+				}
+				writer.write(line.append(" },\n").toString());
+			}
+		} finally {
+			writer.close();
+		}
+		LabyrinthFile.write(new Labyrinth(labyrinth), mBinary.getPath());
+	}
+
+	@TearDown
+	public void tearDown() {
+		mText.delete();
+		mBinary.delete();
+	}
+
+	@Benchmark
+	public int[][] readText() {
+		return LabyrinthGenerator.readFromFile(mText.getPath());
+	}
+
+	@Benchmark
+	public Labyrinth readBinary() throws IOException {
+		return LabyrinthFile.read(mBinary.getPath());
+	}
+}
@@ -0,0 +1,176 @@
+package ch.epfl.maze.bench;
+
+import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.Daedalus;
+import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.physical.World;
+import ch.epfl.maze.physical.pacman.Blinky;
+import ch.epfl.maze.physical.pacman.Clyde;
+import ch.epfl.maze.physical.pacman.Inky;
+import ch.epfl.maze.physical.pacman.PacMan;
+import ch.epfl.maze.physical.pacman.Pinky;
+import ch.epfl.maze.physical.zoo.Hamster;
+import ch.epfl.maze.physical.zoo.Monkey;
+import ch.epfl.maze.physical.zoo.Mouse;
+import ch.epfl.maze.physical.zoo.Panda;
+import ch.epfl.maze.util.LabyrinthGenerator;
+import ch.epfl.maze.util.Vector2D;
+
+/**
+ * Labyrinths and populated worlds shared by the benchmarks, so that every
+ * suite measures the same set-ups.
+ *
+ */
+
+final class Labyrinths {
+
+	/* labyrinths with a start and an exit */
+	static final String SMALL = "small";
+	static final String MEDIUM = "medium";
+	static final String LARGE = "large";
+
+	/* labyrinth without start nor exit, only used with predators and preys */
+	static final String PACMAN = "pacman";
+
+	/* zoo animals which find the exit on their own */
+	static final String[] ZOO = {
+			"Mouse", "Monkey", "Hamster", "Panda"
+	};
+
+	/**
+	 * Never instantiated.
+	 */
+
+	private Labyrinths() {
+	}
+
+	/**
+	 * Returns a labyrinth of {@code LabyrinthGenerator} by name.
+	 *
+	 * @param name
+	 *            One of {@link #SMALL}, {@link #MEDIUM}, {@link #LARGE} and
+	 *            {@link #PACMAN}
+	 * @return A new labyrinth array
+	 */
+
+	static int[][] get(String name) {
+		if (SMALL.equals(name)) {
+			return LabyrinthGenerator.getSmall();
+		} else if (MEDIUM.equals(name)) {
+			return LabyrinthGenerator.getMedium();
+		} else if (LARGE.equals(name)) {
+			return LabyrinthGenerator.getLarge();
+		} else if (PACMAN.equals(name)) {
+			return LabyrinthGenerator.getPacMan();
+		}
+		throw new IllegalArgumentException("Unknown labyrinth : " + name);
+	}
+
+	/**
+	 * Creates a zoo animal by name.
+	 *
+	 * @param name
+	 *            One of the names of {@link #ZOO}
+	 * @param position
+	 *            Starting position of the animal
+	 * @return A new animal
+	 */
+
+	static Animal createAnimal(String name, Vector2D position) {
+		if ("Mouse".equals(name)) {
+			return new Mouse(position);
+		} else if ("Monkey".equals(name)) {
+			return new Monkey(position);
+		} else if ("Hamster".equals(name)) {
+			return new Hamster(position);
+		} else if ("Panda".equals(name)) {
+			return new Panda(position);
+		}
+		throw new IllegalArgumentException("Unknown animal : " + name);
+	}
+
+	/**
+	 * Creates a maze with every zoo animal at its start.
+	 *
+	 * @param name
+	 *            Name of a labyrinth with a start and an exit
+	 * @return A maze ready to be simulated
+	 */
+
+	static Maze createMaze(String name) {
+		Maze maze = new Maze(get(name));
+		for (String animal : ZOO) {
+			maze.addAnimal(createAnimal(animal, maze.getStart()));
+		}
+		return maze;
+	}
+
+	/**
+	 * Creates a Daedalus with the four ghosts and three Pac-Mans. On the
+	 * Pac-Man labyrinth, they are placed as in {@code Program}, elsewhere
+	 * they are spread over the free tiles.
+	 *
+	 * @param name
+	 *            Name of a labyrinth
+	 * @return A Daedalus ready to be simulated
+	 */
+
+	static Daedalus createDaedalus(String name) {
+		Daedalus daedalus = new Daedalus(get(name));
+		Vector2D[] positions;
+		if (PACMAN.equals(name)) {
+			positions = new Vector2D[] {
+					new Vector2D(9, 15), new Vector2D(10, 15), new Vector2D(8, 15),
+					new Vector2D(17, 1), new Vector2D(1, 1), new Vector2D(17, 17),
+					new Vector2D(1, 17)
+			};
+		} else {
+			positions = spread(daedalus, 7);
+		}
+
+		for (int i = 0; i < 3; i++) {
+			daedalus.addPrey(new PacMan(positions[i]));
+		}
+		daedalus.addPredator(new Blinky(positions[3]));
+		daedalus.addPredator(new Pinky(positions[4]));
+		daedalus.addPredator(new Inky(positions[5]));
+		daedalus.addPredator(new Clyde(positions[6]));
+		return daedalus;
+	}
+
+	/**
+	 * Picks free tiles evenly spaced among the free tiles of a world.
+	 *
+	 * @param world
+	 *            The world
+	 * @param count
+	 *            Number of tiles to pick
+	 * @return The positions of the tiles, in the order of their indices
+	 */
+
+	static Vector2D[] spread(World world, int count) {
+		int size = world.getWidth() * world.getHeight();
+		int free = 0;
+		for (int index = 0; index < size; index++) {
+			if (world.isFree(index)) {
+				free++;
+			}
+		}
+		if (free < count) {
+			throw new IllegalArgumentException("Not enough free tiles in the labyrinth.");
+		}
+
+		Vector2D[] positions = new Vector2D[count];
+		int seen = 0;
+		int picked = 0;
+		for (int index = 0; index < size && picked < count; index++) {
+			if (world.isFree(index)) {
+				if (seen == (int) ((long) picked * free / count)) {
+					positions[picked++] = world.positionOf(index);
+				}
+				seen++;
+			}
+		}
+		return positions;
+	}
+}
@@ -0,0 +1,48 @@
+package ch.epfl.maze.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ch.epfl.maze.simulation.MazeSimulation;
+
+/**
+ * Benchmark of {@link MazeSimulation#move(ch.epfl.maze.graphics.Animation)}
+ * with every zoo animal, without any animation. The simulation is restarted
+ * whenever it is over, so a few operations include the cost of a restart.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MazeSimulationBenchmark {
+
+	@Param({ Labyrinths.SMALL, Labyrinths.MEDIUM, Labyrinths.LARGE })
+	public String maze;
+
+	/* simulation under measure */
+	private MazeSimulation mSimulation;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		mSimulation = new MazeSimulation(Labyrinths.createMaze(maze), 0);
+	}
+
+	@Benchmark
+	public int move() {
+		if (mSimulation.isOver()) {
+			mSimulation.restart();
+		}
+		mSimulation.move(null);
+		return mSimulation.getSteps();
+	}
+}
@@ -0,0 +1,61 @@
+package ch.epfl.maze.bench;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ch.epfl.maze.simulation.MazeSimulation;
+import ch.epfl.maze.simulation.Simulation;
+import ch.epfl.maze.util.IntArrayList;
+import ch.epfl.maze.util.Statistics;
+
+/**
+ * Benchmark of {@link Statistics#computeStatistics(Simulation, int)} with
+ * every zoo animal, sequentially and on the common {@code ForkJoinPool}.
+ * Every operation computes the same batch of runs, from the same seed.
+ *
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StatisticsBenchmark {
+
+	@Param({ Labyrinths.SMALL, Labyrinths.MEDIUM, Labyrinths.LARGE })
+	public String maze;
+
+	@Param({ "100" })
+	public int runs;
+
+	/* simulation given to the statistics */
+	private Simulation mSimulation;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		mSimulation = new MazeSimulation(Labyrinths.createMaze(maze), 0);
+	}
+
+	@Benchmark
+	public Map<String, IntArrayList> sequential() {
+		// the statistics read the animals from the world, which a sequential
+		// batch leaves empty
+		mSimulation.restart(0);
+		return Statistics.computeStatistics(mSimulation, runs);
+	}
+
+	@Benchmark
+	public Map<String, IntArrayList> parallel() {
+		mSimulation.restart(0);
+		return Statistics.computeStatistics(mSimulation, runs, ForkJoinPool.commonPool());
+	}
+}
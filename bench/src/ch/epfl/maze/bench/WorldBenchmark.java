@@ -0,0 +1,75 @@
+package ch.epfl.maze.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.physical.World;
+import ch.epfl.maze.util.Vector2D;
+
+/**
+ * Benchmark of {@link World#getChoices(int)} and
+ * {@link World#getChoices(Vector2D)}, asked once for every free tile of the
+ * labyrinth.
+ *
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldBenchmark {
+
+	@Param({ Labyrinths.SMALL, Labyrinths.MEDIUM, Labyrinths.LARGE, Labyrinths.PACMAN })
+	public String maze;
+
+	/* world and its free tiles, as indices and as positions */
+	private World mWorld;
+	private int[] mIndices;
+	private Vector2D[] mPositions;
+
+	@Setup
+	public void setUp() {
+		mWorld = new Maze(Labyrinths.get(maze));
+		int size = mWorld.getWidth() * mWorld.getHeight();
+		int count = 0;
+		for (int index = 0; index < size; index++) {
+			if (mWorld.isFree(index)) {
+				count++;
+			}
+		}
+
+		mIndices = new int[count];
+		mPositions = new Vector2D[count];
+		count = 0;
+		for (int index = 0; index < size; index++) {
+			if (mWorld.isFree(index)) {
+				mIndices[count] = index;
+				mPositions[count] = new Vector2D(mWorld.xOf(index), mWorld.yOf(index));
+				count++;
+			}
+		}
+	}
+
+	@Benchmark
+	public void choicesByIndex(Blackhole blackhole) {
+		for (int index : mIndices) {
+			blackhole.consume(mWorld.getChoices(index));
+		}
+	}
+
+	@Benchmark
+	public void choicesByPosition(Blackhole blackhole) {
+		for (Vector2D position : mPositions) {
+			blackhole.consume(mWorld.getChoices(position));
+		}
+	}
+}
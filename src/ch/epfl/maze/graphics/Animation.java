@@ -1,25 +1,41 @@
 package ch.epfl.maze.graphics;
 
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.imageio.ImageIO;
 
 import ch.epfl.maze.physical.Animal;
 import ch.epfl.maze.util.Action;
 import ch.epfl.maze.util.Direction;
-import ch.epfl.maze.util.Vector2D;
 
 /**
  * Handles the animation of a {@code Simulation} by extrapolating the positions
  * of animals.
+ * <p>
+ * The updates of a step are made by the thread of the simulation, and
+ * gathered in a frame which {@link #doneUpdating()} puts in a bounded queue.
+ * The thread painting the animation takes the frames one after the other, and
+ * interpolates each of them. When the painting falls behind, the queue fills
+ * up and the simulation waits for room.
+ * <p>
+ * The frames come from a fixed pool, and hold one graphic component per
+ * animal identifier. A painted frame goes back to the pool, and its
+ * components are set again in place for a later step, so that animating does
+ * not allocate anything once every frame has been used.
  * 
  */
 
@@ -28,16 +44,41 @@ public final class Animation {
 	/** Default number of waiting frames to display when animation is aborting. */
 	public static final int DEFAULT_WAITING_FRAMES = 2;
 
-	/** Maps animals identity to graphical components that will be  animated. */
-	private Map<Integer, GraphicComponent> mGraphMap;
+	/** Number of steps which can be computed ahead of the painted one. */
+	public static final int QUEUE_CAPACITY = 8;
 
-	/** Buffer of images of animals. Key format: "superclass.class" */
-	private Map<String, BufferedImage> mImages;
+	/** Time waited for room in the queue before checking for an abort, in ms. */
+	private static final int OFFER_TIMEOUT = 10;
+
+	/** Action of the animals standing still. */
+	private static final Action NONE = new Action(Direction.NONE);
+
+	/** Step being computed, written by the simulation only. */
+	private Frame mFilling;
+
+	/** Steps computed and waiting to be painted. */
+	private final BlockingQueue<Frame> mFrames;
+
+	/** Frames ready to be filled, the queue being full when all are used. */
+	private final BlockingQueue<Frame> mFree;
+
+	/** Number of resets, so that a step waiting for room can be dropped. */
+	private volatile int mGeneration;
+
+	/** Step being painted, and frame holding the animals standing still. */
+	private Frame mCurrent;
+	private final Frame mStill;
+
+	/** Buffer of images of animals, by class of animal. */
+	private Map<Class<?>, BufferedImage> mImages;
+
+	/** Colors of the images of animals, drawn when zoomed out. */
+	private Map<BufferedImage, Color> mColors;
 
 	/** Drawing ratio variable. */
 	private float mRatio;
 
-	/** Control variable. */
+	/** Control variable, whether the step being painted is over. */
 	private boolean mDone;
 
 	/** Current number of waiting frames, to prevent screen from flashing. */
@@ -53,23 +94,25 @@ public final class Animation {
 	 */
 
 	public Animation(List<Animal> animals) {
-		mGraphMap = new TreeMap<Integer, GraphicComponent>();
-		mImages = new HashMap<String, BufferedImage>();
-
-		// sanity check
-		if (animals != null) {
-			// puts default action to draw animals and loads corresponding image
-			Action none = new Action(Direction.NONE);
-			for (int i = 0; i < animals.size(); i++) {
-				Animal animal = animals.get(i);
-				BufferedImage img = loadImage(animal);
-				Vector2D position = animal.getPosition().mul(Display.SQUARE_SIZE);
-	
-				mGraphMap.put(i, new GraphicComponent(img, position, none));
-			}
+		mFrames = new ArrayBlockingQueue<Frame>(QUEUE_CAPACITY);
+		mImages = new ConcurrentHashMap<Class<?>, BufferedImage>();
+		mColors = new HashMap<BufferedImage, Color>();
+
+		// one frame per queued step, plus the one painted and the one filled
+		mFree = new ArrayBlockingQueue<Frame>(QUEUE_CAPACITY + 2);
+		for (int i = 0; i < QUEUE_CAPACITY + 1; i++) {
+			mFree.add(new Frame());
 		}
+		mFilling = new Frame();
+
+		// puts default action to draw animals and loads corresponding image
+		mStill = new Frame();
+		setStill(animals);
+		mCurrent = mStill;
 
 		// default values
+		mGeneration = 0;
+		mRatio = 0;
 		mDone = true;
 		mWaitingFrames = 0;
 	}
@@ -88,23 +131,8 @@ public final class Animation {
 	 */
 
 	public void update(Animal animal, int id, Action action) {
-		// sanity checks
-		if (action == null) {
-			action = new Action(Direction.NONE, false);
-		}
 		if (animal != null) {
-			// retrieves BufferedImage
-			String folder = animal.getClass().getSuperclass().getSimpleName();
-			String file = animal.getClass().getSimpleName();
-			BufferedImage img = mImages.get(folder + "." + file);
-			if (img == null) {
-				img = loadImage(animal);
-			}
-	
-			// transforms position
-			Vector2D position = animal.getPosition().mul(Display.SQUARE_SIZE);
-	
-			mGraphMap.put(id, new GraphicComponent(img, position, action));
+			mFilling.set(id, loadImage(animal), animal, action);
 		}
 	}
 
@@ -118,7 +146,7 @@ public final class Animation {
 	 */
 
 	public void updateDying(int id) {
-		GraphicComponent graphComp = mGraphMap.get(id);
+		GraphicComponent graphComp = mFilling.get(id);
 		if (graphComp != null) {
 			graphComp.willDieMoving();
 		}
@@ -126,11 +154,32 @@ public final class Animation {
 
 	/**
 	 * Notifies the animation that updates were done, and that it can start
-	 * animating from now.
+	 * animating from now. The step is queued to be painted, waiting for room
+	 * in the queue if needed, unless the animation is reset meanwhile.
 	 */
 
 	public void doneUpdating() {
-		mDone = false;
+		Frame frame = mFilling;
+		int generation = mGeneration;
+		try {
+			while (!mFrames.offer(frame, OFFER_TIMEOUT, TimeUnit.MILLISECONDS)) {
+				if (mGeneration != generation) {
+					// the frame is dropped, and filled again for the next step
+					frame.clear();
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			frame.clear();
+			return;
+		}
+
+		// there is always a free frame once the step is queued
+		mFilling = mFree.poll();
+		if (mFilling == null) {
+			mFilling = new Frame();
+		}
 	}
 
 	/**
@@ -147,39 +196,83 @@ public final class Animation {
 	 */
 
 	public void paint(float dt, Graphics2D g, ImageObserver targetWindow) {
-		mRatio += dt;
-		if (mRatio > 1) {
-			mRatio = 1;
+		paint(dt, g, targetWindow, null, true);
+	}
+
+	/**
+	 * Paints the dt-step of the animation, only for the graphic components
+	 * which may appear inside a visible rectangle. Once a step is over, it is
+	 * still painted at its end until the next step is available.
+	 * 
+	 * @param dt
+	 *            The elapsed time between two frames
+	 * @param g
+	 *            The graphics environment on which the graphic components will
+	 *            be painted (assumed non-null)
+	 * @param targetWindow
+	 *            The window on which the graphic components will be painted
+	 *            (assumed non-null)
+	 * @param visible
+	 *            The visible rectangle, in pixels of squares of
+	 *            {@link Display#SQUARE_SIZE} (can be null to paint everything)
+	 * @param detailed
+	 *            Whether the images of the animals are painted, instead of
+	 *            plain squares of their main color
+	 */
+
+	public synchronized void paint(float dt, Graphics2D g, ImageObserver targetWindow,
+			Rectangle visible, boolean detailed) {
+		// starts the next step, if any
+		if (mDone && mWaitingFrames == 0) {
+			Frame next = mFrames.poll();
+			if (next != null) {
+				setCurrent(next);
+				mRatio = 0;
+				mDone = false;
+			}
 		}
 
-		// paints every graphic component stored so far
-		for (Map.Entry<Integer, GraphicComponent> entry : mGraphMap.entrySet()) {
-			GraphicComponent comp = entry.getValue();
-			comp.paint(mRatio, g, targetWindow);
+		if (!mDone) {
+			mRatio += dt;
+			if (mRatio >= 1) {
+				mRatio = 1;
+				mDone = true;
+			}
 		}
 
-		// decides whether the animation is done
-		if (mDone || mRatio == 1 || mWaitingFrames == 1) {
-			mWaitingFrames = 0;
-			mDone = true;
-			mGraphMap.clear();
-			mRatio = 0;
+		// paints every visible graphic component of the step
+		if (mCurrent != null) {
+			for (int id = 0; id < mCurrent.mSize; id++) {
+				GraphicComponent comp = mCurrent.get(id);
+				if (comp == null || (visible != null && !comp.intersects(visible))) {
+					continue;
+				}
+				if (detailed) {
+					comp.paint(mRatio, g, targetWindow);
+				} else {
+					comp.paintPlain(mRatio, g, colorOf(comp.getImage()));
+				}
+			}
 		}
 
 		// prevents screen from flashing when aborting
 		if (mWaitingFrames > 0) {
 			mWaitingFrames--;
+			if (mWaitingFrames == 0 && mDone) {
+				setCurrent(null);
+			}
 		}
 	}
 
 	/**
-	 * Determines whether the animation has finished.
+	 * Determines whether the animation has finished, that is if the last step
+	 * was entirely painted and no other step is waiting.
 	 * 
 	 * @return <b>true</b> if the animation is done, <b>false</b> otherwise
 	 */
 
-	public boolean isDone() {
-		return mDone;
+	public synchronized boolean isDone() {
+		return mDone && mFrames.isEmpty();
 	}
 
 	/**
@@ -187,31 +280,81 @@ public final class Animation {
 	 * {@code null}, it just informs that it needs to abort its current job. A
 	 * number of frames will still be painted to prevent the screen from
 	 * flashing.
+	 * <p>
+	 * In both cases, the steps waiting to be painted are dropped, and a step
+	 * waiting for room in the queue is not queued. With a {@code List} of
+	 * animals, this must not be called while a step is being updated.
+	 */
+
+	public synchronized void reset(List<Animal> animals) {
+		mGeneration++;
+		Frame frame;
+		while ((frame = mFrames.poll()) != null) {
+			frame.clear();
+			mFree.offer(frame);
+		}
+
+		if (animals != null) {
+			mFilling.clear();
+			setStill(animals);
+			setCurrent(mStill);
+			mRatio = 0;
+			mWaitingFrames = 0;
+		} else {
+			mWaitingFrames = DEFAULT_WAITING_FRAMES;
+		}
+		mDone = true;
+	}
+
+	/**
+	 * Replaces the step being painted, giving the previous one back to the
+	 * pool.
+	 * 
+	 * @param frame
+	 *            The step to paint (can be null)
+	 */
+
+	private void setCurrent(Frame frame) {
+		if (mCurrent != null && mCurrent != mStill && mCurrent != frame) {
+			mCurrent.clear();
+			mFree.offer(mCurrent);
+		}
+		mCurrent = frame;
+	}
+
+	/**
+	 * Sets the frame of the animals standing still.
+	 * 
+	 * @param animals
+	 *            The animals to draw (can be null)
 	 */
 
-	public void reset(List<Animal> animals) {
-		mGraphMap.clear();
+	private void setStill(List<Animal> animals) {
+		mStill.clear();
 		if (animals != null) {
 			// puts default action to draw animals
-			Action none = new Action(Direction.NONE);
 			for (int i = 0; i < animals.size(); i++) {
 				Animal animal = animals.get(i);
+				mStill.set(i, loadImage(animal), animal, NONE);
+			}
+		}
+	}
 
-				// loads corresponding image only if not already existing
-				String folder = animal.getClass().getSuperclass().getSimpleName();
-				String file = animal.getClass().getSimpleName();
-				BufferedImage img = mImages.get(folder + "." + file);
-				if (img == null) {
-					img = loadImage(animal);
-				}
-
-				// transforms position
-				Vector2D position = animal.getPosition().mul(Display.SQUARE_SIZE);
+	/**
+	 * Returns the main color of the image of an animal, computed once.
+	 * 
+	 * @param image
+	 *            Image of an animal
+	 * @return The average color of the first frame of the image
+	 */
 
-				mGraphMap.put(i, new GraphicComponent(img, position, none));
-			}
+	private Color colorOf(BufferedImage image) {
+		Color color = mColors.get(image);
+		if (color == null) {
+			color = Display.averageColor(image);
+			mColors.put(image, color);
 		}
-		mWaitingFrames = DEFAULT_WAITING_FRAMES;
+		return color;
 	}
 
 	/**
@@ -224,17 +367,16 @@ public final class Animation {
 	 */
 
 	private BufferedImage loadImage(Animal animal) {
-		// path = "img/superclass/class.png"
-		String folder = animal.getClass().getSuperclass().getSimpleName();
-		String file = animal.getClass().getSimpleName();
-		String path = "img/" + folder + File.separator + file + ".png";
-
 		// adds image to buffer if not already there
-		BufferedImage img = mImages.get(folder + "." + file);
+		BufferedImage img = mImages.get(animal.getClass());
 		if (img == null) {
+			// path = "img/superclass/class.png"
+			String folder = animal.getClass().getSuperclass().getSimpleName();
+			String file = animal.getClass().getSimpleName();
+			String path = "img/" + folder + File.separator + file + ".png";
 			try {
 				img = ImageIO.read(new File(path));
-				mImages.put(folder + "." + file, img);
+				mImages.put(animal.getClass(), img);
 			} catch (IOException e) {
 				e.printStackTrace();
 			}
@@ -242,4 +384,76 @@ public final class Animation {
 
 		return img;
 	}
+
+	/**
+	 * Graphic components of one step, in slots indexed by the identifiers of
+	 * the animals. The components stay in their slots when the frame is
+	 * cleared, to be set again for a later step.
+	 */
+
+	private static final class Frame {
+
+		/* components, whether each slot was updated, and bound of the slots used */
+		private GraphicComponent[] mSlots = new GraphicComponent[0];
+		private boolean[] mUsed = new boolean[0];
+		private int mSize = 0;
+
+		/**
+		 * Sets the component of an animal.
+		 * 
+		 * @param id
+		 *            Identifier of the animal
+		 * @param image
+		 *            Image of the animal
+		 * @param animal
+		 *            The animal, at the position where its action starts
+		 * @param action
+		 *            Action that the animal performs
+		 */
+
+		void set(int id, BufferedImage image, Animal animal, Action action) {
+			if (id < 0) {
+				throw new IllegalArgumentException("Identifier must be positive.");
+			}
+			if (id >= mSlots.length) {
+				int length = Math.max(id + 1, 2 * mSlots.length);
+				mSlots = Arrays.copyOf(mSlots, length);
+				mUsed = Arrays.copyOf(mUsed, length);
+			}
+			if (mSlots[id] == null) {
+				mSlots[id] = new GraphicComponent();
+			}
+
+			// transforms position
+			mSlots[id].set(image, animal.getPosition().getX() * Display.SQUARE_SIZE,
+					animal.getPosition().getY() * Display.SQUARE_SIZE, action);
+			mUsed[id] = true;
+			mSize = Math.max(mSize, id + 1);
+		}
+
+		/**
+		 * Returns the component of an animal.
+		 * 
+		 * @param id
+		 *            Identifier of the animal
+		 * @return The component of the animal, or null if it was not set for
+		 *         this step
+		 */
+
+		GraphicComponent get(int id) {
+			if (id < 0 || id >= mSize || !mUsed[id]) {
+				return null;
+			}
+			return mSlots[id];
+		}
+
+		/**
+		 * Empties the frame, keeping its components for later steps.
+		 */
+
+		void clear() {
+			Arrays.fill(mUsed, 0, mSize, false);
+			mSize = 0;
+		}
+	}
 }
@@ -4,18 +4,27 @@ import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.EventQueue;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.awt.geom.AffineTransform;
 import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.imageio.ImageIO;
 import javax.swing.JCheckBoxMenuItem;
@@ -32,6 +41,11 @@ import ch.epfl.maze.simulation.Simulation;
 
 /**
  * Handles the display of a {@code Simulation} on a window.
+ * <p>
+ * The simulation is moved on its own thread, which hands the steps to the
+ * {@code Animation}. The main loop only paints, so that a long step does not
+ * stall the painting, and painting does not slow the simulation down beyond
+ * the few steps the animation can hold.
  * 
  */
 
@@ -45,10 +59,28 @@ public final class Display implements Runnable {
 	public static final int DEFAULT_SPEED = 2;
 	public static final int MIN_SPEED = 1;
 	public static final int ANIMATION_SLEEP = 10;
+	public static final int MAX_CANVAS_WIDTH = 24 * SQUARE_SIZE;
+	public static final int MAX_CANVAS_HEIGHT = 16 * SQUARE_SIZE;
+	public static final int DETAIL_SIZE = 12;
+	public static final int TURBO_BUDGET = ANIMATION_SLEEP;
+	public static final int TURBO_STEPS = 16;
+
+	/* sizes of the squares on screen, from the most zoomed out */
+	private static final int[] ZOOM_LEVELS = {
+			2, 3, 4, 6, 8, 12, 16, 24, 32, SQUARE_SIZE, 2 * SQUARE_SIZE
+	};
 
 	/* lock for mutual exclusion between human interactions and display */
 	private final Object mLock = new Object();
 
+	/*
+	 * lock held while the simulation is moved or changed, fair so that the
+	 * human interactions are not delayed by the simulation thread, and
+	 * whether the simulation was over after its last move
+	 */
+	private final ReentrantLock mSimulationLock = new ReentrantLock(true);
+	private volatile boolean mSimulationOver;
+
 	/* simulation and animation handlers */
 	private final Simulation mSimulation;
 	private final Animation mAnimation;
@@ -62,13 +94,39 @@ public final class Display implements Runnable {
 	/* drawing buffers */
 	private BufferStrategy mStrategy;
 	private Map<Integer, BufferedImage> mTiles;
+	private Map<Integer, Color> mTileColors;
+
+	/*
+	 * visible part of the labyrinth pre-rendered in video memory, the view
+	 * and grid it was rendered with, and whether it needs to be rendered
+	 * again before being drawn
+	 */
+	private VolatileImage mLabyrinthLayer;
+	private int mLayerZoom;
+	private int mLayerX;
+	private int mLayerY;
+	private boolean mLayerGrid;
+	private volatile boolean mLayerDirty;
+
+	/*
+	 * view : zoom level, and position of the canvas over the zoomed
+	 * labyrinth, in pixels
+	 */
+	private int mZoom;
+	private int mViewX;
+	private int mViewY;
+
+	/* last position of the mouse while dragging the view */
+	private int mDragX;
+	private int mDragY;
 
 	/* control variables */
-	private boolean mRunning;
+	private volatile boolean mRunning;
 	private boolean mPaused;
 	private boolean mShowGrid;
 	private boolean mDebug;
 	private boolean mFinished;
+	private boolean mTurbo;
 
 	/**
 	 * Constructs a {@code Display} that will display a simulation.
@@ -89,6 +147,7 @@ public final class Display implements Runnable {
 		// initiates instances
 		mSimulation = simulation;
 		mAnimation = new Animation(simulation.getWorld().getAnimals());
+		mSimulationOver = simulation.isOver();
 		mSpeed = DEFAULT_SPEED;
 
 		// default control variables
@@ -97,6 +156,8 @@ public final class Display implements Runnable {
 		mShowGrid = false;
 		mDebug = false;
 		mFinished = false;
+		mTurbo = false;
+		mLayerDirty = true;
 
 		// creates menu
 		createMenu();
@@ -128,12 +189,38 @@ public final class Display implements Runnable {
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+
+		// computes the colors of the tiles, drawn when zoomed out
+		mTileColors = new HashMap<Integer, Color>();
+		for (Map.Entry<Integer, BufferedImage> entry : mTiles.entrySet()) {
+			if (entry.getValue() != null) {
+				mTileColors.put(entry.getKey(), averageColor(entry.getValue()));
+			}
+		}
 	}
 
 	@Override
 	public void run() {
+		// computes the steps of the simulation on their own thread
+		Thread simulationThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				simulationLoop();
+			}
+		}, "Simulation");
+		simulationThread.setDaemon(true);
+		simulationThread.start();
+
 		mFrame.setVisible(true);
 		mainLoop();
+
+		// lets the simulation thread give up a step waiting to be painted
+		mAnimation.reset(null);
+		try {
+			simulationThread.join();
+		} catch (InterruptedException e) {
+			// do nothing
+		}
 		mFrame.dispose();
 	}
 
@@ -187,10 +274,68 @@ public final class Display implements Runnable {
 		// actual canvas
 		mCanvas = new Canvas();
 
-		// sets canvas size
-		int height = SQUARE_SIZE * mSimulation.getWorld().getHeight();
-		int width = SQUARE_SIZE * mSimulation.getWorld().getWidth();
+		// sets canvas size, large labyrinths being seen through a view
+		int height = Math.min(SQUARE_SIZE * mSimulation.getWorld().getHeight(), MAX_CANVAS_HEIGHT);
+		int width = Math.min(SQUARE_SIZE * mSimulation.getWorld().getWidth(), MAX_CANVAS_WIDTH);
 		mCanvas.setSize(width, height);
+		fitView();
+
+		// drags the view with the mouse, and zooms with the wheel
+		MouseAdapter mouse = new MouseAdapter() {
+			@Override
+			public void mousePressed(MouseEvent e) {
+				synchronized (mLock) {
+					mDragX = e.getX();
+					mDragY = e.getY();
+				}
+			}
+
+			@Override
+			public void mouseDragged(MouseEvent e) {
+				synchronized (mLock) {
+					moveView(mDragX - e.getX(), mDragY - e.getY());
+					mDragX = e.getX();
+					mDragY = e.getY();
+				}
+			}
+
+			@Override
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				synchronized (mLock) {
+					zoomAt(mZoom - e.getWheelRotation(), e.getX(), e.getY());
+				}
+			}
+		};
+		mCanvas.addMouseListener(mouse);
+		mCanvas.addMouseMotionListener(mouse);
+		mCanvas.addMouseWheelListener(mouse);
+
+		// moves the view by a quarter of the canvas with the arrows
+		mCanvas.addKeyListener(new KeyAdapter() {
+			@Override
+			public void keyPressed(KeyEvent e) {
+				int dx = mCanvas.getWidth() / 4;
+				int dy = mCanvas.getHeight() / 4;
+				synchronized (mLock) {
+					switch (e.getKeyCode()) {
+					case KeyEvent.VK_LEFT:
+						moveView(-dx, 0);
+						break;
+					case KeyEvent.VK_RIGHT:
+						moveView(dx, 0);
+						break;
+					case KeyEvent.VK_UP:
+						moveView(0, -dy);
+						break;
+					case KeyEvent.VK_DOWN:
+						moveView(0, dy);
+						break;
+					default:
+						break;
+					}
+				}
+			}
+		});
 
 		// sets up options to make it look good
 		mCanvas.setIgnoreRepaint(true);
@@ -221,9 +366,17 @@ public final class Display implements Runnable {
 		stopItem.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
-				synchronized (mLock) {
+				// drops the steps waiting to be painted, so that the
+				// simulation thread does not wait for room
+				mAnimation.reset(null);
+				mSimulationLock.lock();
+				try {
 					mSimulation.stop();
-					mAnimation.reset(null);
+					mSimulationOver = mSimulation.isOver();
+				} finally {
+					mSimulationLock.unlock();
+				}
+				synchronized (mLock) {
 					mPaused = false;
 				}
 			}
@@ -237,11 +390,19 @@ public final class Display implements Runnable {
 		restart.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
-				synchronized (mLock) {
+				mAnimation.reset(null);
+				mSimulationLock.lock();
+				try {
 					mSimulation.restart();
 					mAnimation.reset(mSimulation.getWorld().getAnimals());
+					mSimulationOver = mSimulation.isOver();
+				} finally {
+					mSimulationLock.unlock();
+				}
+				synchronized (mLock) {
 					mPaused = false;
 					mFinished = false;
+					mLayerDirty = true;
 				}
 			}
 		});
@@ -331,6 +492,23 @@ public final class Display implements Runnable {
 		menu.add(accelerateItem);
 		menu.add(decelerateItem);
 
+		// "Turbo mode"
+		final JCheckBoxMenuItem turboItem = new JCheckBoxMenuItem("Turbo mode");
+		turboItem.setState(mTurbo);
+		turboItem.setMnemonic(KeyEvent.VK_T);
+		turboItem.setAccelerator(KeyStroke.getKeyStroke("control T"));
+		turboItem.setToolTipText("Fast-forwards the simulation, showing only its latest state.");
+		turboItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				synchronized (mLock) {
+					mTurbo = !mTurbo;
+					turboItem.setState(mTurbo);
+				}
+			}
+		});
+		menu.add(turboItem);
+
 		// ==========================================================
 		menu.addSeparator();
 
@@ -369,6 +547,54 @@ public final class Display implements Runnable {
 		});
 		menu.add(gridItem);
 
+		// ==========================================================
+		menu.addSeparator();
+
+		// "Zoom in"
+		JMenuItem zoomInItem = new JMenuItem("Zoom in", KeyEvent.VK_I);
+		zoomInItem.setToolTipText("Enlarges the squares of the labyrinth.");
+		zoomInItem.setAccelerator(KeyStroke.getKeyStroke("PAGE_UP"));
+		zoomInItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				synchronized (mLock) {
+					zoomAt(mZoom + 1, mCanvas.getWidth() / 2, mCanvas.getHeight() / 2);
+				}
+			}
+		});
+		menu.add(zoomInItem);
+
+		// "Zoom out"
+		JMenuItem zoomOutItem = new JMenuItem("Zoom out", KeyEvent.VK_O);
+		zoomOutItem.setToolTipText("Shrinks the squares of the labyrinth.");
+		zoomOutItem.setAccelerator(KeyStroke.getKeyStroke("PAGE_DOWN"));
+		zoomOutItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				synchronized (mLock) {
+					zoomAt(mZoom - 1, mCanvas.getWidth() / 2, mCanvas.getHeight() / 2);
+				}
+			}
+		});
+		menu.add(zoomOutItem);
+
+		// "Fit to window"
+		JMenuItem fitItem = new JMenuItem("Fit to window", KeyEvent.VK_F);
+		fitItem.setToolTipText("Shows as much of the labyrinth as possible.");
+		fitItem.setAccelerator(KeyStroke.getKeyStroke("HOME"));
+		fitItem.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				synchronized (mLock) {
+					fitView();
+				}
+			}
+		});
+		menu.add(fitItem);
+
+		// ==========================================================
+		menu.addSeparator();
+
 		// "Exit"
 		JMenuItem exitItem = new JMenuItem("Exit", KeyEvent.VK_E);
 		exitItem.setToolTipText("Exits program.");
@@ -385,32 +611,197 @@ public final class Display implements Runnable {
 	}
 
 	/**
-	 * Draws the labyrinth being simulated.
+	 * Chooses the largest zoom level, up to the size of the images, at which
+	 * the whole labyrinth fits on the canvas, and shows its top-left corner
+	 * if it does not fit at all.
+	 */
+
+	private void fitView() {
+		World world = mSimulation.getWorld();
+		mZoom = 0;
+		for (int zoom = 0; zoom < ZOOM_LEVELS.length && ZOOM_LEVELS[zoom] <= SQUARE_SIZE; zoom++) {
+			if (world.getWidth() * ZOOM_LEVELS[zoom] <= mCanvas.getWidth()
+					&& world.getHeight() * ZOOM_LEVELS[zoom] <= mCanvas.getHeight()) {
+				mZoom = zoom;
+			}
+		}
+		mViewX = 0;
+		mViewY = 0;
+		moveView(0, 0);
+	}
+
+	/**
+	 * Changes the zoom level, keeping still the point of the labyrinth under
+	 * a point of the canvas.
+	 * 
+	 * @param zoom
+	 *            The new zoom level, clamped to the available levels
+	 * @param x
+	 *            Abscissa of the point on the canvas
+	 * @param y
+	 *            Ordinate of the point on the canvas
+	 */
+
+	private void zoomAt(int zoom, int x, int y) {
+		zoom = Math.max(0, Math.min(zoom, ZOOM_LEVELS.length - 1));
+		double factor = (double) ZOOM_LEVELS[zoom] / ZOOM_LEVELS[mZoom];
+		mZoom = zoom;
+		mViewX = (int) Math.round((mViewX + x) * factor) - x;
+		mViewY = (int) Math.round((mViewY + y) * factor) - y;
+		moveView(0, 0);
+	}
+
+	/**
+	 * Moves the view, without leaving the labyrinth. A labyrinth smaller than
+	 * the canvas is centered on it.
+	 * 
+	 * @param dx
+	 *            Horizontal move, in pixels
+	 * @param dy
+	 *            Vertical move, in pixels
+	 */
+
+	private void moveView(int dx, int dy) {
+		World world = mSimulation.getWorld();
+		int size = ZOOM_LEVELS[mZoom];
+		mViewX = clampView(mViewX + dx, world.getWidth() * size, mCanvas.getWidth());
+		mViewY = clampView(mViewY + dy, world.getHeight() * size, mCanvas.getHeight());
+	}
+
+	/**
+	 * Clamps one coordinate of the view.
+	 * 
+	 * @param view
+	 *            The coordinate of the view
+	 * @param content
+	 *            Size of the zoomed labyrinth along the coordinate
+	 * @param canvas
+	 *            Size of the canvas along the coordinate
+	 * @return The closest coordinate showing only the labyrinth, or centering
+	 *         it if it is smaller than the canvas
+	 */
+
+	private static int clampView(int view, int content, int canvas) {
+		if (content <= canvas) {
+			return (content - canvas) / 2;
+		}
+		return Math.max(0, Math.min(view, content - canvas));
+	}
+
+	/**
+	 * Draws the visible part of the labyrinth, by copying the pre-rendered
+	 * layer in one call. The layer is rendered again only when the view or
+	 * the grid changed, after a restart, or when its video memory was lost.
 	 * 
 	 * @param g
 	 *            The graphics on which the labyrinth will be drawn
+	 * @param zoom
+	 *            The zoom level of the view
+	 * @param viewX
+	 *            Abscissa of the view over the zoomed labyrinth
+	 * @param viewY
+	 *            Ordinate of the view over the zoomed labyrinth
+	 * @param grid
+	 *            Whether the grid is shown
 	 */
 
-	private void drawLabyrinth(Graphics2D g) {
+	private void drawLabyrinth(Graphics2D g, int zoom, int viewX, int viewY, boolean grid) {
+		GraphicsConfiguration configuration = mCanvas.getGraphicsConfiguration();
+		do {
+			// (re)creates the layer if the canvas or the screen changed
+			int width = mCanvas.getWidth();
+			int height = mCanvas.getHeight();
+			int state = VolatileImage.IMAGE_INCOMPATIBLE;
+			if (mLabyrinthLayer != null && mLabyrinthLayer.getWidth() == width
+					&& mLabyrinthLayer.getHeight() == height) {
+				state = mLabyrinthLayer.validate(configuration);
+			}
+			if (state == VolatileImage.IMAGE_INCOMPATIBLE) {
+				if (mLabyrinthLayer != null) {
+					mLabyrinthLayer.flush();
+				}
+				mLabyrinthLayer = configuration.createCompatibleVolatileImage(width, height);
+				mLayerDirty = true;
+			} else if (state == VolatileImage.IMAGE_RESTORED) {
+				mLayerDirty = true;
+			}
+
+			if (mLayerDirty || zoom != mLayerZoom || viewX != mLayerX || viewY != mLayerY
+					|| grid != mLayerGrid) {
+				mLayerDirty = false;
+				mLayerZoom = zoom;
+				mLayerX = viewX;
+				mLayerY = viewY;
+				mLayerGrid = grid;
+				Graphics2D layer = mLabyrinthLayer.createGraphics();
+				try {
+					renderLabyrinth(layer, ZOOM_LEVELS[zoom], viewX, viewY, grid);
+				} finally {
+					layer.dispose();
+				}
+			}
+
+			g.drawImage(mLabyrinthLayer, 0, 0, mFrame);
+		} while (mLabyrinthLayer.contentsLost());
+	}
+
+	/**
+	 * Renders the tiles of the labyrinth which intersect the canvas, and the
+	 * grid if it is shown. When the squares are smaller than
+	 * {@link #DETAIL_SIZE}, the tiles are plain squares of their main color.
+	 * 
+	 * @param g
+	 *            The graphics on which the labyrinth will be rendered
+	 * @param size
+	 *            The size of the squares, in pixels
+	 * @param viewX
+	 *            Abscissa of the view over the zoomed labyrinth
+	 * @param viewY
+	 *            Ordinate of the view over the zoomed labyrinth
+	 * @param grid
+	 *            Whether the grid is shown
+	 */
+
+	private void renderLabyrinth(Graphics2D g, int size, int viewX, int viewY, boolean grid) {
 		World world = mSimulation.getWorld();
+		int canvasWidth = mLabyrinthLayer.getWidth();
+		int canvasHeight = mLabyrinthLayer.getHeight();
+
+		// clears background
+		g.setColor(BACKGROUND_COLOR);
+		g.fillRect(0, 0, canvasWidth, canvasHeight);
+
+		// bounds of the visible tiles
+		int fromX = Math.max(0, Math.floorDiv(viewX, size));
+		int fromY = Math.max(0, Math.floorDiv(viewY, size));
+		int toX = Math.min(world.getWidth(), Math.floorDiv(viewX + canvasWidth - 1, size) + 1);
+		int toY = Math.min(world.getHeight(), Math.floorDiv(viewY + canvasHeight - 1, size) + 1);
+		boolean detailed = size >= DETAIL_SIZE;
 
 		BufferedImage tile;
-		for (int y = 0; y < world.getHeight(); y++) {
-			for (int x = 0; x < world.getWidth(); x++) {
+		for (int y = fromY; y < toY; y++) {
+			for (int x = fromX; x < toX; x++) {
+				int width = x * size - viewX;
+				int height = y * size - viewY;
+
+				if (!detailed) {
+					Color color = mTileColors.get(world.getTile(x, y));
+					g.setColor(color == null ? BACKGROUND_COLOR : color);
+					g.fillRect(width, height, size, size);
+					continue;
+				}
+
 				// retrieves corresponding image
 				tile = mTiles.get(world.getTile(x, y));
 				if (tile == null) {
 					tile = mTiles.get(World.WALL);
 				}
 
-				int width = x * SQUARE_SIZE;
-				int height = y * SQUARE_SIZE;
-
-				g.drawImage(tile, width, height, mFrame);
+				g.drawImage(tile, width, height, size, size, mFrame);
 
-				if (mShowGrid) {
+				if (grid) {
 					g.setColor(BACKGROUND_COLOR);
-					g.drawRect(width, height, SQUARE_SIZE, SQUARE_SIZE);
+					g.drawRect(width, height, size, size);
 				}
 			}
 		}
@@ -430,38 +821,53 @@ public final class Display implements Runnable {
 	 */
 
 	private void drawAnimation(float dt, Graphics2D g, int width, int height) {
-		// clears background
-		g.setColor(BACKGROUND_COLOR);
-		g.fillRect(0, 0, width, height);
+		// reads the view, which may be changed meanwhile
+		int zoom, viewX, viewY;
+		boolean grid;
+		synchronized (mLock) {
+			zoom = mZoom;
+			viewX = mViewX;
+			viewY = mViewY;
+			grid = mShowGrid;
+		}
 
-		// paints maze
-		drawLabyrinth(g);
+		// paints maze, over the whole background
+		drawLabyrinth(g, zoom, viewX, viewY, grid);
 
 		synchronized (mLock) {
-			// paints next animation frame
-			mAnimation.paint(dt, g, mFrame);
-
-			if (mAnimation.isDone()) {
-				// determines if maze is solved
-				if (!mFinished && mSimulation.isOver()) {
-					mFinished = true;
-					final String recordTable = mSimulation.getRecordTable();
-
-					// message dialog to invoke later, to prevent Display from
-					// crashing when a key is being held
-					EventQueue.invokeLater(new Runnable() {
-						@Override
-						public void run() {
-							JOptionPane.showMessageDialog(null, "Simulation is complete.\n\n" + recordTable);
-						}
-					});
-					mPaused = true;
-				} else {
-					if (mDebug) {
-						mPaused = true;
-					}
-					nextMove();
+			// paints next animation frame, in the pixels of the labyrinth
+			// at full size, skipping the animals out of view
+			int size = ZOOM_LEVELS[zoom];
+			double scale = (double) size / SQUARE_SIZE;
+			Rectangle visible = new Rectangle((int) Math.floor(viewX / scale),
+					(int) Math.floor(viewY / scale), (int) Math.ceil(width / scale) + 1,
+					(int) Math.ceil(height / scale) + 1);
+			AffineTransform transform = g.getTransform();
+			g.translate(-viewX, -viewY);
+			g.scale(scale, scale);
+			mAnimation.paint(dt, g, mFrame, visible, size >= DETAIL_SIZE);
+			g.setTransform(transform);
+
+			// determines if maze is solved, once its last step was painted
+			if (!mFinished && mSimulationOver && mAnimation.isDone()) {
+				mFinished = true;
+				final String recordTable;
+				mSimulationLock.lock();
+				try {
+					recordTable = mSimulation.getRecordTable();
+				} finally {
+					mSimulationLock.unlock();
 				}
+
+				// message dialog to invoke later, to prevent Display from
+				// crashing when a key is being held
+				EventQueue.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						JOptionPane.showMessageDialog(null, "Simulation is complete.\n\n" + recordTable);
+					}
+				});
+				mPaused = true;
 			}
 		}
 	}
@@ -530,14 +936,104 @@ public final class Display implements Runnable {
 	}
 
 	/**
-	 * Computes the {@code Simulation}'s next move.
+	 * Runs the simulation loop, on its own thread. The steps are computed as
+	 * long as the queue of the animation has room, or one at a time in debug
+	 * mode. In turbo mode, which debug mode overrides, the steps are not
+	 * animated.
 	 */
 
-	private void nextMove() {
-		synchronized (mLock) {
-			if (mRunning) {
+	private void simulationLoop() {
+		while (mRunning) {
+			boolean waiting;
+			boolean turbo;
+			synchronized (mLock) {
+				waiting = mPaused || mFinished || (mDebug && !mAnimation.isDone());
+				turbo = mTurbo && !mDebug;
+			}
+			if (waiting || !nextMove(turbo)) {
+				try {
+					Thread.sleep(ANIMATION_SLEEP);
+				} catch (InterruptedException e) {
+					// do nothing
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the {@code Simulation}'s next move. In debug mode, the display
+	 * is paused until the user asks for the next step.
+	 * <p>
+	 * In turbo mode, the simulation advances without any listener for as
+	 * many steps as fit in {@link #TURBO_BUDGET} milliseconds, by batches of
+	 * {@link #TURBO_STEPS}, and the animation only shows the animals where
+	 * they stand at the end.
+	 * 
+	 * @param turbo
+	 *            Whether the steps are computed in turbo mode
+	 * @return <b>true</b> if the simulation moved, <b>false</b> if it is over
+	 */
+
+	private boolean nextMove(boolean turbo) {
+		mSimulationLock.lock();
+		try {
+			if (!mRunning || mSimulation.isOver()) {
+				return false;
+			}
+			if (turbo) {
+				long deadline = System.nanoTime() + TURBO_BUDGET * 1000000L;
+				do {
+					mSimulation.advance(TURBO_STEPS);
+				} while (!mSimulation.isOver() && System.nanoTime() < deadline);
+				mAnimation.reset(mSimulation.getWorld().getAnimals());
+			} else {
 				mSimulation.move(mAnimation);
 			}
+			mSimulationOver = mSimulation.isOver();
+		} finally {
+			mSimulationLock.unlock();
+		}
+
+		synchronized (mLock) {
+			if (mDebug) {
+				mPaused = true;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the average color of the first square of an image, ignoring
+	 * its transparent pixels.
+	 * 
+	 * @param image
+	 *            The image, such as a tile or the frames of an animal
+	 * @return The average color, or the background color if the square is
+	 *         transparent
+	 */
+
+	static Color averageColor(BufferedImage image) {
+		int width = Math.min(image.getWidth(), SQUARE_SIZE);
+		int height = Math.min(image.getHeight(), SQUARE_SIZE);
+		long red = 0;
+		long green = 0;
+		long blue = 0;
+		int count = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int argb = image.getRGB(x, y);
+				if ((argb >>> 24) < 0x80) {
+					continue;
+				}
+				red += (argb >> 16) & 0xFF;
+				green += (argb >> 8) & 0xFF;
+				blue += argb & 0xFF;
+				count++;
+			}
+		}
+		if (count == 0) {
+			return BACKGROUND_COLOR;
 		}
+		return new Color((int) (red / count), (int) (green / count), (int) (blue / count));
 	}
 }
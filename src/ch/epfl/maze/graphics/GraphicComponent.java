@@ -1,6 +1,8 @@
 package ch.epfl.maze.graphics;
 
+import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
@@ -13,6 +15,9 @@ import ch.epfl.maze.util.Vector2D;
 
 /**
  * Graphic component of an animal that will be drawn by an {@link Animation}.
+ * <p>
+ * The components of an animation are reused from one step to the next, by
+ * setting them again with {@link #set(BufferedImage, int, int, Action)}.
  * 
  */
 
@@ -22,9 +27,13 @@ public final class GraphicComponent {
 	public static final int MAXIMUM_FRAMES = 4;
 	public static final int SQUARE_SIZE = Display.SQUARE_SIZE;
 
+	/* question mark drawn over confused animals */
+	private static final ImageIcon UNKNOWN = new ImageIcon("img/unknown.png");
+
 	/* drawing variables */
-	private final Vector2D mPosition;
-	private final BufferedImage mImage;
+	private int mX;
+	private int mY;
+	private BufferedImage mImage;
 	private Action mAction;
 	private boolean mRotate;
 
@@ -43,23 +52,60 @@ public final class GraphicComponent {
 
 	public GraphicComponent(BufferedImage image, Vector2D position, Action action) {
 		// sanity checks
-		if (image == null) {
-			throw new IllegalArgumentException("BufferedImage cannot be null.");
-		}
 		if (position == null) {
 			throw new IllegalArgumentException("Position cannot be null.");
 		}
+		set(image, position.getX(), position.getY(), action);
+	}
+
+	/**
+	 * Constructs an empty graphic component, to be set before being painted.
+	 */
+
+	GraphicComponent() {
+	}
+
+	/**
+	 * Sets the image, the position and the action of the component, which
+	 * is drawn as if it had just been constructed with them.
+	 * 
+	 * @param image
+	 *            Image of animal
+	 * @param x
+	 *            Abscissa at which the image will be drawn, in pixels
+	 * @param y
+	 *            Ordinate at which the image will be drawn, in pixels
+	 * @param action
+	 *            Action that the component needs to perform
+	 */
+
+	void set(BufferedImage image, int x, int y, Action action) {
+		// sanity checks
+		if (image == null) {
+			throw new IllegalArgumentException("BufferedImage cannot be null.");
+		}
 		if (action == null) {
 			action = new Action(Direction.NONE, false);
 		}
 
 		// default values
 		mImage = image;
-		mPosition = position;
+		mX = x;
+		mY = y;
 		mRotate = true;
 		mAction = action;
 	}
 
+	/**
+	 * Returns the image of the animal drawn by the component.
+	 * 
+	 * @return The image of the animal, with all its frames
+	 */
+
+	public BufferedImage getImage() {
+		return mImage;
+	}
+
 	/**
 	 * Notifies the component that it will die between two squares.
 	 */
@@ -96,6 +142,54 @@ public final class GraphicComponent {
 		}
 	}
 
+	/**
+	 * Determines if the component may be drawn inside a rectangle, wherever
+	 * its action takes it.
+	 * 
+	 * @param visible
+	 *            The rectangle, in the coordinates of the components
+	 * @return <b>true</b> if the component may be drawn inside the rectangle,
+	 *         <b>false</b> if it can be skipped
+	 */
+
+	public boolean intersects(Rectangle visible) {
+		return visible.intersects(mX - SQUARE_SIZE, mY - SQUARE_SIZE,
+				3 * SQUARE_SIZE, 3 * SQUARE_SIZE);
+	}
+
+	/**
+	 * Asks the graphic component to paint itself as a plain square, by
+	 * performing a ratio of its action. Used when the squares are too small
+	 * for the image of the animal to be seen.
+	 * 
+	 * @param ratio
+	 *            Ratio of the action to be performed
+	 * @param g
+	 *            Graphic environment
+	 * @param color
+	 *            Color of the square
+	 */
+
+	public void paintPlain(float ratio, Graphics2D g, Color color) {
+		// follows the same path as paint(float, Graphics2D, ImageObserver)
+		Vector2D heading = mAction.getDirection().toVector();
+		if (mAction.getDirection() == Direction.NONE) {
+			ratio = 0;
+		} else if (ratio > 0.5) {
+			if (mAction.diesBetweenSquares()) {
+				return;
+			}
+			if (!mAction.isSuccessful()) {
+				ratio = 1 - ratio;
+			}
+		}
+
+		g.setColor(color);
+		g.fillRect(Math.round(mX + ratio * heading.getX() * SQUARE_SIZE),
+				Math.round(mY + ratio * heading.getY() * SQUARE_SIZE),
+				SQUARE_SIZE, SQUARE_SIZE);
+	}
+
 	/**
 	 * Draws the moving component on graphics environment and target window.
 	 * <p>
@@ -119,11 +213,12 @@ public final class GraphicComponent {
 		// loads the correct frame
 		BufferedImage img = cropImage(ratio, mAction.getDirection());
 
-		AffineTransform reset = new AffineTransform();
+		AffineTransform base = g.getTransform();
+		AffineTransform reset = new AffineTransform(base);
 
 		// applies translation
-		double newX = (mPosition.getX() + ratio * heading.getX());
-		double newY = (mPosition.getY() + ratio * heading.getY());
+		double newX = (mX + ratio * heading.getX());
+		double newY = (mY + ratio * heading.getY());
 		reset.translate(newX, newY);
 
 		// applies rotation
@@ -140,10 +235,8 @@ public final class GraphicComponent {
 		g.setTransform(reset);
 		g.drawImage(img, 0, 0, targetWindow);
 
-		// inverts transformations
-		reset.rotate(-rotation, SQUARE_SIZE / 2, SQUARE_SIZE / 2);
-		reset.translate(-newX, -newY);
-		g.setTransform(reset);
+		// restores the transformation of the graphics
+		g.setTransform(base);
 	}
 
 	/**
@@ -161,11 +254,12 @@ public final class GraphicComponent {
 		// loads default frame of image with default direction
 		BufferedImage img = cropImage(-1, Direction.NONE);
 
-		AffineTransform reset = new AffineTransform();
+		AffineTransform base = g.getTransform();
+		AffineTransform reset = new AffineTransform(base);
 
 		// applies translation
-		double newX = mPosition.getX();
-		double newY = mPosition.getY();
+		double newX = mX;
+		double newY = mY;
 		reset.translate(newX, newY);
 
 		// transforms and draws image
@@ -174,13 +268,11 @@ public final class GraphicComponent {
 
 		// draws interrogation mark
 		if (!mAction.isSuccessful()) {
-			ImageIcon icon = new ImageIcon("img/unknown.png");
-			g.drawImage(icon.getImage(), SQUARE_SIZE - icon.getIconWidth() - 2, 2, targetWindow);
+			g.drawImage(UNKNOWN.getImage(), SQUARE_SIZE - UNKNOWN.getIconWidth() - 2, 2, targetWindow);
 		}
 
-		// inverts translation
-		reset.translate(-newX, -newY);
-		g.setTransform(reset);
+		// restores the transformation of the graphics
+		g.setTransform(base);
 	}
 
 	/**
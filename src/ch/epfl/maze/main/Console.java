@@ -1,7 +1,5 @@
 package ch.epfl.maze.main;
 
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 import ch.epfl.maze.physical.Daedalus;
@@ -19,6 +17,7 @@ import ch.epfl.maze.physical.zoo.Panda;
 import ch.epfl.maze.simulation.DaedalusSimulation;
 import ch.epfl.maze.simulation.MazeSimulation;
 import ch.epfl.maze.simulation.Simulation;
+import ch.epfl.maze.util.IntArrayList;
 import ch.epfl.maze.util.LabyrinthGenerator;
 import ch.epfl.maze.util.Statistics;
 import ch.epfl.maze.util.Vector2D;
@@ -40,10 +39,18 @@ public class Console {
 		simulation = getMazeSimulation();
 		//simulation = getDaedalusSimulation();
 
-		System.out.print("Launching " + NUMBER_OF_SIMULATIONS + " simulations...");
-		Map<String, List<Integer>> results =
-				Statistics.computeStatistics(simulation, NUMBER_OF_SIMULATIONS);
+		// replays the batch of a given seed
+		if (args.length > 0) {
+			simulation.restart(Long.parseLong(args[0]));
+		}
+
+		System.out.print("Launching " + NUMBER_OF_SIMULATIONS + " simulations with seed "
+				+ simulation.getSeed() + "...");
+		Map<String, IntArrayList> results =
+				Statistics.computeStatisticsInParallel(simulation, NUMBER_OF_SIMULATIONS);
 		System.out.println(" done !");
+		System.out.println("Replay any run with the seed Statistics.seedOf("
+				+ simulation.getSeed() + ", run).");
 
 		printStats(results);
 	}
@@ -119,34 +126,34 @@ public class Console {
 	 *            Statistics of arrival times for every animals/preys
 	 */
 
-	public static void printStats(Map<String, List<Integer>> results) {
+	public static void printStats(Map<String, IntArrayList> results) {
 		// computes statistics
-		for (Map.Entry<String, List<Integer>> entry : results.entrySet()) {
+		for (Map.Entry<String, IntArrayList> entry : results.entrySet()) {
 			String name = entry.getKey();
-			List<Integer> list = entry.getValue();
+			IntArrayList list = entry.getValue();
 			if (list.isEmpty()) {
 				continue;
 			}
-			Collections.sort(list);
+			list.sort();
 
 			String max, min, std, mean, median, total;
 			// handles infinite values
-			if (Statistics.total(list) == Integer.MAX_VALUE) {
+			if (Statistics.total(list) == Statistics.INFINITE) {
 				total = "Infinite";
 				mean = "Infinite";
 				std = "Infinite";
 				max = "Infinite";
 			} else {
-				total = Integer.toString(Statistics.total(list));
+				total = Long.toString(Statistics.total(list));
 				mean = Integer.toString(Statistics.mean(list));
 				std = Double.toString(Statistics.std(list));
-				max = Integer.toString(list.get(list.size() - 1));
+				max = Integer.toString(list.max());
 			}
 			// min and median are special
-			min = (list.get(0) == Integer.MAX_VALUE) ?
-					"Infinite" : Integer.toString(list.get(0));
-			median = (list.get(list.size() / 2) == Integer.MAX_VALUE) ?
-					"Infinite" : Integer.toString(list.get(list.size() / 2));
+			min = (list.min() == Integer.MAX_VALUE) ?
+					"Infinite" : Integer.toString(list.min());
+			median = (list.median() == Integer.MAX_VALUE) ?
+					"Infinite" : Integer.toString(list.median());
 
 			System.out.println("\n\n========== " + name + " ==========\n");
 			System.out.println(" * total number of steps : " + total);
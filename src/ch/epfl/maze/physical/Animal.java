@@ -1,5 +1,7 @@
 package ch.epfl.maze.physical;
 
+import java.util.SplittableRandom;
+
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -11,6 +13,12 @@ import ch.epfl.maze.util.Vector2D;
 
 abstract public class Animal {
 
+	/* current position of the animal */
+	private Vector2D mPosition;
+
+	/* random generator of the animal, handed by the simulation */
+	private SplittableRandom mRandom;
+
 	/**
 	 * Constructs an animal with a specified position.
 	 * 
@@ -19,7 +27,7 @@ abstract public class Animal {
 	 */
 
 	public Animal(Vector2D position) {
-		// TODO
+		mPosition = position;
 	}
 
 	/**
@@ -35,6 +43,46 @@ abstract public class Animal {
 
 	abstract public Direction move(Direction[] choices);
 
+	/**
+	 * Notifies the animal that it has been added to a world, or restored in
+	 * it, so that it can keep the read-only information of the labyrinth it
+	 * needs. What the animal remembers of a labyrinth should be kept when it
+	 * enters another world built on the same one. Does nothing by default.
+	 * 
+	 * @param world
+	 *            The world the animal is added to
+	 */
+
+	public void enter(World world) {
+	}
+
+	/**
+	 * Hands the animal the random generator from which it draws its random
+	 * choices. Simulations give every animal its own generator, split from
+	 * the seed of the run, so that runs can be replayed exactly.
+	 * 
+	 * @param random
+	 *            The random generator of the animal
+	 */
+
+	public final void setRandom(SplittableRandom random) {
+		mRandom = random;
+	}
+
+	/**
+	 * Returns the random generator of the animal. An animal which was not
+	 * handed a generator gets an unseeded one.
+	 * 
+	 * @return The random generator of the animal
+	 */
+
+	protected final SplittableRandom getRandom() {
+		if (mRandom == null) {
+			mRandom = new SplittableRandom();
+		}
+		return mRandom;
+	}
+
 	/**
 	 * Updates the animal position with a direction.
 	 * <p>
@@ -46,7 +94,7 @@ abstract public class Animal {
 	 */
 
 	public final void update(Direction dir) {
-		// TODO
+		mPosition = mPosition.addDirectionTo(dir);
 	}
 
 	/**
@@ -59,7 +107,7 @@ abstract public class Animal {
 	 */
 
 	public final void setPosition(Vector2D position) {
-		// TODO
+		mPosition = position;
 	}
 
 	/**
@@ -69,9 +117,14 @@ abstract public class Animal {
 	 */
 
 	public final Vector2D getPosition() {
-		// TODO
-		return null;
+		return mPosition;
 	}
 
+	/**
+	 * Returns a copy of the animal, at the same position.
+	 * 
+	 * @return A new animal of the same kind
+	 */
+
 	abstract public Animal copy();
 }
@@ -0,0 +1,29 @@
+package ch.epfl.maze.physical;
+
+import ch.epfl.maze.util.Direction;
+
+/**
+ * Animal whose moves along a corridor can be skipped by a simulation.
+ * <p>
+ * On a tile with exactly two exits, a corridor walker always takes the exit
+ * it did not come from, and its state after the move depends only on the
+ * direction it took. A simulation can therefore move it to the other end of a
+ * corridor of a {@link JunctionGraph} in one jump, as long as it calls
+ * {@link #followCorridor(Direction)} with the last direction taken.
+ * 
+ */
+
+public interface CorridorWalker {
+
+	/**
+	 * Updates the state of the animal as if it had followed a whole corridor
+	 * step by step.
+	 * <p>
+	 * <b>Note</b> : The position of the animal is updated by the simulation.
+	 * 
+	 * @param last
+	 *            Direction of the last step taken along the corridor
+	 */
+
+	public void followCorridor(Direction last);
+}
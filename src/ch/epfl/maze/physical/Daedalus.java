@@ -3,6 +3,8 @@ package ch.epfl.maze.physical;
 import java.util.ArrayList;
 import java.util.List;
 
+import ch.epfl.maze.util.Labyrinth;
+
 /**
  * Daedalus in which predators hunt preys. Once a prey has been caught by a
  * predator, it will be removed from the daedalus.
@@ -11,6 +13,17 @@ import java.util.List;
 
 public final class Daedalus extends World {
 
+	/* animals currently in the daedalus */
+	private final List<Predator> mPredators;
+	private final List<Prey> mPreys;
+
+	/* copies of the animals as they were added, used to reset the daedalus */
+	private final List<Predator> mInitialPredators;
+	private final List<Prey> mInitialPreys;
+
+	/* snapshot of the initial animals, taken on the first reset */
+	private Snapshot mInitial;
+
 	/**
 	 * Constructs a Daedalus with a labyrinth structure
 	 * 
@@ -19,14 +32,43 @@ public final class Daedalus extends World {
 	 */
 
 	public Daedalus(int[][] labyrinth) {
+		this(new Labyrinth(labyrinth));
+	}
+
+	/**
+	 * Constructs a Daedalus with a labyrinth structure
+	 * 
+	 * @param labyrinth
+	 *            Structure of the labyrinth
+	 */
+
+	public Daedalus(Labyrinth labyrinth) {
 		super(labyrinth);
-		// TODO
+		mPredators = new ArrayList<Predator>();
+		mPreys = new ArrayList<Prey>();
+		mInitialPredators = new ArrayList<Predator>();
+		mInitialPreys = new ArrayList<Prey>();
+	}
+
+	/**
+	 * Constructs a Daedalus on the same labyrinth as another daedalus, without
+	 * any animal.
+	 * 
+	 * @param daedalus
+	 *            The daedalus whose labyrinth is reused
+	 */
+
+	private Daedalus(Daedalus daedalus) {
+		super(daedalus);
+		mPredators = new ArrayList<Predator>();
+		mPreys = new ArrayList<Prey>();
+		mInitialPredators = new ArrayList<Predator>();
+		mInitialPreys = new ArrayList<Prey>();
 	}
 
 	@Override
 	public boolean isSolved() {
-		// TODO
-		return false;
+		return mPreys.isEmpty();
 	}
 
 	/**
@@ -37,7 +79,10 @@ public final class Daedalus extends World {
 	 */
 
 	public void addPredator(Predator p) {
-		// TODO
+		p.enter(this);
+		mPredators.add(p);
+		mInitialPredators.add((Predator) p.copy());
+		mInitial = null;
 	}
 
 	/**
@@ -48,7 +93,10 @@ public final class Daedalus extends World {
 	 */
 
 	public void addPrey(Prey p) {
-		// TODO
+		p.enter(this);
+		mPreys.add(p);
+		mInitialPreys.add((Prey) p.copy());
+		mInitial = null;
 	}
 
 	/**
@@ -59,7 +107,7 @@ public final class Daedalus extends World {
 	 */
 
 	public void removePredator(Predator p) {
-		// TODO
+		mPredators.remove(p);
 	}
 
 	/**
@@ -70,13 +118,27 @@ public final class Daedalus extends World {
 	 */
 
 	public void removePrey(Prey p) {
-		// TODO
+		mPreys.remove(p);
+	}
+
+	/**
+	 * Removes the prey at the given index from the daedalus.
+	 * 
+	 * @param index
+	 *            Index of the prey to remove, as in {@link #getPrey(int)}
+	 * @return The removed prey
+	 */
+
+	public Prey removePreyAt(int index) {
+		return mPreys.remove(index);
 	}
 
 	@Override
 	public List<Animal> getAnimals() {
-		// TODO
-		return null;
+		List<Animal> animals = new ArrayList<Animal>(mPredators.size() + mPreys.size());
+		animals.addAll(mPredators);
+		animals.addAll(mPreys);
+		return animals;
 	}
 
 	/**
@@ -86,8 +148,7 @@ public final class Daedalus extends World {
 	 */
 
 	public List<Predator> getPredators() {
-		// TODO
-		return new ArrayList<Predator>();
+		return new ArrayList<Predator>(mPredators);
 	}
 
 	/**
@@ -97,8 +158,54 @@ public final class Daedalus extends World {
 	 */
 
 	public List<Prey> getPreys() {
-		// TODO
-		return new ArrayList<Prey>();
+		return new ArrayList<Prey>(mPreys);
+	}
+
+	/**
+	 * Returns the number of current predators in the daedalus.
+	 * 
+	 * @return The number of predators
+	 */
+
+	public int getPredatorCount() {
+		return mPredators.size();
+	}
+
+	/**
+	 * Returns a current predator of the daedalus, without copying the list of
+	 * predators.
+	 * 
+	 * @param index
+	 *            Index of the predator, between 0 and
+	 *            {@code getPredatorCount() - 1}
+	 * @return The predator at the given index
+	 */
+
+	public Predator getPredator(int index) {
+		return mPredators.get(index);
+	}
+
+	/**
+	 * Returns the number of current preys in the daedalus.
+	 * 
+	 * @return The number of preys
+	 */
+
+	public int getPreyCount() {
+		return mPreys.size();
+	}
+
+	/**
+	 * Returns a current prey of the daedalus, without copying the list of
+	 * preys.
+	 * 
+	 * @param index
+	 *            Index of the prey, between 0 and {@code getPreyCount() - 1}
+	 * @return The prey at the given index
+	 */
+
+	public Prey getPrey(int index) {
+		return mPreys.get(index);
 	}
 
 	/**
@@ -111,8 +218,7 @@ public final class Daedalus extends World {
 	 */
 
 	public boolean hasPredator(Predator p) {
-		// TODO
-		return false;
+		return mPredators.contains(p);
 	}
 
 	/**
@@ -125,12 +231,53 @@ public final class Daedalus extends World {
 	 */
 
 	public boolean hasPrey(Prey p) {
-		// TODO
-		return false;
+		return mPreys.contains(p);
 	}
 
 	@Override
 	public void reset() {
-		// TODO
+		if (mInitial == null) {
+			mInitial = createSnapshot(mInitialPredators, mInitialPreys);
+		}
+		restore(mInitial);
+	}
+
+	@Override
+	public Snapshot snapshot() {
+		return createSnapshot(mPredators, mPreys);
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		checkSnapshot(snapshot);
+		mPredators.clear();
+		mPreys.clear();
+		for (int i = 0; i < snapshot.getAnimalCount(); i++) {
+			Animal animal = snapshot.restoreAnimal(this, i);
+			if (i < snapshot.getSplit()) {
+				mPredators.add((Predator) animal);
+			} else {
+				mPreys.add((Prey) animal);
+			}
+		}
+	}
+
+	/**
+	 * Returns a new daedalus on the same labyrinth, with copies of the
+	 * animals as they were added. The copy can be simulated independently,
+	 * for instance in another thread.
+	 * 
+	 * @return A copy of the daedalus in its initial state
+	 */
+
+	public Daedalus copy() {
+		Daedalus daedalus = new Daedalus(this);
+		for (Predator p : mInitialPredators) {
+			daedalus.addPredator((Predator) p.copy());
+		}
+		for (Prey p : mInitialPreys) {
+			daedalus.addPrey((Prey) p.copy());
+		}
+		return daedalus;
 	}
 }
@@ -0,0 +1,155 @@
+package ch.epfl.maze.physical;
+
+import ch.epfl.maze.util.Direction;
+import ch.epfl.maze.util.Vector2D;
+
+/**
+ * Immutable set of the tiles of a world that can never lie on a path from the
+ * start to the exit.
+ * <p>
+ * The set is found by pruning the leaves of the graph of free tiles : a free
+ * tile with at most one free neighbour is a dead end, unless it is the start
+ * or the exit, and removing it may turn its neighbour into a new leaf. Since
+ * the set never changes, it is shared by every animal and every copy of the
+ * world.
+ * 
+ */
+
+public final class DeadEnds {
+
+	/* directions explored by the pruning */
+	private static final Direction[] MOVES = {
+			Direction.DOWN, Direction.UP, Direction.RIGHT, Direction.LEFT
+	};
+
+	/* dimensions of the labyrinth */
+	private final int mWidth;
+	private final int mHeight;
+
+	/* one bit per tile, indexed like the tiles */
+	private final long[] mBits;
+	private final int mCount;
+
+	/**
+	 * Prunes the dead ends of a world, in time linear in its number of tiles.
+	 * 
+	 * @param world
+	 *            The world to analyse
+	 */
+
+	DeadEnds(World world) {
+		mWidth = world.getWidth();
+		mHeight = world.getHeight();
+		int size = mWidth * mHeight;
+		mBits = new long[(size + 63) >>> 6];
+
+		// prunes every leaf, then follows the chain of tiles it leaves behind,
+		// so that each tile is removed at most once
+		int count = 0;
+		for (int index = 0; index < size; index++) {
+			int current = index;
+			while (isLeaf(world, current)) {
+				mBits[current >>> 6] |= 1L << current;
+				count++;
+				current = liveNeighbour(world, current);
+				if (current < 0) {
+					break;
+				}
+			}
+		}
+		mCount = count;
+	}
+
+	/**
+	 * Determines if a tile is a dead end.
+	 * 
+	 * @param index
+	 *            Index of the tile, as returned by
+	 *            {@link World#indexOf(int, int)}
+	 * @return <b>true</b> if the tile can never lie on a path from the start to
+	 *         the exit, <b>false</b> otherwise or if the index is incorrect
+	 */
+
+	public boolean isDeadEnd(int index) {
+		if (index < 0 || index >= mWidth * mHeight) {
+			return false;
+		}
+		return (mBits[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Determines if the tile at a position is a dead end.
+	 * 
+	 * @param position
+	 *            Position of the tile
+	 * @return <b>true</b> if the tile can never lie on a path from the start to
+	 *         the exit, <b>false</b> otherwise or if the position is outside
+	 *         the labyrinth
+	 * @see #isDeadEnd(int)
+	 */
+
+	public boolean isDeadEnd(Vector2D position) {
+		int x = position.getX();
+		int y = position.getY();
+		if (x < 0 || x >= mWidth || y < 0 || y >= mHeight) {
+			return false;
+		}
+		return isDeadEnd(y * mWidth + x);
+	}
+
+	/**
+	 * Returns the number of dead end tiles.
+	 * 
+	 * @return The number of tiles in the set
+	 */
+
+	public int getCount() {
+		return mCount;
+	}
+
+	/**
+	 * Determines if a tile has to be pruned : it is free, it is neither the
+	 * start nor the exit, it is not pruned yet and it has at most one free
+	 * neighbour left.
+	 * 
+	 * @param world
+	 *            The world being analysed
+	 * @param index
+	 *            Index of the tile
+	 * @return <b>true</b> if the tile is a new leaf, <b>false</b> otherwise
+	 */
+
+	private boolean isLeaf(World world, int index) {
+		if (world.tileAt(index) != World.FREE || isDeadEnd(index)) {
+			return false;
+		}
+		int neighbours = 0;
+		for (Direction d : MOVES) {
+			int neighbour = world.neighbourIndex(index, d);
+			if (world.isFree(neighbour) && !isDeadEnd(neighbour)) {
+				neighbours++;
+			}
+		}
+		return neighbours <= 1;
+	}
+
+	/**
+	 * Returns the free neighbour of a tile which is not pruned yet.
+	 * 
+	 * @param world
+	 *            The world being analysed
+	 * @param index
+	 *            Index of the tile
+	 * @return The index of the neighbour, or -1 if there is none
+	 */
+
+	private int liveNeighbour(World world, int index) {
+		for (Direction d : MOVES) {
+			int neighbour = world.neighbourIndex(index, d);
+			if (world.isFree(neighbour) && !isDeadEnd(neighbour)) {
+				return neighbour;
+			}
+		}
+		return -1;
+	}
+}
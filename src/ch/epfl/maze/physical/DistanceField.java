@@ -0,0 +1,146 @@
+package ch.epfl.maze.physical;
+
+import java.util.Arrays;
+
+import ch.epfl.maze.util.Direction;
+
+/**
+ * Immutable map of the shortest path distances from every tile of a world to
+ * a target tile, computed by a breadth-first search. The target itself does
+ * not need to be free, so that animals can aim at walls too.
+ * 
+ */
+
+public final class DistanceField {
+
+	/* distance of unreachable tiles */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	/* directions explored by the search */
+	private static final Direction[] MOVES = {
+			Direction.DOWN, Direction.UP, Direction.RIGHT, Direction.LEFT
+	};
+
+	/* initial capacity of the queue of the search, a power of two */
+	private static final int INITIAL_QUEUE = 256;
+
+	/* target and distances of every tile, indexed like the tiles */
+	private final int mTarget;
+	private final int[] mDistances;
+
+	/**
+	 * Computes the distances from every tile of a labyrinth to a target tile.
+	 * The search follows the exits masks of the tiles, and its queue only
+	 * grows with the frontier, so the distances are the only array as large as
+	 * the labyrinth.
+	 * 
+	 * @param exits
+	 *            Exits mask of every tile, as computed by the world
+	 * @param width
+	 *            Width of the labyrinth
+	 * @param target
+	 *            Index of the target tile
+	 */
+
+	DistanceField(byte[] exits, int width, int target) {
+		mTarget = target;
+		mDistances = new int[exits.length];
+		Arrays.fill(mDistances, UNREACHABLE);
+
+		// offsets of the neighbours, in the order of the moves
+		int[] offsets = new int[MOVES.length];
+		for (int i = 0; i < MOVES.length; i++) {
+			switch (MOVES[i]) {
+			case DOWN:
+				offsets[i] = width;
+				break;
+
+			case UP:
+				offsets[i] = -width;
+				break;
+
+			case RIGHT:
+				offsets[i] = 1;
+				break;
+
+			default:
+				offsets[i] = -1;
+			}
+		}
+
+		// breadth-first search from the target, over free tiles only
+		int[] queue = new int[INITIAL_QUEUE];
+		int head = 0;
+		int count = 0;
+		mDistances[target] = 0;
+		queue[count++] = target;
+		while (count > 0) {
+			int index = queue[head];
+			head = (head + 1) & (queue.length - 1);
+			count--;
+
+			int distance = mDistances[index] + 1;
+			int mask = exits[index];
+			for (int i = 0; i < MOVES.length; i++) {
+				if ((mask & (1 << MOVES[i].intValue())) == 0) {
+					continue;
+				}
+				int neighbour = index + offsets[i];
+				if (mDistances[neighbour] == UNREACHABLE) {
+					mDistances[neighbour] = distance;
+					if (count == queue.length) {
+						queue = grow(queue, head);
+						head = 0;
+					}
+					queue[(head + count) & (queue.length - 1)] = neighbour;
+					count++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the target tile.
+	 * 
+	 * @return The index of the target
+	 */
+
+	public int getTarget() {
+		return mTarget;
+	}
+
+	/**
+	 * Returns the length of the shortest path from a tile to the target.
+	 * 
+	 * @param index
+	 *            Index of the tile
+	 * @return The distance from the tile to the target, or
+	 *         {@link #UNREACHABLE} if there is no path or the index is
+	 *         incorrect
+	 */
+
+	public int getDistance(int index) {
+		if (index < 0 || index >= mDistances.length) {
+			return UNREACHABLE;
+		}
+		return mDistances[index];
+	}
+
+	/**
+	 * Doubles the capacity of a full circular queue.
+	 * 
+	 * @param queue
+	 *            The full queue
+	 * @param head
+	 *            Index of the first element of the queue
+	 * @return A new queue with the same elements, starting at index 0
+	 */
+
+	private static int[] grow(int[] queue, int head) {
+		int[] grown = new int[2 * queue.length];
+		int first = queue.length - head;
+		System.arraycopy(queue, head, grown, 0, first);
+		System.arraycopy(queue, 0, grown, first, head);
+		return grown;
+	}
+}
@@ -0,0 +1,194 @@
+package ch.epfl.maze.physical;
+
+/**
+ * Thread-safe cache of the distance fields of a labyrinth, shared by all the
+ * worlds built on it. It only keeps the exits masks of the labyrinth, so that
+ * it does not hold on to the animals of any world.
+ * <p>
+ * The fields are spread over stripes by target, each stripe being a small
+ * least recently used table of primitive keys with its own lock, so that
+ * threads asking for different targets rarely wait for each other. A field
+ * is computed only once, even when several threads ask for it at the same
+ * time.
+ * 
+ */
+
+final class DistanceFieldCache {
+
+	/* maximum number of fields and of stripes, powers of two */
+	private static final int MAX_FIELDS = 256;
+	private static final int MAX_STRIPES = 16;
+
+	/* fields may use at least this memory, or this share of the heap */
+	private static final long MIN_MEMORY = 1L << 26;
+	private static final int HEAP_SHARE = 4;
+
+	/* labyrinth on which the distances are computed */
+	private final byte[] mExits;
+	private final int mWidth;
+
+	/* stripes of the cache, chosen by target */
+	private final Stripe[] mStripes;
+
+	/**
+	 * Constructs an empty cache for a labyrinth. The number of fields kept is
+	 * bounded by the memory they take.
+	 * 
+	 * @param exits
+	 *            Exits mask of every tile of the labyrinth, which is never
+	 *            modified
+	 * @param width
+	 *            Width of the labyrinth
+	 */
+
+	DistanceFieldCache(byte[] exits, int width) {
+		mExits = exits;
+		mWidth = width;
+
+		long memory = Math.max(MIN_MEMORY, Runtime.getRuntime().maxMemory() / HEAP_SHARE);
+		long fieldMemory = 4L * Math.max(1, exits.length);
+		int capacity = (int) Math.max(1, Math.min(MAX_FIELDS, memory / fieldMemory));
+		int stripes = Integer.highestOneBit(Math.min(MAX_STRIPES, capacity));
+		mStripes = new Stripe[stripes];
+		for (int i = 0; i < stripes; i++) {
+			mStripes[i] = new Stripe(capacity / stripes);
+		}
+	}
+
+	/**
+	 * Returns the distance field towards a target, computing it if needed.
+	 * 
+	 * @param target
+	 *            Index of the target tile
+	 * @return The distance field towards the target
+	 */
+
+	public DistanceField get(int target) {
+		return stripeOf(target).entry(target).get();
+	}
+
+	/**
+	 * Returns the stripe in which a target is stored.
+	 * 
+	 * @param target
+	 *            Index of the target tile
+	 * @return The stripe of the target
+	 */
+
+	private Stripe stripeOf(int target) {
+		int hash = target * 0x9E3779B9;
+		return mStripes[(hash ^ (hash >>> 16)) & (mStripes.length - 1)];
+	}
+
+	/**
+	 * Field of a target, computed by the first thread asking for it.
+	 * 
+	 */
+
+	private final class Entry {
+
+		/* target of the field, and field once computed */
+		private final int mTarget;
+		private volatile DistanceField mField;
+
+		/* time of the last use, in the clock of the stripe */
+		private long mUsed;
+
+		/**
+		 * Constructs an entry whose field is not computed yet.
+		 * 
+		 * @param target
+		 *            Index of the target tile
+		 */
+
+		Entry(int target) {
+			mTarget = target;
+		}
+
+		/**
+		 * Returns the field of the entry, computing it if no other thread did.
+		 * 
+		 * @return The distance field towards the target
+		 */
+
+		DistanceField get() {
+			DistanceField field = mField;
+			if (field == null) {
+				synchronized (this) {
+					field = mField;
+					if (field == null) {
+						field = new DistanceField(mExits, mWidth, mTarget);
+						mField = field;
+					}
+				}
+			}
+			return field;
+		}
+	}
+
+	/**
+	 * Least recently used table of a few entries, looked up by scanning.
+	 * 
+	 */
+
+	private final class Stripe {
+
+		/* targets and entries, only the first mSize are meaningful */
+		private final int[] mTargets;
+		private final Entry[] mEntries;
+		private int mSize;
+
+		/* clock incremented at each use */
+		private long mClock;
+
+		/**
+		 * Constructs an empty stripe.
+		 * 
+		 * @param capacity
+		 *            Maximum number of entries
+		 */
+
+		Stripe(int capacity) {
+			mTargets = new int[capacity];
+			mEntries = new Entry[capacity];
+			mSize = 0;
+			mClock = 0;
+		}
+
+		/**
+		 * Returns the entry of a target, and marks it as used. A missing
+		 * entry is added, evicting the least recently used one if the stripe
+		 * is full.
+		 * 
+		 * @param target
+		 *            Index of the target tile
+		 * @return The entry of the target
+		 */
+
+		synchronized Entry entry(int target) {
+			for (int i = 0; i < mSize; i++) {
+				if (mTargets[i] == target) {
+					mEntries[i].mUsed = ++mClock;
+					return mEntries[i];
+				}
+			}
+			int slot = mSize;
+			if (slot == mTargets.length) {
+				slot = 0;
+				for (int i = 1; i < mSize; i++) {
+					if (mEntries[i].mUsed < mEntries[slot].mUsed) {
+						slot = i;
+					}
+				}
+			} else {
+				mSize++;
+			}
+
+			Entry entry = new Entry(target);
+			entry.mUsed = ++mClock;
+			mTargets[slot] = target;
+			mEntries[slot] = entry;
+			return entry;
+		}
+	}
+}
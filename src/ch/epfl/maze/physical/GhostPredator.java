@@ -0,0 +1,198 @@
+package ch.epfl.maze.physical;
+
+import ch.epfl.maze.util.Direction;
+import ch.epfl.maze.util.Vector2D;
+
+/**
+ * Predator behaving like the ghosts of the Pac-Man game. It alternates
+ * between chasing a target specific to each ghost and scattering back to its
+ * starting position, and never turns back unless it reaches a dead end.
+ * <p>
+ * Directions are chosen along the true shortest path to the target, using
+ * the distance fields of the daedalus, which are shared by every ghost.
+ * Targets lying in a wall or outside the labyrinth, such as the tiles ahead of
+ * a prey, are first moved to the closest free tile. Ghosts chasing the same
+ * prey in the same way thus share the same target, so that a step only
+ * computes a few fields per prey, however many ghosts there are.
+ * 
+ */
+
+abstract public class GhostPredator extends Predator {
+
+	/* position to which the ghost goes back while scattering */
+	private final Vector2D mHome;
+
+	/* steps made since the beginning, and previous direction */
+	private int mSteps;
+	private Direction mPrevious;
+
+	/*
+	 * index of the prey currently followed (-1 if none), and its position at
+	 * the previous step
+	 */
+	private int mPreyIndex;
+	private Vector2D mPreyPrevious;
+	private Direction mPreyDirection;
+
+	/**
+	 * Constructs a ghost with a starting position, which is also its scatter
+	 * target.
+	 * 
+	 * @param position
+	 *            Starting position of the ghost in the labyrinth
+	 */
+
+	public GhostPredator(Vector2D position) {
+		super(position);
+		mHome = position;
+		mSteps = 0;
+		mPrevious = Direction.NONE;
+		mPreyIndex = -1;
+		mPreyDirection = Direction.NONE;
+	}
+
+	/**
+	 * Constructs a copy of a ghost, in the same state.
+	 * 
+	 * @param ghost
+	 *            The ghost to copy
+	 */
+
+	protected GhostPredator(GhostPredator ghost) {
+		super(ghost.getPosition());
+		mHome = ghost.mHome;
+		mSteps = ghost.mSteps;
+		mPrevious = ghost.mPrevious;
+		mPreyIndex = ghost.mPreyIndex;
+		mPreyPrevious = ghost.mPreyPrevious;
+		mPreyDirection = ghost.mPreyDirection;
+	}
+
+	@Override
+	public final Direction move(Direction[] choices, Daedalus daedalus) {
+		boolean scatter = (mSteps % (SCATTER_DURATION + CHASE_DURATION)) >= CHASE_DURATION;
+		mSteps++;
+		followPrey(daedalus);
+
+		// chooses the target depending on the mode
+		Vector2D target;
+		if (mPreyIndex < 0 || scatter) {
+			target = mHome;
+		} else {
+			target = getTarget(mPreyPrevious, mPreyDirection, daedalus);
+		}
+
+		// aims at the closest free tile, which the shortest paths can reach
+		DistanceField field = null;
+		int index = daedalus.closestFreeIndex(target);
+		if (index >= 0) {
+			target = daedalus.positionOf(index);
+			field = daedalus.getDistanceField(index);
+		}
+
+		Direction choice = choose(choices, daedalus, target, field);
+		mPrevious = choice;
+		return choice;
+	}
+
+	/**
+	 * Returns the target of the ghost while chasing a prey.
+	 * 
+	 * @param prey
+	 *            Position of the prey followed
+	 * @param preyDirection
+	 *            Last direction taken by the prey, {@code NONE} if unknown
+	 * @param daedalus
+	 *            The daedalus in which the ghost moves
+	 * @return The position targeted by the ghost
+	 */
+
+	abstract protected Vector2D getTarget(Vector2D prey, Direction preyDirection,
+			Daedalus daedalus);
+
+	/**
+	 * Returns the position to which the ghost goes back while scattering.
+	 * 
+	 * @return The starting position of the ghost
+	 */
+
+	protected final Vector2D getHome() {
+		return mHome;
+	}
+
+	/**
+	 * Follows the closest prey, keeping track of the direction it took since
+	 * the previous step. The prey is known by its index, so that the state of
+	 * the ghost can be restored in a copy of the daedalus.
+	 * 
+	 * @param daedalus
+	 *            The daedalus in which the ghost moves
+	 */
+
+	private void followPrey(Daedalus daedalus) {
+		Vector2D position = getPosition();
+		int closest = -1;
+		double best = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < daedalus.getPreyCount(); i++) {
+			double distance = daedalus.getPrey(i).getPosition().sub(position).dist();
+			if (distance < best) {
+				best = distance;
+				closest = i;
+			}
+		}
+
+		Vector2D prey = (closest < 0) ? null : daedalus.getPrey(closest).getPosition();
+		if (closest != mPreyIndex) {
+			mPreyIndex = closest;
+			mPreyDirection = Direction.NONE;
+		} else if (prey != null && !prey.equals(mPreyPrevious)) {
+			mPreyDirection = prey.sub(mPreyPrevious).toDirection();
+		}
+		mPreyPrevious = prey;
+	}
+
+	/**
+	 * Chooses the direction leading to a target along the shortest path,
+	 * without turning back unless there is no other choice. Ties, and targets
+	 * which cannot be reached, are decided by the Euclidean distance.
+	 * 
+	 * @param choices
+	 *            The choices left to the ghost
+	 * @param daedalus
+	 *            The daedalus in which the ghost moves
+	 * @param target
+	 *            The position targeted
+	 * @param field
+	 *            The distance field towards the target, or {@code null} if
+	 *            the labyrinth has no free tile
+	 * @return The chosen direction
+	 */
+
+	private Direction choose(Direction[] choices, Daedalus daedalus, Vector2D target,
+			DistanceField field) {
+		if (choices.length == 0) {
+			return Direction.NONE;
+		}
+
+		int index = daedalus.indexOf(getPosition());
+		Direction best = null;
+		int bestDistance = DistanceField.UNREACHABLE;
+		double bestEuclidean = Double.POSITIVE_INFINITY;
+		for (Direction d : choices) {
+			if (choices.length > 1 && d == mPrevious.reverse() && d != Direction.NONE) {
+				continue;
+			}
+
+			int distance = (field == null) ? DistanceField.UNREACHABLE
+					: field.getDistance(daedalus.neighbourIndex(index, d));
+			double euclidean = daedalus.addDirectionTo(getPosition(), d).sub(target).dist();
+			if (best == null || distance < bestDistance
+					|| (distance == bestDistance && euclidean < bestEuclidean)) {
+				best = d;
+				bestDistance = distance;
+				bestEuclidean = euclidean;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,264 @@
+package ch.epfl.maze.physical;
+
+import java.util.Arrays;
+
+import ch.epfl.maze.util.Direction;
+
+/**
+ * Immutable graph of the junctions of a world, in which the corridors are
+ * compressed into single edges.
+ * <p>
+ * The nodes are the free tiles which do not have exactly two exits
+ * (intersections and dead ends), as well as the start and the exit. Every
+ * other free tile lies on a corridor : an animal entering it can only go on
+ * or turn back. The edge leaving a node in a direction follows the corridor
+ * until the next node, and carries its length and the sequence of directions
+ * taken along it.
+ * 
+ */
+
+public final class JunctionGraph {
+
+	/* directions in the order of their integer values */
+	private static final Direction[] MOVES = {
+			Direction.DOWN, Direction.UP, Direction.RIGHT, Direction.LEFT
+	};
+
+	/* nodes, as tile indices, and node of every tile (-1 if none) */
+	private final int[] mNodes;
+	private final int[] mNodeOfTile;
+
+	/*
+	 * edges, indexed by 4 * node + d.intValue() : target node (-1 if there is
+	 * no edge), length, and offset of the directions in mDirections
+	 */
+	private final int[] mTargets;
+	private final int[] mLengths;
+	private final int[] mOffsets;
+	private final byte[] mDirections;
+
+	/**
+	 * Builds the junction graph of a world, in time linear in its number of
+	 * tiles.
+	 * 
+	 * @param world
+	 *            The world whose labyrinth is compressed
+	 */
+
+	public JunctionGraph(World world) {
+		int size = world.getWidth() * world.getHeight();
+
+		// finds the nodes
+		mNodeOfTile = new int[size];
+		Arrays.fill(mNodeOfTile, -1);
+		int count = 0;
+		int corridors = 0;
+		for (int index = 0; index < size; index++) {
+			if (!world.isFree(index)) {
+				continue;
+			}
+			int tile = world.tileAt(index);
+			if (exitsOf(world, index) != 2 || tile == World.START || tile == World.EXIT) {
+				mNodeOfTile[index] = count++;
+			} else {
+				corridors++;
+			}
+		}
+		mNodes = new int[count];
+		for (int index = 0; index < size; index++) {
+			if (mNodeOfTile[index] >= 0) {
+				mNodes[mNodeOfTile[index]] = index;
+			}
+		}
+
+		// follows the corridor leaving every node in every direction, each
+		// corridor tile being crossed at most twice
+		mTargets = new int[4 * count];
+		mLengths = new int[4 * count];
+		mOffsets = new int[4 * count];
+		Arrays.fill(mTargets, -1);
+		byte[] directions = new byte[4 * count + 2 * corridors];
+		int used = 0;
+		for (int node = 0; node < count; node++) {
+			for (Direction d : MOVES) {
+				int next = world.neighbourIndex(mNodes[node], d);
+				if (next < 0 || !world.isFree(next)) {
+					continue;
+				}
+
+				int edge = 4 * node + d.intValue();
+				mOffsets[edge] = used;
+				directions[used++] = (byte) d.intValue();
+				int length = 1;
+				Direction last = d;
+				while (mNodeOfTile[next] < 0 && length <= corridors) {
+					last = corridorExit(world, next, last);
+					directions[used++] = (byte) last.intValue();
+					next = world.neighbourIndex(next, last);
+					length++;
+				}
+
+				// corridors looping without any node are left out
+				if (mNodeOfTile[next] >= 0) {
+					mTargets[edge] = mNodeOfTile[next];
+					mLengths[edge] = length;
+				} else {
+					used = mOffsets[edge];
+				}
+			}
+		}
+		mDirections = Arrays.copyOf(directions, used);
+	}
+
+	/**
+	 * Returns the number of nodes of the graph.
+	 * 
+	 * @return The number of nodes
+	 */
+
+	public int getNodeCount() {
+		return mNodes.length;
+	}
+
+	/**
+	 * Returns the node at a tile.
+	 * 
+	 * @param index
+	 *            Index of the tile
+	 * @return The node at the tile, or -1 if the tile is not a node
+	 */
+
+	public int nodeOf(int index) {
+		if (index < 0 || index >= mNodeOfTile.length) {
+			return -1;
+		}
+		return mNodeOfTile[index];
+	}
+
+	/**
+	 * Returns the tile of a node.
+	 * 
+	 * @param node
+	 *            A node of the graph
+	 * @return The index of the tile of the node
+	 */
+
+	public int tileOf(int node) {
+		return mNodes[node];
+	}
+
+	/**
+	 * Returns the node reached by following the corridor leaving a node in a
+	 * direction.
+	 * 
+	 * @param node
+	 *            A node of the graph
+	 * @param d
+	 *            Direction in which the node is left
+	 * @return The node at the other end of the corridor, or -1 if the node
+	 *         cannot be left in this direction
+	 */
+
+	public int getTarget(int node, Direction d) {
+		if (d == Direction.NONE) {
+			return -1;
+		}
+		return mTargets[4 * node + d.intValue()];
+	}
+
+	/**
+	 * Returns the number of steps needed to follow the corridor leaving a node
+	 * in a direction.
+	 * 
+	 * @param node
+	 *            A node of the graph
+	 * @param d
+	 *            Direction in which the node is left
+	 * @return The length of the corridor, or 0 if there is no edge
+	 */
+
+	public int getLength(int node, Direction d) {
+		if (getTarget(node, d) < 0) {
+			return 0;
+		}
+		return mLengths[4 * node + d.intValue()];
+	}
+
+	/**
+	 * Returns a direction taken while following the corridor leaving a node.
+	 * 
+	 * @param node
+	 *            A node of the graph
+	 * @param d
+	 *            Direction in which the node is left
+	 * @param step
+	 *            Number of the step, between 0 and
+	 *            {@code getLength(node, d) - 1}
+	 * @return The direction taken at the given step
+	 */
+
+	public Direction getDirection(int node, Direction d, int step) {
+		if (step < 0 || step >= getLength(node, d)) {
+			throw new IllegalArgumentException("Step must be inside the corridor.");
+		}
+		return MOVES[mDirections[mOffsets[4 * node + d.intValue()] + step]];
+	}
+
+	/**
+	 * Returns the direction of the last step taken while following the
+	 * corridor leaving a node, which is the direction in which the animal
+	 * arrives at the next node.
+	 * 
+	 * @param node
+	 *            A node of the graph
+	 * @param d
+	 *            Direction in which the node is left
+	 * @return The direction of the last step of the corridor
+	 */
+
+	public Direction getLastDirection(int node, Direction d) {
+		return getDirection(node, d, getLength(node, d) - 1);
+	}
+
+	/**
+	 * Counts the free neighbours of a tile.
+	 * 
+	 * @param world
+	 *            The world
+	 * @param index
+	 *            Index of the tile
+	 * @return The number of exits of the tile
+	 */
+
+	private static int exitsOf(World world, int index) {
+		int exits = 0;
+		for (Direction d : MOVES) {
+			if (world.isFree(world.neighbourIndex(index, d))) {
+				exits++;
+			}
+		}
+		return exits;
+	}
+
+	/**
+	 * Returns the exit of a corridor tile other than the one leading back.
+	 * 
+	 * @param world
+	 *            The world
+	 * @param index
+	 *            Index of the corridor tile
+	 * @param from
+	 *            Direction in which the tile was entered
+	 * @return The direction in which the corridor goes on
+	 */
+
+	static Direction corridorExit(World world, int index, Direction from) {
+		Direction back = from.reverse();
+		for (Direction d : MOVES) {
+			if (d != back && world.isFree(world.neighbourIndex(index, d))) {
+				return d;
+			}
+		}
+		return back;
+	}
+}
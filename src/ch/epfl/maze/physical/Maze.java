@@ -1,8 +1,11 @@
 package ch.epfl.maze.physical;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import ch.epfl.maze.util.Labyrinth;
+
 /**
  * Maze in which an animal starts from a starting point and must find the exit.
  * Every animal added will have its position set to the starting point. The
@@ -12,6 +15,15 @@ import java.util.List;
 
 public final class Maze extends World {
 
+	/* animals currently in the maze */
+	private final List<Animal> mAnimals;
+
+	/* copies of the animals as they were added, used to reset the maze */
+	private final List<Animal> mInitialAnimals;
+
+	/* snapshot of the initial animals, taken on the first reset */
+	private Snapshot mInitial;
+
 	/**
 	 * Constructs a Maze with a labyrinth structure.
 	 * 
@@ -20,20 +32,44 @@ public final class Maze extends World {
 	 */
 
 	public Maze(int[][] labyrinth) {
+		this(new Labyrinth(labyrinth));
+	}
+
+	/**
+	 * Constructs a Maze with a labyrinth structure.
+	 * 
+	 * @param labyrinth
+	 *            Structure of the labyrinth
+	 */
+
+	public Maze(Labyrinth labyrinth) {
 		super(labyrinth);
-		// TODO
+		mAnimals = new ArrayList<Animal>();
+		mInitialAnimals = new ArrayList<Animal>();
+	}
+
+	/**
+	 * Constructs a Maze on the same labyrinth as another maze, without any
+	 * animal.
+	 * 
+	 * @param maze
+	 *            The maze whose labyrinth is reused
+	 */
+
+	private Maze(Maze maze) {
+		super(maze);
+		mAnimals = new ArrayList<Animal>();
+		mInitialAnimals = new ArrayList<Animal>();
 	}
 
 	@Override
 	public boolean isSolved() {
-		// TODO
-		return false;
+		return mAnimals.isEmpty();
 	}
 
 	@Override
 	public List<Animal> getAnimals() {
-		// TODO
-		return new ArrayList<Animal>();
+		return new ArrayList<Animal>(mAnimals);
 	}
 
 	/**
@@ -46,8 +82,7 @@ public final class Maze extends World {
 	 */
 
 	public boolean hasAnimal(Animal a) {
-		// TODO
-		return false;
+		return mAnimals.contains(a);
 	}
 
 	/**
@@ -58,7 +93,13 @@ public final class Maze extends World {
 	 */
 
 	public void addAnimal(Animal a) {
-		// TODO
+		if (getStart() != null) {
+			a.setPosition(getStart());
+		}
+		a.enter(this);
+		mAnimals.add(a);
+		mInitialAnimals.add(a.copy());
+		mInitial = null;
 	}
 
 	/**
@@ -69,11 +110,56 @@ public final class Maze extends World {
 	 */
 
 	public void removeAnimal(Animal a) {
-		// TODO
+		mAnimals.remove(a);
 	}
 
 	@Override
 	public void reset() {
-		// TODO
+		if (mInitial == null) {
+			mInitial = snapshot(mInitialAnimals);
+		}
+		restore(mInitial);
+	}
+
+	@Override
+	public Snapshot snapshot() {
+		return snapshot(mAnimals);
+	}
+
+	@Override
+	public void restore(Snapshot snapshot) {
+		checkSnapshot(snapshot);
+		mAnimals.clear();
+		for (int i = 0; i < snapshot.getAnimalCount(); i++) {
+			mAnimals.add(snapshot.restoreAnimal(this, i));
+		}
+	}
+
+	/**
+	 * Returns a new maze on the same labyrinth, with copies of the animals as
+	 * they were added. The copy can be simulated independently, for instance
+	 * in another thread.
+	 * 
+	 * @return A copy of the maze in its initial state
+	 */
+
+	public Maze copy() {
+		Maze maze = new Maze(this);
+		for (Animal a : mInitialAnimals) {
+			maze.addAnimal(a.copy());
+		}
+		return maze;
+	}
+
+	/**
+	 * Takes a snapshot of animals of the maze.
+	 * 
+	 * @param animals
+	 *            The animals to save
+	 * @return A snapshot of the animals
+	 */
+
+	private Snapshot snapshot(List<Animal> animals) {
+		return createSnapshot(animals, Collections.<Animal> emptyList());
 	}
 }
@@ -23,7 +23,6 @@ abstract public class Predator extends Animal {
 
 	public Predator(Vector2D position) {
 		super(position);
-		// TODO
 	}
 
 	/**
@@ -34,8 +33,10 @@ abstract public class Predator extends Animal {
 
 	@Override
 	public final Direction move(Direction[] choices) {
-		// TODO
-		return Direction.NONE;
+		if (choices.length == 0) {
+			return Direction.NONE;
+		}
+		return choices[getRandom().nextInt(choices.length)];
 	}
 
 	/**
@@ -19,7 +19,6 @@ abstract public class Prey extends Animal {
 
 	public Prey(Vector2D position) {
 		super(position);
-		// TODO
 	}
 
 	/**
@@ -30,8 +29,10 @@ abstract public class Prey extends Animal {
 
 	@Override
 	public final Direction move(Direction[] choices) {
-		// TODO
-		return Direction.NONE;
+		if (choices.length == 0) {
+			return Direction.NONE;
+		}
+		return choices[getRandom().nextInt(choices.length)];
 	}
 
 	/**
@@ -0,0 +1,105 @@
+package ch.epfl.maze.physical;
+
+import java.util.List;
+
+/**
+ * Immutable state of the animals of a world at a given time, which can be
+ * restored in the world or in any of its copies.
+ * <p>
+ * The labyrinth never changes, so it is not part of the snapshot. The animals
+ * are kept as private copies, with their positions as tile indices, and each
+ * restore hands out new copies of them, so that a snapshot can be restored
+ * any number of times. The memories of the tiles of the animals are shared
+ * with the copies until they write (see {@link TileMemory#copy()}), so a
+ * restore does not depend on the size of the labyrinth.
+ * 
+ */
+
+public final class Snapshot {
+
+	/* tiles of the labyrinth on which the snapshot was taken */
+	private final byte[] mLabyrinth;
+
+	/* copies of the animals, and tile index of every animal */
+	private final Animal[] mAnimals;
+	private final int[] mPositions;
+
+	/* number of animals of the first kind, such as the predators */
+	private final int mSplit;
+
+	/**
+	 * Takes a snapshot of animals.
+	 * 
+	 * @param labyrinth
+	 *            Tiles of the labyrinth of the world
+	 * @param world
+	 *            The world in which the animals are
+	 * @param first
+	 *            The animals of the first kind
+	 * @param second
+	 *            The animals of the second kind
+	 */
+
+	Snapshot(byte[] labyrinth, World world, List<? extends Animal> first,
+			List<? extends Animal> second) {
+		mLabyrinth = labyrinth;
+		mSplit = first.size();
+		mAnimals = new Animal[mSplit + second.size()];
+		mPositions = new int[mAnimals.length];
+		for (int i = 0; i < mAnimals.length; i++) {
+			Animal animal = (i < mSplit) ? first.get(i) : second.get(i - mSplit);
+			mAnimals[i] = animal.copy();
+			mPositions[i] = world.indexOf(animal.getPosition());
+		}
+	}
+
+	/**
+	 * Returns the number of animals in the snapshot.
+	 * 
+	 * @return The number of animals
+	 */
+
+	public int getAnimalCount() {
+		return mAnimals.length;
+	}
+
+	/**
+	 * Returns the tiles of the labyrinth on which the snapshot was taken.
+	 * 
+	 * @return The tiles of the labyrinth
+	 */
+
+	byte[] getLabyrinth() {
+		return mLabyrinth;
+	}
+
+	/**
+	 * Returns the number of animals of the first kind.
+	 * 
+	 * @return The number of animals of the first kind
+	 */
+
+	int getSplit() {
+		return mSplit;
+	}
+
+	/**
+	 * Creates a new copy of an animal, in the state it had in the snapshot,
+	 * which enters the world it is restored in.
+	 * 
+	 * @param world
+	 *            The world in which the animal is restored
+	 * @param i
+	 *            Index of the animal
+	 * @return A copy of the animal
+	 */
+
+	Animal restoreAnimal(World world, int i) {
+		Animal animal = mAnimals[i].copy();
+		if (mPositions[i] >= 0) {
+			animal.setPosition(world.positionOf(mPositions[i]));
+		}
+		animal.enter(world);
+		return animal;
+	}
+}
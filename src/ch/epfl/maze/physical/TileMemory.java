@@ -0,0 +1,174 @@
+package ch.epfl.maze.physical;
+
+import java.util.Arrays;
+
+/**
+ * Memory of an animal with one small value per tile of a world, such as the
+ * marks left on the ground or whether a tile has been visited.
+ * <p>
+ * Values are kept in a flat array indexed like the tiles of the world, and
+ * each value is stamped with the generation in which it was written, so that
+ * the whole memory is forgotten in constant time. The arrays are only created
+ * on the first write, and are shared by copies until one of them writes, so
+ * that copying or clearing a memory costs constant time.
+ * 
+ */
+
+public final class TileMemory {
+
+	/* largest value that can be remembered for a tile */
+	public static final int MAX_VALUE = 0xFF;
+
+	/* tiles of the labyrinth of the world, and their number */
+	private final byte[] mLabyrinth;
+	private final int mSize;
+
+	/*
+	 * values and generation of every tile, created on the first write, and
+	 * whether the arrays may be shared with a copy
+	 */
+	private byte[] mValues;
+	private int[] mStamps;
+	private int mGeneration;
+	private boolean mShared;
+
+	/**
+	 * Constructs an empty memory for the tiles of a world.
+	 * 
+	 * @param world
+	 *            The world whose tiles are remembered
+	 */
+
+	public TileMemory(World world) {
+		mLabyrinth = world.getLabyrinth();
+		mSize = mLabyrinth.length;
+		mGeneration = 1;
+		mShared = false;
+	}
+
+	/**
+	 * Constructs a copy of another memory, sharing its arrays until one of
+	 * them writes.
+	 * 
+	 * @param memory
+	 *            The memory to copy
+	 */
+
+	private TileMemory(TileMemory memory) {
+		mLabyrinth = memory.mLabyrinth;
+		mSize = memory.mSize;
+		mGeneration = memory.mGeneration;
+		mValues = memory.mValues;
+		mStamps = memory.mStamps;
+		mShared = (mValues != null);
+
+		// a memory already shared is left untouched, as it may be read by
+		// other threads
+		if (mShared && !memory.mShared) {
+			memory.mShared = true;
+		}
+	}
+
+	/**
+	 * Returns the value remembered for a tile.
+	 * 
+	 * @param index
+	 *            Index of the tile, as returned by
+	 *            {@link World#indexOf(int, int)}
+	 * @return The value of the tile, or 0 if nothing was remembered or the
+	 *         index is incorrect
+	 */
+
+	public int get(int index) {
+		if (mValues == null || index < 0 || index >= mSize
+				|| mStamps[index] != mGeneration) {
+			return 0;
+		}
+		return mValues[index] & MAX_VALUE;
+	}
+
+	/**
+	 * Remembers a value for a tile.
+	 * 
+	 * @param index
+	 *            Index of the tile, as returned by
+	 *            {@link World#indexOf(int, int)}
+	 * @param value
+	 *            The value to remember, between 0 and {@link #MAX_VALUE}
+	 */
+
+	public void set(int index, int value) {
+		if (index < 0 || index >= mSize) {
+			throw new IllegalArgumentException("Index must be inside the labyrinth.");
+		}
+		if (value < 0 || value > MAX_VALUE) {
+			throw new IllegalArgumentException("Value must be between 0 and " + MAX_VALUE + ".");
+		}
+		if (mValues == null) {
+			mValues = new byte[mSize];
+			mStamps = new int[mSize];
+		} else if (mShared) {
+			mValues = Arrays.copyOf(mValues, mSize);
+			mStamps = Arrays.copyOf(mStamps, mSize);
+		}
+		mShared = false;
+		mValues[index] = (byte) value;
+		mStamps[index] = mGeneration;
+	}
+
+	/**
+	 * Determines if a tile has a value other than 0.
+	 * 
+	 * @param index
+	 *            Index of the tile
+	 * @return <b>true</b> if the tile is marked, <b>false</b> otherwise
+	 */
+
+	public boolean isMarked(int index) {
+		return get(index) != 0;
+	}
+
+	/**
+	 * Forgets every value, in constant time.
+	 */
+
+	public void clear() {
+		mGeneration++;
+
+		// the stamps are only reset when the generations wrap around
+		if (mGeneration == 0) {
+			if (mShared) {
+				mValues = null;
+				mStamps = null;
+				mShared = false;
+			} else if (mStamps != null) {
+				Arrays.fill(mStamps, 0);
+			}
+			mGeneration = 1;
+		}
+	}
+
+	/**
+	 * Determines if the memory remembers the tiles of the labyrinth of a world.
+	 * 
+	 * @param world
+	 *            A world
+	 * @return <b>true</b> if the world is built on the labyrinth of the
+	 *         memory, <b>false</b> otherwise
+	 */
+
+	public boolean belongsTo(World world) {
+		return world.getLabyrinth() == mLabyrinth;
+	}
+
+	/**
+	 * Returns a copy of the memory, which evolves independently. The values
+	 * are only copied when the memory or its copy is first written.
+	 * 
+	 * @return A new memory with the same values
+	 */
+
+	public TileMemory copy() {
+		return new TileMemory(this);
+	}
+}
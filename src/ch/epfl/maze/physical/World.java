@@ -1,8 +1,10 @@
 package ch.epfl.maze.physical;
 
 import java.util.List;
+import java.util.SplittableRandom;
 
 import ch.epfl.maze.util.Direction;
+import ch.epfl.maze.util.Labyrinth;
 import ch.epfl.maze.util.Vector2D;
 
 /**
@@ -20,6 +22,36 @@ public abstract class World {
 	public static final int EXIT = 3;
 	public static final int NOTHING = -1;
 
+	/* directions that actually move an animal */
+	private static final Direction[] MOVES = {
+			Direction.DOWN, Direction.UP, Direction.RIGHT, Direction.LEFT
+	};
+
+	/* choices shared by every tile, indexed by a 4-bit mask of free exits */
+	private static final Direction[][] CHOICES = computeChoicesTable();
+
+	/* labyrinth structure, tiles are stored row by row */
+	private final byte[] mTiles;
+	private final int mWidth;
+	private final int mHeight;
+	private final Vector2D mStart;
+	private final Vector2D mExit;
+
+	/* exits mask of every tile, with the same layout as the tiles */
+	private final byte[] mExits;
+
+	/*
+	 * shared position of every tile, created lazily; concurrent callers may
+	 * at worst create two equal instances for the same tile
+	 */
+	private Vector2D[] mPositions;
+
+	/* distance fields of the labyrinth, shared with the copies of the world */
+	private final DistanceFieldCache mDistances;
+
+	/* tiles that can never lie on a path from the start to the exit */
+	private final DeadEnds mDeadEnds;
+
 	/**
 	 * Constructs a new world with a labyrinth. The labyrinth must be rectangle.
 	 * 
@@ -28,7 +60,55 @@ public abstract class World {
 	 */
 
 	public World(int[][] labyrinth) {
-		// TODO
+		this(new Labyrinth(labyrinth));
+	}
+
+	/**
+	 * Constructs a new world with a labyrinth structure. The tiles of the
+	 * labyrinth are shared instead of copied, since neither of them ever
+	 * modifies them, and its start and exit are taken as they are.
+	 * 
+	 * @param labyrinth
+	 *            Structure of the labyrinth
+	 */
+
+	public World(Labyrinth labyrinth) {
+		mWidth = labyrinth.getWidth();
+		mHeight = labyrinth.getHeight();
+		mTiles = labyrinth.getSharedTiles();
+		mStart = labyrinth.getStart();
+		mExit = labyrinth.getExit();
+
+		// precomputes the exits of every tile
+		mExits = new byte[mTiles.length];
+		for (int y = 0; y < mHeight; y++) {
+			for (int x = 0; x < mWidth; x++) {
+				mExits[y * mWidth + x] = (byte) computeExits(x, y);
+			}
+		}
+
+		mDistances = new DistanceFieldCache(mExits, mWidth);
+		mDeadEnds = new DeadEnds(this);
+	}
+
+	/**
+	 * Constructs a new world on the same labyrinth as another world. The
+	 * labyrinth structure never changes, so it is shared instead of copied.
+	 * 
+	 * @param world
+	 *            The world whose labyrinth is reused
+	 */
+
+	protected World(World world) {
+		mTiles = world.mTiles;
+		mWidth = world.mWidth;
+		mHeight = world.mHeight;
+		mStart = world.mStart;
+		mExit = world.mExit;
+		mExits = world.mExits;
+		mPositions = world.mPositions;
+		mDistances = world.mDistances;
+		mDeadEnds = world.mDeadEnds;
 	}
 
 	/**
@@ -45,6 +125,28 @@ public abstract class World {
 
 	abstract public void reset();
 
+	/**
+	 * Takes a snapshot of the animals of the world, with their positions and
+	 * their states.
+	 * 
+	 * @return A snapshot that can be restored in this world or in its copies
+	 */
+
+	abstract public Snapshot snapshot();
+
+	/**
+	 * Replaces the animals of the world by the ones of a snapshot. The
+	 * labyrinth is left untouched, so restoring only costs a copy of each
+	 * animal.
+	 * 
+	 * @param snapshot
+	 *            A snapshot taken on this world or on one of its copies
+	 * @throws IllegalArgumentException
+	 *             If the snapshot was taken on another labyrinth
+	 */
+
+	abstract public void restore(Snapshot snapshot);
+
 	/**
 	 * Returns a copy of the list of all current animals in the world.
 	 * 
@@ -65,8 +167,7 @@ public abstract class World {
 	 */
 
 	public final int getTile(int x, int y) {
-		// TODO
-		return 0;
+		return tileAt(indexOf(x, y));
 	}
 
 	/**
@@ -80,8 +181,403 @@ public abstract class World {
 	 */
 
 	public final boolean isFree(int x, int y) {
-		// TODO
-		return false;
+		return isFree(indexOf(x, y));
+	}
+
+	/**
+	 * Returns the index of the tile at position (x, y). Tiles are indexed row
+	 * by row, from {@code 0} to {@code getWidth() * getHeight() - 1}.
+	 * 
+	 * @param x
+	 *            Horizontal coordinate
+	 * @param y
+	 *            Vertical coordinate
+	 * @return The index of the tile at position (x, y), or -1 if x or y is
+	 *         incorrect.
+	 */
+
+	public final int indexOf(int x, int y) {
+		if (x < 0 || x >= mWidth || y < 0 || y >= mHeight) {
+			return -1;
+		}
+		return y * mWidth + x;
+	}
+
+	/**
+	 * Returns the index of the tile at a position.
+	 * 
+	 * @param position
+	 *            A position in the maze
+	 * @return The index of the tile at the position, or -1 if it is outside
+	 *         the labyrinth.
+	 * @see #indexOf(int, int)
+	 */
+
+	public final int indexOf(Vector2D position) {
+		return indexOf(position.getX(), position.getY());
+	}
+
+	/**
+	 * Returns the shared position of a tile. Every call with the same index
+	 * returns the same {@code Vector2D} instance, so that moving animals does
+	 * not allocate new positions.
+	 * 
+	 * @param index
+	 *            A valid tile index
+	 * @return The position of the tile
+	 */
+
+	public final Vector2D positionOf(int index) {
+		Vector2D[] positions = mPositions;
+		if (positions == null) {
+			positions = new Vector2D[mTiles.length];
+			mPositions = positions;
+		}
+
+		Vector2D position = positions[index];
+		if (position == null) {
+			position = new Vector2D(xOf(index), yOf(index));
+			positions[index] = position;
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the shared position at coordinates (x, y) if they lie inside
+	 * the labyrinth, or a new vector otherwise.
+	 * 
+	 * @param x
+	 *            Horizontal coordinate
+	 * @param y
+	 *            Vertical coordinate
+	 * @return A vector equal to (x, y)
+	 * @see #positionOf(int)
+	 */
+
+	public final Vector2D intern(int x, int y) {
+		int index = indexOf(x, y);
+		if (index < 0) {
+			return new Vector2D(x, y);
+		}
+		return positionOf(index);
+	}
+
+	/**
+	 * Returns the shared position equal to a vector, if it lies inside the
+	 * labyrinth.
+	 * 
+	 * @param position
+	 *            A position in the maze
+	 * @return The shared instance equal to {@code position}, or
+	 *         {@code position} itself if it is outside the labyrinth
+	 */
+
+	public final Vector2D intern(Vector2D position) {
+		int index = indexOf(position);
+		if (index < 0) {
+			return position;
+		}
+		return positionOf(index);
+	}
+
+	/**
+	 * Adds a direction to a position, returning a shared position when the
+	 * result lies inside the labyrinth.
+	 * 
+	 * @param position
+	 *            A position in the maze
+	 * @param d
+	 *            Direction to add
+	 * @return The result of the addition with the direction
+	 * @see Vector2D#addDirectionTo(Direction)
+	 */
+
+	public final Vector2D addDirectionTo(Vector2D position, Direction d) {
+		int x = position.getX();
+		int y = position.getY();
+		switch (d) {
+		case DOWN:
+			return intern(x, y + 1);
+
+		case UP:
+			return intern(x, y - 1);
+
+		case RIGHT:
+			return intern(x + 1, y);
+
+		case LEFT:
+			return intern(x - 1, y);
+
+		case NONE:
+		default:
+			return intern(position);
+		}
+	}
+
+	/**
+	 * Returns the horizontal coordinate of a tile index.
+	 * 
+	 * @param index
+	 *            A valid tile index
+	 * @return The horizontal coordinate of the tile
+	 */
+
+	public final int xOf(int index) {
+		return index % mWidth;
+	}
+
+	/**
+	 * Returns the vertical coordinate of a tile index.
+	 * 
+	 * @param index
+	 *            A valid tile index
+	 * @return The vertical coordinate of the tile
+	 */
+
+	public final int yOf(int index) {
+		return index / mWidth;
+	}
+
+	/**
+	 * Checks in a safe way the tile number at an index of the labyrinth.
+	 * 
+	 * @param index
+	 *            Index of the tile, as returned by {@link #indexOf(int, int)}
+	 * @return The tile number at the index, or the NONE tile if the index is
+	 *         incorrect.
+	 */
+
+	public final int tileAt(int index) {
+		if (index < 0 || index >= mTiles.length) {
+			return NOTHING;
+		}
+		return mTiles[index];
+	}
+
+	/**
+	 * Determines if the tile at an index is free to walk on.
+	 * 
+	 * @param index
+	 *            Index of the tile
+	 * @return <b>true</b> if an animal can walk on tile, <b>false</b> otherwise
+	 */
+
+	public final boolean isFree(int index) {
+		int tile = tileAt(index);
+		return tile == FREE || tile == START || tile == EXIT;
+	}
+
+	/**
+	 * Returns the index of the tile next to another one in a direction.
+	 * 
+	 * @param index
+	 *            Index of the tile
+	 * @param d
+	 *            Direction towards the neighbour
+	 * @return The index of the neighbour, the same index if {@code d} is
+	 *         {@code NONE}, or -1 if the neighbour is outside the labyrinth.
+	 */
+
+	public final int neighbourIndex(int index, Direction d) {
+		if (index < 0 || index >= mTiles.length) {
+			return -1;
+		}
+		switch (d) {
+		case DOWN:
+			return (index + mWidth < mTiles.length) ? index + mWidth : -1;
+
+		case UP:
+			return (index >= mWidth) ? index - mWidth : -1;
+
+		case RIGHT:
+			return (index % mWidth != mWidth - 1) ? index + 1 : -1;
+
+		case LEFT:
+			return (index % mWidth != 0) ? index - 1 : -1;
+
+		case NONE:
+		default:
+			return index;
+		}
+	}
+
+	/**
+	 * Returns the direction leading from a tile to one of its neighbours.
+	 * 
+	 * @param index
+	 *            Index of the tile
+	 * @param neighbour
+	 *            Index of the neighbour
+	 * @return The direction {@code d} such that
+	 *         {@code neighbourIndex(index, d) == neighbour}, {@code NONE} if
+	 *         both indices are equal, or {@code null} if the tiles are not
+	 *         adjacent.
+	 */
+
+	public final Direction directionTo(int index, int neighbour) {
+		if (index < 0 || neighbour < 0) {
+			return null;
+		}
+		if (index == neighbour) {
+			return Direction.NONE;
+		}
+		for (Direction d : MOVES) {
+			if (neighbourIndex(index, d) == neighbour) {
+				return d;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the shortest path distances from every tile to a target. The
+	 * fields are computed lazily, cached and shared by every copy of the
+	 * world, so asking for the same target again costs nothing.
+	 * 
+	 * @param target
+	 *            Index of the target tile, as returned by
+	 *            {@link #indexOf(int, int)}
+	 * @return The distance field towards the target
+	 */
+
+	public final DistanceField getDistanceField(int target) {
+		if (target < 0 || target >= mTiles.length) {
+			throw new IllegalArgumentException("Target must be inside the labyrinth.");
+		}
+		return mDistances.get(target);
+	}
+
+	/**
+	 * Returns the shortest path distances from every tile to a target
+	 * position. A target outside the labyrinth is moved to the closest tile
+	 * inside it.
+	 * 
+	 * @param target
+	 *            The target position
+	 * @return The distance field towards the target
+	 * @see #getDistanceField(int)
+	 */
+
+	public final DistanceField getDistanceField(Vector2D target) {
+		return getDistanceField(clampedIndexOf(target));
+	}
+
+	/**
+	 * Returns the free tile closest to a position, so that animals can aim at
+	 * positions lying in a wall or outside the labyrinth. The position is
+	 * first moved inside the labyrinth, then the free tiles are looked for by
+	 * increasing Manhattan distance, ties being broken in row order.
+	 * 
+	 * @param position
+	 *            A position, possibly outside the labyrinth
+	 * @return The index of the closest free tile, or -1 if the labyrinth has
+	 *         no free tile
+	 */
+
+	public final int closestFreeIndex(Vector2D position) {
+		if (mTiles.length == 0) {
+			return -1;
+		}
+		int x = Math.max(0, Math.min(mWidth - 1, position.getX()));
+		int y = Math.max(0, Math.min(mHeight - 1, position.getY()));
+		for (int distance = 0; distance < mWidth + mHeight; distance++) {
+			for (int dy = -distance; dy <= distance; dy++) {
+				int dx = distance - Math.abs(dy);
+				if (isFree(x - dx, y + dy)) {
+					return indexOf(x - dx, y + dy);
+				}
+				if (dx != 0 && isFree(x + dx, y + dy)) {
+					return indexOf(x + dx, y + dy);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Hands every animal of the world its own random generator, split in
+	 * order from a generator seeded with {@code seed}. Seeding the same
+	 * animals with the same seed makes them draw the same choices.
+	 * 
+	 * @param seed
+	 *            The seed of the run
+	 */
+
+	public final void seedAnimals(long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		for (Animal animal : getAnimals()) {
+			animal.setRandom(random.split());
+		}
+	}
+
+	/**
+	 * Takes a snapshot of animals of the world.
+	 * 
+	 * @param first
+	 *            The animals of the first kind
+	 * @param second
+	 *            The animals of the second kind
+	 * @return A snapshot of the animals
+	 */
+
+	final Snapshot createSnapshot(List<? extends Animal> first, List<? extends Animal> second) {
+		return new Snapshot(mTiles, this, first, second);
+	}
+
+	/**
+	 * Checks that a snapshot was taken on the labyrinth of the world.
+	 * 
+	 * @param snapshot
+	 *            The snapshot to restore
+	 * @throws IllegalArgumentException
+	 *             If the snapshot was taken on another labyrinth
+	 */
+
+	final void checkSnapshot(Snapshot snapshot) {
+		if (snapshot.getLabyrinth() != mTiles) {
+			throw new IllegalArgumentException("Snapshot was taken on another labyrinth.");
+		}
+	}
+
+	/**
+	 * Returns the tiles of the labyrinth of the world, shared by all the
+	 * worlds built on it.
+	 * 
+	 * @return The tiles of the labyrinth, which must not be modified
+	 */
+
+	final byte[] getLabyrinth() {
+		return mTiles;
+	}
+
+	/**
+	 * Returns the dead ends of the labyrinth, computed once and shared by
+	 * every copy of the world. The result is read-only and can be kept by
+	 * animals.
+	 * 
+	 * @return The tiles that can never lie on a path from the start to the
+	 *         exit
+	 */
+
+	public final DeadEnds getDeadEnds() {
+		return mDeadEnds;
+	}
+
+	/**
+	 * Returns the available choices at an index of the labyrinth.
+	 * 
+	 * @param index
+	 *            Index of a tile in the labyrinth
+	 * @return An array of all available choices at the tile, which
+	 *         <b>must not</b> be modified
+	 * @see #getChoices(Vector2D)
+	 */
+
+	public final Direction[] getChoices(int index) {
+		if (index < 0 || index >= mExits.length) {
+			return CHOICES[0];
+		}
+		return CHOICES[mExits[index]];
 	}
 
 	/**
@@ -89,14 +585,24 @@ public abstract class World {
 	 * labyrinth. The result will be typically used by {@code Animal} in
 	 * {@link ch.epfl.maze.physical.Animal#move(Direction[]) move(Direction[])}
 	 * 
+	 * <p>
+	 * The choices are precomputed when the world is constructed, so the array
+	 * returned is shared by every position with the same exits and <b>must
+	 * not</b> be modified.
+	 * 
 	 * @param position
 	 *            A position in the maze
 	 * @return An array of all available choices at a position
 	 */
 
 	public final Direction[] getChoices(Vector2D position) {
-		// TODO
-		return null;
+		int x = position.getX();
+		int y = position.getY();
+		int index = indexOf(x, y);
+		if (index < 0) {
+			return CHOICES[computeExits(x, y)];
+		}
+		return CHOICES[mExits[index]];
 	}
 
 	/**
@@ -106,8 +612,7 @@ public abstract class World {
 	 */
 
 	public final int getWidth() {
-		// TODO
-		return 0;
+		return mWidth;
 	}
 
 	/**
@@ -117,8 +622,7 @@ public abstract class World {
 	 */
 
 	public final int getHeight() {
-		// TODO
-		return 0;
+		return mHeight;
 	}
 
 	/**
@@ -129,8 +633,7 @@ public abstract class World {
 	 */
 
 	public final Vector2D getStart() {
-		// TODO
-		return null;
+		return mStart;
 	}
 
 	/**
@@ -140,7 +643,78 @@ public abstract class World {
 	 */
 
 	public final Vector2D getExit() {
-		// TODO
-		return null;
+		return mExit;
+	}
+
+	/**
+	 * Returns the index of the tile of the labyrinth closest to a position.
+	 * 
+	 * @param position
+	 *            A position, possibly outside the labyrinth
+	 * @return The index of the closest tile
+	 */
+
+	private int clampedIndexOf(Vector2D position) {
+		int x = Math.max(0, Math.min(mWidth - 1, position.getX()));
+		int y = Math.max(0, Math.min(mHeight - 1, position.getY()));
+		return indexOf(x, y);
+	}
+
+	/**
+	 * Computes the mask of the free tiles around a position. The bit of rank
+	 * {@code d.intValue()} is set if the direction {@code d} leads to a free
+	 * tile.
+	 * 
+	 * @param x
+	 *            Horizontal coordinate
+	 * @param y
+	 *            Vertical coordinate
+	 * @return The 4-bit mask of the exits at position (x, y)
+	 */
+
+	private int computeExits(int x, int y) {
+		int exits = 0;
+		if (isFree(x, y + 1)) {
+			exits |= 1 << Direction.DOWN.intValue();
+		}
+		if (isFree(x, y - 1)) {
+			exits |= 1 << Direction.UP.intValue();
+		}
+		if (isFree(x + 1, y)) {
+			exits |= 1 << Direction.RIGHT.intValue();
+		}
+		if (isFree(x - 1, y)) {
+			exits |= 1 << Direction.LEFT.intValue();
+		}
+		return exits;
+	}
+
+	/**
+	 * Builds the canonical array of choices for each of the 16 exits masks.
+	 * When no exit is available, the only choice is {@code Direction.NONE}.
+	 * 
+	 * @return The table of choices indexed by exits mask
+	 */
+
+	private static Direction[][] computeChoicesTable() {
+		Direction[][] table = new Direction[1 << MOVES.length][];
+		for (int mask = 0; mask < table.length; mask++) {
+			int count = Integer.bitCount(mask);
+			if (count == 0) {
+				table[mask] = new Direction[] { Direction.NONE };
+				continue;
+			}
+
+			Direction[] choices = new Direction[count];
+			int i = 0;
+			for (Direction dir : MOVES) {
+				if ((mask & (1 << dir.intValue())) != 0) {
+					choices[i++] = dir;
+				}
+			}
+			table[mask] = choices;
+		}
+
+		return table;
 	}
 }
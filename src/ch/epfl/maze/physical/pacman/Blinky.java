@@ -2,7 +2,7 @@ package ch.epfl.maze.physical.pacman;
 
 import ch.epfl.maze.physical.Animal;
 import ch.epfl.maze.physical.Daedalus;
-import ch.epfl.maze.physical.Predator;
+import ch.epfl.maze.physical.GhostPredator;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -11,7 +11,7 @@ import ch.epfl.maze.util.Vector2D;
  * 
  */
 
-public class Blinky extends Predator {
+public class Blinky extends GhostPredator {
 
 	/**
 	 * Constructs a Blinky with a starting position.
@@ -22,18 +22,26 @@ public class Blinky extends Predator {
 
 	public Blinky(Vector2D position) {
 		super(position);
-		// TODO
+	}
+
+	/**
+	 * Constructs a copy of Blinky, in the same state.
+	 * 
+	 * @param blinky
+	 *            The ghost to copy
+	 */
+
+	private Blinky(Blinky blinky) {
+		super(blinky);
 	}
 
 	@Override
-	public Direction move(Direction[] choices, Daedalus daedalus) {
-		// TODO
-		return Direction.NONE;
+	protected Vector2D getTarget(Vector2D prey, Direction preyDirection, Daedalus daedalus) {
+		return prey;
 	}
 
 	@Override
 	public Animal copy() {
-		// TODO
-		return null;
+		return new Blinky(this);
 	}
 }
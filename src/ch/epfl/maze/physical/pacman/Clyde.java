@@ -2,7 +2,7 @@ package ch.epfl.maze.physical.pacman;
 
 import ch.epfl.maze.physical.Animal;
 import ch.epfl.maze.physical.Daedalus;
-import ch.epfl.maze.physical.Predator;
+import ch.epfl.maze.physical.GhostPredator;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -12,7 +12,7 @@ import ch.epfl.maze.util.Vector2D;
  * 
  */
 
-public class Clyde extends Predator {
+public class Clyde extends GhostPredator {
 
 	/**
 	 * Constructs a Clyde with a starting position.
@@ -23,18 +23,30 @@ public class Clyde extends Predator {
 
 	public Clyde(Vector2D position) {
 		super(position);
-		// TODO
+	}
+
+	/**
+	 * Constructs a copy of Clyde, in the same state.
+	 * 
+	 * @param clyde
+	 *            The ghost to copy
+	 */
+
+	private Clyde(Clyde clyde) {
+		super(clyde);
 	}
 
 	@Override
-	public Direction move(Direction[] choices, Daedalus daedalus) {
-		// TODO
-		return Direction.NONE;
+	protected Vector2D getTarget(Vector2D prey, Direction preyDirection, Daedalus daedalus) {
+		// scatters when closer than 4 squares
+		if (prey.sub(getPosition()).dist() <= 4) {
+			return getHome();
+		}
+		return prey;
 	}
 
 	@Override
 	public Animal copy() {
-		// TODO
-		return null;
+		return new Clyde(this);
 	}
 }
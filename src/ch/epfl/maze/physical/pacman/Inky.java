@@ -2,7 +2,7 @@ package ch.epfl.maze.physical.pacman;
 
 import ch.epfl.maze.physical.Animal;
 import ch.epfl.maze.physical.Daedalus;
-import ch.epfl.maze.physical.Predator;
+import ch.epfl.maze.physical.GhostPredator;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -12,7 +12,7 @@ import ch.epfl.maze.util.Vector2D;
  * 
  */
 
-public class Inky extends Predator {
+public class Inky extends GhostPredator {
 
 	/**
 	 * Constructs a Inky with a starting position.
@@ -23,18 +23,40 @@ public class Inky extends Predator {
 
 	public Inky(Vector2D position) {
 		super(position);
-		// TODO
+	}
+
+	/**
+	 * Constructs a copy of Inky, in the same state.
+	 * 
+	 * @param inky
+	 *            The ghost to copy
+	 */
+
+	private Inky(Inky inky) {
+		super(inky);
 	}
 
 	@Override
-	public Direction move(Direction[] choices, Daedalus daedalus) {
-		// TODO
-		return Direction.NONE;
+	protected Vector2D getTarget(Vector2D prey, Direction preyDirection, Daedalus daedalus) {
+		// looks for Blinky, and chases directly if there is none
+		Vector2D blinky = null;
+		for (int i = 0; i < daedalus.getPredatorCount(); i++) {
+			if (daedalus.getPredator(i) instanceof Blinky) {
+				blinky = daedalus.getPredator(i).getPosition();
+				break;
+			}
+		}
+		if (blinky == null) {
+			return prey;
+		}
+
+		// doubles the vector from Blinky to 2 squares in front of the prey
+		Vector2D ahead = prey.add(preyDirection.toVector().mul(2));
+		return blinky.add(ahead.sub(blinky).mul(2));
 	}
 
 	@Override
 	public Animal copy() {
-		// TODO
-		return null;
+		return new Inky(this);
 	}
 }
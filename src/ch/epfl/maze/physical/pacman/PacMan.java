@@ -26,7 +26,6 @@ public class PacMan extends Prey {
 
 	@Override
 	public Animal copy() {
-		// TODO
-		return null;
+		return new PacMan(getPosition());
 	}
 }
@@ -1,6 +1,9 @@
 package ch.epfl.maze.physical.zoo;
 
 import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.DeadEnds;
+import ch.epfl.maze.physical.TileMemory;
+import ch.epfl.maze.physical.World;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -12,6 +15,17 @@ import ch.epfl.maze.util.Vector2D;
 
 public class Hamster extends Animal {
 
+	/* previous direction of the hamster */
+	private Direction mPrevious;
+
+	/*
+	 * world in which the hamster walks, dead ends of its labyrinth shared
+	 * read-only by every hamster, and dead ends it met on its own
+	 */
+	private World mWorld;
+	private DeadEnds mDeadEnds;
+	private TileMemory mMetDeadEnds;
+
 	/**
 	 * Constructs a hamster with a starting position.
 	 * 
@@ -21,23 +35,134 @@ public class Hamster extends Animal {
 
 	public Hamster(Vector2D position) {
 		super(position);
-		// TODO
+		mPrevious = Direction.NONE;
+	}
+
+	@Override
+	public void enter(World world) {
+		mWorld = world;
+		mDeadEnds = world.getDeadEnds();
+		if (mMetDeadEnds == null || !mMetDeadEnds.belongsTo(world)) {
+			mMetDeadEnds = new TileMemory(world);
+		}
 	}
 
 	/**
 	 * Moves without retracing directly its steps and by avoiding the dead-ends
-	 * it learns during its journey.
+	 * of the labyrinth, as well as the ones it learns during its journey.
 	 */
 
 	@Override
 	public Direction move(Direction[] choices) {
-		// TODO
-		return Direction.NONE;
+		if (choices.length == 0) {
+			return Direction.NONE;
+		}
+
+		// prefers tiles out of dead ends, then tiles it does not come from
+		int index = (mWorld == null) ? -1 : mWorld.indexOf(getPosition());
+		Direction back = mPrevious.reverse();
+		int pass = 0;
+		int count = 0;
+		while (count == 0) {
+			count = countCandidates(choices, index, back, pass++);
+		}
+		pass--;
+
+		int pick = getRandom().nextInt(count);
+		Direction choice = Direction.NONE;
+		for (Direction d : choices) {
+			if (isCandidate(d, index, back, pass) && pick-- == 0) {
+				choice = d;
+				break;
+			}
+		}
+
+		// a tile it can only leave by going back leads to a dead end
+		if (choice == back && pass == 1 && index >= 0) {
+			mMetDeadEnds.set(index, 1);
+		}
+
+		mPrevious = choice;
+		return choice;
 	}
 
 	@Override
 	public Animal copy() {
-		// TODO
-		return null;
+		Hamster hamster = new Hamster(getPosition());
+		hamster.mPrevious = mPrevious;
+		hamster.mWorld = mWorld;
+		hamster.mDeadEnds = mDeadEnds;
+		if (mMetDeadEnds != null) {
+			hamster.mMetDeadEnds = mMetDeadEnds.copy();
+		}
+		return hamster;
+	}
+
+	/**
+	 * Counts the choices that the hamster accepts at a given pass, each pass
+	 * being less demanding than the previous one.
+	 * 
+	 * @param choices
+	 *            The available choices
+	 * @param index
+	 *            Index of the tile of the hamster, -1 if it is not in a world
+	 * @param back
+	 *            The direction leading back
+	 * @param pass
+	 *            The pass, from 0 to 3
+	 * @return The number of accepted choices
+	 */
+
+	private int countCandidates(Direction[] choices, int index, Direction back, int pass) {
+		int count = 0;
+		for (Direction d : choices) {
+			if (isCandidate(d, index, back, pass)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Determines if the hamster accepts a choice at a given pass : the first
+	 * pass avoids both dead ends and going back, the second one only dead
+	 * ends, the third one only going back, and the last one accepts anything.
+	 * 
+	 * @param d
+	 *            The choice
+	 * @param index
+	 *            Index of the tile of the hamster, -1 if it is not in a world
+	 * @param back
+	 *            The direction leading back
+	 * @param pass
+	 *            The pass, from 0 to 3
+	 * @return <b>true</b> if the choice is accepted, <b>false</b> otherwise
+	 */
+
+	private boolean isCandidate(Direction d, int index, Direction back, int pass) {
+		if ((pass == 0 || pass == 2) && d == back) {
+			return false;
+		}
+		return pass > 1 || !isDeadEnd(index, d);
+	}
+
+	/**
+	 * Determines if a move leads into a dead end, either found by the analysis
+	 * of the world or met by the hamster.
+	 * 
+	 * @param index
+	 *            Index of the tile of the hamster, -1 if it is not in a world
+	 * @param d
+	 *            The direction of the move
+	 * @return <b>true</b> if the tile in direction {@code d} is a dead end,
+	 *         <b>false</b> otherwise
+	 */
+
+	private boolean isDeadEnd(int index, Direction d) {
+		if (index < 0) {
+			return false;
+		}
+		int neighbour = mWorld.neighbourIndex(index, d);
+		return mDeadEnds.isDeadEnd(neighbour) || mMetDeadEnds.isMarked(neighbour);
 	}
 }
@@ -1,6 +1,7 @@
 package ch.epfl.maze.physical.zoo;
 
 import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.CorridorWalker;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -9,7 +10,10 @@ import ch.epfl.maze.util.Vector2D;
  * 
  */
 
-public class Monkey extends Animal {
+public class Monkey extends Animal implements CorridorWalker {
+
+	/* direction the monkey is facing */
+	private Direction mFacing;
 
 	/**
 	 * Constructs a monkey with a starting position.
@@ -20,7 +24,7 @@ public class Monkey extends Animal {
 
 	public Monkey(Vector2D position) {
 		super(position);
-		// TODO
+		mFacing = Direction.NONE;
 	}
 
 	/**
@@ -29,13 +33,39 @@ public class Monkey extends Animal {
 
 	@Override
 	public Direction move(Direction[] choices) {
-		// TODO
+		if (choices.length == 0) {
+			return Direction.NONE;
+		}
+
+		// takes a random choice until it finds a wall to follow
+		if (mFacing == Direction.NONE) {
+			mFacing = choices[getRandom().nextInt(choices.length)];
+			return mFacing;
+		}
+
+		// tries left, straight, right, then goes back
+		Direction d = mFacing.rotateLeft();
+		for (int i = 0; i < 4; i++) {
+			for (Direction choice : choices) {
+				if (choice == d) {
+					mFacing = d;
+					return d;
+				}
+			}
+			d = d.rotateRight();
+		}
 		return Direction.NONE;
 	}
 
+	@Override
+	public void followCorridor(Direction last) {
+		mFacing = last;
+	}
+
 	@Override
 	public Animal copy() {
-		// TODO
-		return null;
+		Monkey monkey = new Monkey(getPosition());
+		monkey.mFacing = mFacing;
+		return monkey;
 	}
 }
@@ -1,6 +1,7 @@
 package ch.epfl.maze.physical.zoo;
 
 import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.CorridorWalker;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -9,7 +10,10 @@ import ch.epfl.maze.util.Vector2D;
  * 
  */
 
-public class Mouse extends Animal {
+public class Mouse extends Animal implements CorridorWalker {
+
+	/* previous direction of the mouse */
+	private Direction mPrevious;
 
 	/**
 	 * Constructs a mouse with a starting position.
@@ -20,6 +24,7 @@ public class Mouse extends Animal {
 
 	public Mouse(Vector2D position) {
 		super(position);
+		mPrevious = Direction.NONE;
 	}
 
 	/**
@@ -29,13 +34,45 @@ public class Mouse extends Animal {
 
 	@Override
 	public Direction move(Direction[] choices) {
-		// TODO
-		return Direction.NONE;
+		if (choices.length == 0) {
+			return Direction.NONE;
+		}
+
+		// retraces its steps only in a dead end
+		Direction back = mPrevious.reverse();
+		Direction choice;
+		if (choices.length == 1) {
+			choice = choices[0];
+		} else {
+			int count = 0;
+			for (Direction d : choices) {
+				if (d != back) {
+					count++;
+				}
+			}
+			int pick = (count == 1) ? 0 : getRandom().nextInt(count);
+			choice = back;
+			for (Direction d : choices) {
+				if (d != back && pick-- == 0) {
+					choice = d;
+					break;
+				}
+			}
+		}
+
+		mPrevious = choice;
+		return choice;
+	}
+
+	@Override
+	public void followCorridor(Direction last) {
+		mPrevious = last;
 	}
 
 	@Override
 	public Animal copy() {
-		// TODO
-		return null;
+		Mouse mouse = new Mouse(getPosition());
+		mouse.mPrevious = mPrevious;
+		return mouse;
 	}
 }
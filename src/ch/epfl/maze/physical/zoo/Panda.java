@@ -1,6 +1,8 @@
 package ch.epfl.maze.physical.zoo;
 
 import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.TileMemory;
+import ch.epfl.maze.physical.World;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -10,6 +12,18 @@ import ch.epfl.maze.util.Vector2D;
  */
 public class Panda extends Animal {
 
+	/* marks of a tile */
+	private static final int UNMARKED = 0;
+	private static final int ONCE = 1;
+	private static final int TWICE = 2;
+
+	/* previous direction of the panda */
+	private Direction mPrevious;
+
+	/* world in which the panda walks, and marks it left on the ground */
+	private World mWorld;
+	private TileMemory mMarks;
+
 	/**
 	 * Constructs a panda with a starting position.
 	 * 
@@ -19,7 +33,15 @@ public class Panda extends Animal {
 
 	public Panda(Vector2D position) {
 		super(position);
-		// TODO
+		mPrevious = Direction.NONE;
+	}
+
+	@Override
+	public void enter(World world) {
+		mWorld = world;
+		if (mMarks == null || !mMarks.belongsTo(world)) {
+			mMarks = new TileMemory(world);
+		}
 	}
 
 	/**
@@ -31,13 +53,98 @@ public class Panda extends Animal {
 
 	@Override
 	public Direction move(Direction[] choices) {
-		// TODO
-		return Direction.NONE;
+		if (choices.length == 0) {
+			return Direction.NONE;
+		}
+		if (mWorld == null) {
+			// without a world to mark, walks randomly
+			mPrevious = choices[getRandom().nextInt(choices.length)];
+			return mPrevious;
+		}
+
+		// finds the least marked tile ahead, going back only if every tile
+		// ahead is marked twice
+		int index = mWorld.indexOf(getPosition());
+		Direction back = mPrevious.reverse();
+		int least = TWICE;
+		int count = 0;
+		for (Direction d : choices) {
+			if (d != back) {
+				int mark = markOf(index, d);
+				if (mark < least) {
+					least = mark;
+					count = 0;
+				}
+				if (mark == least) {
+					count++;
+				}
+			}
+		}
+
+		Direction choice = back;
+		if (least < TWICE || !contains(choices, back)) {
+			int pick = getRandom().nextInt(count);
+			for (Direction d : choices) {
+				if (d != back && markOf(index, d) == least && pick-- == 0) {
+					choice = d;
+					break;
+				}
+			}
+		}
+
+		// marks the tile once when exploring, twice when walking back
+		int mark = mMarks.get(index);
+		if (markOf(index, choice) == UNMARKED) {
+			mMarks.set(index, Math.max(mark, ONCE));
+		} else {
+			mMarks.set(index, TWICE);
+		}
+
+		mPrevious = choice;
+		return choice;
 	}
 
 	@Override
 	public Animal copy() {
-		// TODO
-		return null;
+		Panda panda = new Panda(getPosition());
+		panda.mPrevious = mPrevious;
+		panda.mWorld = mWorld;
+		if (mMarks != null) {
+			panda.mMarks = mMarks.copy();
+		}
+		return panda;
+	}
+
+	/**
+	 * Returns the mark of the tile next to another one.
+	 * 
+	 * @param index
+	 *            Index of the tile
+	 * @param d
+	 *            Direction towards the neighbour
+	 * @return The mark of the neighbour
+	 */
+
+	private int markOf(int index, Direction d) {
+		return mMarks.get(mWorld.neighbourIndex(index, d));
+	}
+
+	/**
+	 * Determines if a direction is among the choices.
+	 * 
+	 * @param choices
+	 *            The available choices
+	 * @param d
+	 *            The direction in question
+	 * @return <b>true</b> if {@code d} is available, <b>false</b> otherwise
+	 */
+
+	private static boolean contains(Direction[] choices, Direction d) {
+		for (Direction choice : choices) {
+			if (choice == d) {
+				return true;
+			}
+		}
+		return false;
 	}
 }
@@ -2,11 +2,13 @@ package ch.epfl.maze.simulation;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import ch.epfl.maze.graphics.Animation;
 import ch.epfl.maze.physical.Animal;
@@ -22,6 +24,15 @@ import ch.epfl.maze.util.Vector2D;
  * Simulation of a predation environment. Handles the next moves of every
  * predator and prey in a Daedalus, as well as the animation by notifying
  * changes to it. The simulation finishes when every prey has been caught.
+ * <p>
+ * A step moves the predators, then the preys, in two phases : every animal of
+ * the kind first chooses its direction against the daedalus frozen as it was
+ * before any of them moved, then the moves are applied in order. An animal
+ * thus never sees the move of another animal of its kind made during the same
+ * step : for instance, Inky reads the position of Blinky before Blinky moved
+ * in this step, whereas the preys see the predators already moved. Since the
+ * choices only read the daedalus, large populations choose in parallel, with
+ * the same results as when they choose one after the other.
  * 
  */
 
@@ -30,14 +41,50 @@ public final class DaedalusSimulation implements Simulation {
 	/* limit to the step counter, over which the animals are considered lost */
 	public static final int COUNTER_LIMIT = 10000;
 
+	/* default number of animals of a kind from which they decide in parallel */
+	public static final int PARALLEL_THRESHOLD = 256;
+
+	/* number of animals asked by a single decision task */
+	private static final int DECISION_GRAIN = 64;
+
 	/* simulation components */
 	private Daedalus mDaedalus;
 	private Map<Integer, List<Prey>> mArrivalTimes;
 	private int mStepCounter;
 
-	/* collision check variables */
-	private Map<Prey, List<Vector2D>> mPreyMoves;
-	private Map<Predator, List<Vector2D>> mPredatorMoves;
+	/* number of animals of a kind from which they decide in parallel */
+	private int mParallelThreshold;
+
+	/*
+	 * seed of the current run, generator of the seeds of the next runs, and
+	 * whether the animals were handed their random generators for this run
+	 */
+	private final SplittableRandom mSeeds;
+	private long mSeed;
+	private boolean mSeeded;
+
+	/*
+	 * collision check variables : tile indices of the animals before and
+	 * after their moves, indexed by slot and reused across steps
+	 */
+	private int[] mPredatorOld;
+	private int[] mPredatorNew;
+	private int[] mPreyOld;
+	private int[] mPreyNew;
+	private boolean[] mCaught;
+
+	/* choices of the animals for the current step, indexed by slot */
+	private Direction[] mPredatorChoices;
+	private Direction[] mPreyChoices;
+
+	/*
+	 * tiles occupied by predators after their moves : a tile is occupied if
+	 * its stamp is the current one, and its mask tells where the predators
+	 * came from (bit d.intValue() set if a predator came from direction d)
+	 */
+	private final int[] mOccupiedStamps;
+	private final byte[] mArrivals;
+	private int mStamp;
 
 	/**
 	 * Constructs a simulation with a {@code Daedalus} to simulate.
@@ -47,11 +94,51 @@ public final class DaedalusSimulation implements Simulation {
 	 */
 
 	public DaedalusSimulation(Daedalus daedalus) {
+		this(daedalus, new SplittableRandom());
+	}
+
+	/**
+	 * Constructs a simulation with a {@code Daedalus} to simulate, whose runs
+	 * are all determined by a seed.
+	 * 
+	 * @param daedalus
+	 *            The daedalus to simulate
+	 * @param seed
+	 *            The seed from which the seeds of the runs are drawn
+	 */
+
+	public DaedalusSimulation(Daedalus daedalus, long seed) {
+		this(daedalus, new SplittableRandom(seed));
+	}
+
+	/**
+	 * Constructs a simulation with a {@code Daedalus} to simulate and a
+	 * generator of the seeds of its runs.
+	 * 
+	 * @param daedalus
+	 *            The daedalus to simulate
+	 * @param seeds
+	 *            The generator of the seeds of the runs
+	 */
+
+	private DaedalusSimulation(Daedalus daedalus, SplittableRandom seeds) {
 		mDaedalus = daedalus;
+		mSeeds = seeds;
+		mSeed = seeds.nextLong();
+		mSeeded = false;
 		mArrivalTimes = new TreeMap<Integer, List<Prey>>(Collections.reverseOrder());
 		mStepCounter = 0;
-		mPreyMoves = new HashMap<Prey, List<Vector2D>>();
-		mPredatorMoves = new HashMap<Predator, List<Vector2D>>();
+		mParallelThreshold = PARALLEL_THRESHOLD;
+		mPredatorOld = new int[0];
+		mPredatorNew = new int[0];
+		mPreyOld = new int[0];
+		mPreyNew = new int[0];
+		mCaught = new boolean[0];
+		mPredatorChoices = new Direction[0];
+		mPreyChoices = new Direction[0];
+		mOccupiedStamps = new int[daedalus.getWidth() * daedalus.getHeight()];
+		mArrivals = new byte[mOccupiedStamps.length];
+		mStamp = 0;
 	}
 
 	@Override
@@ -60,27 +147,17 @@ public final class DaedalusSimulation implements Simulation {
 			return;
 		}
 
-		// clears moves maps
-		mPreyMoves.clear();
-		mPredatorMoves.clear();
-
 		// increments counter
 		mStepCounter++;
 
 		// if counter exceeded the limit, it considers preys safe
 		if (mStepCounter > COUNTER_LIMIT) {
-			List<Prey> preys = mDaedalus.getPreys();
-			List<Prey> safePreys = new LinkedList<Prey>();
-			for (Prey prey : preys) {
-				mDaedalus.removePrey(prey);
-				safePreys.add(prey);
-			}
-
-			mArrivalTimes.put(Integer.MAX_VALUE, safePreys); // infinite
+			savePreys();
 			return;
 		}
 
 		// asks predators and preys to move
+		seedAnimals();
 		movePredators(listener);
 		movePreys(listener);
 
@@ -93,6 +170,42 @@ public final class DaedalusSimulation implements Simulation {
 		}
 	}
 
+	@Override
+	public RunSummary advance(int steps) {
+		if (steps < 0) {
+			throw new IllegalArgumentException("Number of steps must be positive.");
+		}
+
+		seedAnimals();
+		int start = mStepCounter;
+		int before = mDaedalus.getPreyCount();
+		int end = (steps > Integer.MAX_VALUE - start) ? Integer.MAX_VALUE : start + steps;
+
+		// runs the steps under the limit without checking it at each step
+		int batchEnd = Math.min(end, COUNTER_LIMIT);
+		while (mStepCounter < batchEnd && !isOver()) {
+			mStepCounter++;
+			movePredators(null);
+			movePreys(null);
+			checkCollisions(null);
+		}
+
+		// the step over the limit gives up on the remaining animals
+		if (mStepCounter < end && !isOver()) {
+			mStepCounter++;
+			savePreys();
+		}
+
+		int left = mDaedalus.getPreyCount();
+		return new RunSummary(mStepCounter - start, mStepCounter, before - left, left, isOver(),
+				mSeed);
+	}
+
+	@Override
+	public RunSummary runUntilDone(int maxSteps) {
+		return advance(maxSteps);
+	}
+
 	@Override
 	public boolean isOver() {
 		return mDaedalus.isSolved();
@@ -151,9 +264,38 @@ public final class DaedalusSimulation implements Simulation {
 		return recordTable;
 	}
 
+	@Override
+	public long getSeed() {
+		return mSeed;
+	}
+
+	/**
+	 * Sets the number of animals of a kind from which they choose their
+	 * directions in parallel. The results of the simulation do not depend on
+	 * it, only the time taken by each step does.
+	 * 
+	 * @param threshold
+	 *            Number of animals, {@code Integer.MAX_VALUE} to always
+	 *            choose one animal after the other
+	 */
+
+	public void setParallelThreshold(int threshold) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("Threshold must be positive.");
+		}
+		mParallelThreshold = threshold;
+	}
+
 	@Override
 	public void restart() {
+		restart(mSeeds.nextLong());
+	}
+
+	@Override
+	public void restart(long seed) {
 		mDaedalus.reset();
+		mSeed = seed;
+		mSeeded = false;
 		mArrivalTimes.clear();
 		mStepCounter = 0;
 	}
@@ -168,78 +310,102 @@ public final class DaedalusSimulation implements Simulation {
 		mArrivalTimes.put(Integer.MIN_VALUE, forgottenPreys);
 	}
 
+	@Override
+	public Simulation copy() {
+		DaedalusSimulation copy = new DaedalusSimulation(mDaedalus.copy(), splitSeeds());
+		copy.mParallelThreshold = mParallelThreshold;
+		return copy;
+	}
+
+	@Override
+	public Simulation fork() {
+		Daedalus daedalus = mDaedalus.copy();
+		daedalus.restore(mDaedalus.snapshot());
+
+		DaedalusSimulation fork = new DaedalusSimulation(daedalus, splitSeeds());
+		fork.mStepCounter = mStepCounter;
+		fork.mParallelThreshold = mParallelThreshold;
+		for (Map.Entry<Integer, List<Prey>> entry : mArrivalTimes.entrySet()) {
+			fork.mArrivalTimes.put(entry.getKey(), new LinkedList<Prey>(entry.getValue()));
+		}
+		return fork;
+	}
+
 	/**
-	 * Moves the predators in the daedalus.
+	 * Hands the animals their random generators for the current run, the
+	 * first time they move.
+	 */
+
+	private void seedAnimals() {
+		if (!mSeeded) {
+			mDaedalus.seedAnimals(mSeed);
+			mSeeded = true;
+		}
+	}
+
+	/**
+	 * Splits the generator of the seeds, for a copy or a fork of the
+	 * simulation. Copies can be made from several threads at once.
 	 * 
-	 * @param listener
-	 *            The listener to which the function will notify the changes
-	 *            (can be null)
+	 * @return A new generator of seeds
 	 */
 
-	private void movePredators(Animation listener) {
-		List<Predator> predators = mDaedalus.getPredators();
-		for (int i = 0; i < predators.size(); i++) {
-			Predator predator = predators.get(i);
-			Vector2D position = predator.getPosition();
-			Vector2D newPosition = position;
-			Direction[] choices = mDaedalus.getChoices(position);
+	private SplittableRandom splitSeeds() {
+		synchronized (mSeeds) {
+			return mSeeds.split();
+		}
+	}
 
-			// tries to make predator move
-			Direction choice;
-			try {
-				choice = predator.move(choices, mDaedalus);
-				if (!predator.getPosition().equals(position)) {
-					System.err.println("Error : Predator position changed while choosing direction.");
-					System.err.println("\tDid you call setPosition(Vector2D) or update(Direction) ?\n");
-					predator.setPosition(position);
-					choice = null;
-				}
-			} catch (Exception E) {
-				System.err.print("Exception occurred while moving animals: ");
-				E.printStackTrace();
-				choice = null;
-			}
+	/**
+	 * Removes the remaining preys from the daedalus and records them as
+	 * survivors, once the step counter exceeded its limit.
+	 */
 
-			// if predator could move
-			Action action;
-			if (choice != null) {
-				newPosition = position.addDirectionTo(choice);
+	private void savePreys() {
+		List<Prey> preys = mDaedalus.getPreys();
+		List<Prey> safePreys = new LinkedList<Prey>();
+		for (Prey prey : preys) {
+			mDaedalus.removePrey(prey);
+			safePreys.add(prey);
+		}
 
-				int x = newPosition.getX();
-				int y = newPosition.getY();
+		mArrivalTimes.put(Integer.MAX_VALUE, safePreys); // infinite
+	}
 
-				if (mDaedalus.isFree(x, y)) {
-					action = new Action(choice, true);
-				} else {
-					newPosition = position;
-					action = new Action(choice, false);
-					choice = Direction.NONE;
-				}
+	/**
+	 * Moves the predators in the daedalus. Every predator first decides where
+	 * to go against the state of the daedalus before any of them moved, then
+	 * the moves are applied in order.
+	 * 
+	 * @param listener
+	 *            The listener to which the function will notify the changes
+	 *            (can be null)
+	 */
 
-				if (listener != null) {
-					// asks animation to draw corresponding action
-					listener.update(predator, i, action);
-				}
+	private void movePredators(Animation listener) {
+		int count = mDaedalus.getPredatorCount();
+		if (mPredatorOld.length < count) {
+			mPredatorOld = new int[grow(mPredatorOld.length, count)];
+			mPredatorNew = new int[mPredatorOld.length];
+			mPredatorChoices = new Direction[mPredatorOld.length];
+		}
 
-				predator.update(choice);
-			} else {
-				if (listener != null) {
-					// asks animation to draw a confused animal
-					action = new Action(Direction.NONE, false);
-					listener.update(predator, i, action);
-				}
-			}
+		decide(true, count, mPredatorChoices);
+		for (int i = 0; i < count; i++) {
+			Predator predator = mDaedalus.getPredator(i);
+			Vector2D position = predator.getPosition();
+			Vector2D newPosition = apply(predator, i, mPredatorChoices[i], listener);
 
 			// records position changes to handle collisions
-			List<Vector2D> moves = new ArrayList<Vector2D>();
-			moves.add(position);
-			moves.add(newPosition);
-			mPredatorMoves.put(predator, moves);
+			mPredatorOld[i] = mDaedalus.indexOf(position);
+			mPredatorNew[i] = mDaedalus.indexOf(newPosition);
 		}
 	}
 
 	/**
-	 * Moves the preys in the daedalus.
+	 * Moves the preys in the daedalus. Every prey first decides where to go
+	 * against the state of the daedalus once the predators moved, then the
+	 * moves are applied in order.
 	 * 
 	 * @param listener
 	 *            The listener to which the function will notify the changes
@@ -247,22 +413,88 @@ public final class DaedalusSimulation implements Simulation {
 	 */
 
 	private void movePreys(Animation listener) {
-		List<Prey> preys = mDaedalus.getPreys();
-		Action action;
-		Direction choice;
-		for (int i = 0; i < preys.size(); i++) {
-			Prey prey = preys.get(i);
+		int count = mDaedalus.getPreyCount();
+		int offset = mDaedalus.getPredatorCount();
+		if (mPreyOld.length < count) {
+			mPreyOld = new int[grow(mPreyOld.length, count)];
+			mPreyNew = new int[mPreyOld.length];
+			mPreyChoices = new Direction[mPreyOld.length];
+			mCaught = new boolean[mPreyOld.length];
+		}
+
+		decide(false, count, mPreyChoices);
+		for (int i = 0; i < count; i++) {
+			Prey prey = mDaedalus.getPrey(i);
 			Vector2D position = prey.getPosition();
-			Vector2D newPosition = position;
-			Direction[] choices = mDaedalus.getChoices(position);
+			Vector2D newPosition = apply(prey, i + offset, mPreyChoices[i], listener);
 
-			// tries to make prey move
+			// records position changes to handle collisions
+			mPreyOld[i] = mDaedalus.indexOf(position);
+			mPreyNew[i] = mDaedalus.indexOf(newPosition);
+		}
+	}
+
+	/**
+	 * Asks the predators or the preys to choose their next direction, without
+	 * moving any of them. Since the decisions only read the daedalus, they are
+	 * spread over the threads of the common {@code ForkJoinPool} when there
+	 * are enough animals to ask, as set by {@link #setParallelThreshold(int)}.
+	 * 
+	 * @param predators
+	 *            Whether to ask the predators, or the preys
+	 * @param count
+	 *            Number of animals to ask
+	 * @param choices
+	 *            Array in which the choice of each animal is stored by slot,
+	 *            {@code null} if the animal could not decide
+	 */
+
+	private void decide(boolean predators, int count, Direction[] choices) {
+		if (count >= mParallelThreshold) {
+			ForkJoinPool.commonPool().invoke(
+					new DecisionTask(this, predators, 0, count, choices));
+		} else {
+			decide(predators, 0, count, choices);
+		}
+	}
+
+	/**
+	 * Asks a range of predators or preys to choose their next direction.
+	 * 
+	 * @param predators
+	 *            Whether to ask the predators, or the preys
+	 * @param from
+	 *            First slot to ask, inclusive
+	 * @param to
+	 *            Last slot to ask, exclusive
+	 * @param choices
+	 *            Array in which the choice of each animal is stored by slot
+	 */
+
+	private void decide(boolean predators, int from, int to, Direction[] choices) {
+		for (int i = from; i < to; i++) {
+			Animal animal;
+			if (predators) {
+				animal = mDaedalus.getPredator(i);
+			} else {
+				animal = mDaedalus.getPrey(i);
+			}
+			Vector2D position = animal.getPosition();
+			Direction[] available = mDaedalus.getChoices(position);
+
+			// tries to make animal choose
+			Direction choice;
 			try {
-				choice = prey.move(choices, mDaedalus);
-				if (!prey.getPosition().equals(position)) {
-					System.err.println("Error : Prey position changed while choosing direction.");
+				if (predators) {
+					choice = ((Predator) animal).move(available, mDaedalus);
+				} else {
+					choice = ((Prey) animal).move(available, mDaedalus);
+				}
+				if (!animal.getPosition().equals(position)) {
+					String kind = predators ? "Predator" : "Prey";
+					System.err.println("Error : " + kind + " position changed while choosing direction.");
 					System.err.println("\tDid you call setPosition(Vector2D) or update(Direction) ?\n");
-					prey.setPosition(position);
+					animal.setPosition(position);
 					choice = null;
 				}
 			} catch (Exception E) {
@@ -271,45 +503,60 @@ public final class DaedalusSimulation implements Simulation {
 				choice = null;
 			}
 
-			// if prey could move
-			if (choice != null) {
-				newPosition = position.addDirectionTo(choice);
+			choices[i] = choice;
+		}
+	}
+
+	/**
+	 * Applies the choice of an animal and notifies the listener.
+	 * 
+	 * @param animal
+	 *            The animal to move
+	 * @param slot
+	 *            Index of the animal in the animation
+	 * @param choice
+	 *            Direction chosen by the animal, {@code null} if it could not
+	 *            decide
+	 * @param listener
+	 *            The listener to which the function will notify the changes
+	 *            (can be null)
+	 * @return The new position of the animal
+	 */
 
-				int x = newPosition.getX();
-				int y = newPosition.getY();
+	private Vector2D apply(Animal animal, int slot, Direction choice, Animation listener) {
+		Vector2D position = animal.getPosition();
+		Vector2D newPosition = position;
 
-				if (mDaedalus.isFree(x, y)) {
-					action = new Action(choice, true);
-				} else {
-					newPosition = position;
-					action = new Action(choice, false);
-					choice = Direction.NONE;
-				}
+		// if animal could move
+		if (choice != null) {
+			newPosition = mDaedalus.addDirectionTo(position, choice);
+			boolean free = mDaedalus.isFree(newPosition.getX(), newPosition.getY());
+			if (!free) {
+				newPosition = position;
+			}
 
-				if (listener != null) {
-					// draws animation
-					listener.update(prey, i + mDaedalus.getPredators().size(), action);
-				}
-				prey.update(choice);
-			} else {
-				if (listener != null) {
-					action = new Action(Direction.NONE, false);
-					listener.update(prey, i + mDaedalus.getPredators().size(), action);
-				}
+			if (listener != null) {
+				// asks animation to draw corresponding action
+				listener.update(animal, slot, new Action(choice, free));
 			}
 
-			// records position changes to handle collisions
-			List<Vector2D> moves = new ArrayList<Vector2D>();
-			moves.add(position);
-			moves.add(newPosition);
-			mPreyMoves.put(prey, moves);
+			animal.setPosition(newPosition);
+		} else if (listener != null) {
+			// asks animation to draw a confused animal
+			listener.update(animal, slot, new Action(Direction.NONE, false));
 		}
+
+		return newPosition;
 	}
 
 	/**
-	 * Checks collisions between predators and preys in {@codeO(n*m)}. A collision
-	 * occurs if two animals land on the same tile, or when they run into each
-	 * other.
+	 * Checks collisions between predators and preys in {@code O(n + m)}. A
+	 * collision occurs if two animals land on the same tile, or when they run
+	 * into each other.
+	 * <p>
+	 * The tiles reached by the predators are first marked in a grid indexed
+	 * like the tiles of the daedalus, along with the direction they came from.
+	 * Each prey then only needs to look at its old and new tiles.
 	 * <p>
 	 * A special case is handled when animals run into each other. The animation
 	 * is notified that an animal dies between two squares.
@@ -320,45 +567,139 @@ public final class DaedalusSimulation implements Simulation {
 	 */
 
 	private void checkCollisions(Animation listener) {
-		List<Predator> predators = mDaedalus.getPredators();
-		List<Prey> preys = mDaedalus.getPreys();
+		int predatorCount = mDaedalus.getPredatorCount();
+		int preyCount = mDaedalus.getPreyCount();
+
+		// marks the tiles occupied by the predators
+		mStamp++;
+		for (int i = 0; i < predatorCount; ++i) {
+			int aOld = mPredatorOld[i];
+			int aNew = mPredatorNew[i];
+			if (aNew < 0) {
+				continue;
+			}
 
-		for (int i = 0; i < predators.size(); ++i) {
-			Predator a = predators.get(i);
-			List<Vector2D> aChanges = mPredatorMoves.get(a);
-			for (int j = 0; j < preys.size(); ++j) {
-				Prey b = preys.get(j);
-				List<Vector2D> bChanges = mPreyMoves.get(b);
-
-				// position changes for animal a
-				Vector2D aOld = aChanges.get(0);
-				Vector2D aNew = aChanges.get(1);
-				// position changes for animal b
-				Vector2D bOld = bChanges.get(0);
-				Vector2D bNew = bChanges.get(1);
-
-				// if (a.new == b.new) or (a.old == b.new and b.old == a.new)
-				boolean diesInBetween = aOld.equals(bNew) && bOld.equals(aNew);
-				boolean diesInPlace = aNew.equals(bNew);
-
-				if (diesInPlace || diesInBetween) {
-					if (mDaedalus.hasPrey(b)) {
-						mDaedalus.removePrey(b);
-
-						// records survival time
-						if (mArrivalTimes.get(mStepCounter) == null) {
-							mArrivalTimes.put(mStepCounter, new LinkedList<Prey>());
-						}
-						mArrivalTimes.get(mStepCounter).add(b);
-
-						// asks animation to interrupt movement if it dies
-						// moving
-						if (listener != null && diesInBetween) {
-							listener.updateDying(j + predators.size());
-						}
-					}
+			if (mOccupiedStamps[aNew] != mStamp) {
+				mOccupiedStamps[aNew] = mStamp;
+				mArrivals[aNew] = 0;
+			}
+			Direction from = mDaedalus.directionTo(aNew, aOld);
+			if (from != null) {
+				mArrivals[aNew] |= 1 << from.intValue();
+			}
+		}
+
+		boolean anyCaught = false;
+		for (int j = 0; j < preyCount; ++j) {
+			int bOld = mPreyOld[j];
+			int bNew = mPreyNew[j];
+			mCaught[j] = false;
+			if (bNew < 0) {
+				continue;
+			}
+
+			// if (a.new == b.new) or (a.old == b.new and b.old == a.new)
+			boolean diesInPlace = mOccupiedStamps[bNew] == mStamp;
+			boolean diesInBetween = false;
+			Direction to = mDaedalus.directionTo(bOld, bNew);
+			if (to != null && mOccupiedStamps[bOld] == mStamp) {
+				diesInBetween = (mArrivals[bOld] & (1 << to.intValue())) != 0;
+			}
+
+			if (diesInPlace || diesInBetween) {
+				mCaught[j] = true;
+				anyCaught = true;
+
+				// records survival time
+				if (mArrivalTimes.get(mStepCounter) == null) {
+					mArrivalTimes.put(mStepCounter, new LinkedList<Prey>());
 				}
+				mArrivalTimes.get(mStepCounter).add(mDaedalus.getPrey(j));
+
+				// asks animation to interrupt movement if it dies
+				// moving
+				if (listener != null && diesInBetween) {
+					listener.updateDying(j + predatorCount);
+				}
+			}
+		}
+
+		// removes caught preys backwards, so that slots stay valid
+		if (anyCaught) {
+			for (int j = preyCount - 1; j >= 0; --j) {
+				if (mCaught[j]) {
+					mDaedalus.removePreyAt(j);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the new length of a slot array that must hold at least a given
+	 * number of animals.
+	 * 
+	 * @param length
+	 *            Current length of the array
+	 * @param needed
+	 *            Number of animals the array must hold
+	 * @return The new length of the array
+	 */
+
+	private static int grow(int length, int needed) {
+		return Math.max(needed, 2 * length);
+	}
+
+	/**
+	 * Task asking a range of predators or preys to choose their next
+	 * direction, splitting the range in halves until it is small enough.
+	 * 
+	 */
+
+	private static final class DecisionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/* simulation and range of animals to ask */
+		private final DaedalusSimulation mSimulation;
+		private final boolean mPredators;
+		private final int mFrom;
+		private final int mTo;
+		private final Direction[] mChoices;
+
+		/**
+		 * Constructs a task asking a range of animals to choose.
+		 * 
+		 * @param simulation
+		 *            The simulation whose animals are asked
+		 * @param predators
+		 *            Whether to ask the predators, or the preys
+		 * @param from
+		 *            First slot to ask, inclusive
+		 * @param to
+		 *            Last slot to ask, exclusive
+		 * @param choices
+		 *            Array in which the choice of each animal is stored
+		 */
+
+		public DecisionTask(DaedalusSimulation simulation, boolean predators,
+				int from, int to, Direction[] choices) {
+			mSimulation = simulation;
+			mPredators = predators;
+			mFrom = from;
+			mTo = to;
+			mChoices = choices;
+		}
+
+		@Override
+		protected void compute() {
+			if (mTo - mFrom <= DECISION_GRAIN) {
+				mSimulation.decide(mPredators, mFrom, mTo, mChoices);
+				return;
 			}
+
+			int middle = (mFrom + mTo) >>> 1;
+			invokeAll(new DecisionTask(mSimulation, mPredators, mFrom, middle, mChoices),
+					new DecisionTask(mSimulation, mPredators, middle, mTo, mChoices));
 		}
 	}
 }
@@ -0,0 +1,428 @@
+package ch.epfl.maze.simulation;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import ch.epfl.maze.graphics.Animation;
+import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.CorridorWalker;
+import ch.epfl.maze.physical.JunctionGraph;
+import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.physical.World;
+import ch.epfl.maze.util.Action;
+import ch.epfl.maze.util.Direction;
+
+/**
+ * Simulation of a maze solver which skips the corridors of the labyrinth.
+ * <p>
+ * Every animal has its own step counter. When a {@link CorridorWalker} leaves
+ * a junction, it jumps to the other end of the corridor of the
+ * {@link JunctionGraph} of the maze, and its counter is increased by the
+ * length of the corridor. Since the animals of a maze do not interact, the
+ * arrival times are the same as those of a {@link MazeSimulation}, which
+ * moves every animal one tile at a time. Animals which are not corridor
+ * walkers are moved one tile at a time, and so are all the animals when the
+ * simulation is animated.
+ * 
+ */
+
+public final class JunctionSimulation implements Simulation {
+
+	/* limit to the step counter, over which the animals are considered lost */
+	public static final int COUNTER_LIMIT = MazeSimulation.COUNTER_LIMIT;
+
+	/* simulation components */
+	private final Maze mMaze;
+	private final JunctionGraph mGraph;
+	private Map<Integer, List<Animal>> mArrivalTimes;
+	private int mStepCounter;
+
+	/*
+	 * seed of the current run, generator of the seeds of the next runs, and
+	 * whether the animals were handed their random generators for this run
+	 */
+	private final SplittableRandom mSeeds;
+	private long mSeed;
+	private boolean mSeeded;
+
+	/* remaining animals, with their tile index and their own step counter */
+	private Animal[] mAnimals;
+	private int[] mIndices;
+	private int[] mClocks;
+	private int mCount;
+
+	/**
+	 * Constructs a simulation with a {@code Maze} to simulate.
+	 * 
+	 * @param maze
+	 *            The maze to simulate
+	 */
+
+	public JunctionSimulation(Maze maze) {
+		this(maze, new JunctionGraph(maze), new SplittableRandom());
+	}
+
+	/**
+	 * Constructs a simulation with a {@code Maze} to simulate, whose runs are
+	 * all determined by a seed.
+	 * 
+	 * @param maze
+	 *            The maze to simulate
+	 * @param seed
+	 *            The seed from which the seeds of the runs are drawn
+	 */
+
+	public JunctionSimulation(Maze maze, long seed) {
+		this(maze, new JunctionGraph(maze), new SplittableRandom(seed));
+	}
+
+	/**
+	 * Constructs a simulation of a maze whose junction graph is already built.
+	 * 
+	 * @param maze
+	 *            The maze to simulate
+	 * @param graph
+	 *            The junction graph of the labyrinth of the maze
+	 * @param seeds
+	 *            The generator of the seeds of the runs
+	 */
+
+	private JunctionSimulation(Maze maze, JunctionGraph graph, SplittableRandom seeds) {
+		mMaze = maze;
+		mGraph = graph;
+		mSeeds = seeds;
+		mSeed = seeds.nextLong();
+		mSeeded = false;
+		mArrivalTimes = new TreeMap<Integer, List<Animal>>();
+		mStepCounter = 0;
+		loadAnimals();
+	}
+
+	@Override
+	public void move(Animation listener) {
+		if (isOver()) {
+			return;
+		}
+
+		// increments counter
+		mStepCounter++;
+
+		// if counter exceeded limit, it considers animals lost
+		if (mStepCounter > COUNTER_LIMIT) {
+			loseAnimals();
+			return;
+		}
+
+		// moves the animals which are not ahead of the counter, without
+		// jumping if the moves are drawn
+		seedAnimals();
+		for (int i = 0; i < mCount; i++) {
+			if (mClocks[i] < mStepCounter && !hasArrived(i)) {
+				moveAnimal(i, listener, listener == null);
+			}
+		}
+		collectArrivals();
+
+		// notifies animation that all the changes are done
+		if (listener != null) {
+			listener.doneUpdating();
+		}
+	}
+
+	@Override
+	public RunSummary advance(int steps) {
+		if (steps < 0) {
+			throw new IllegalArgumentException("Number of steps must be positive.");
+		}
+
+		seedAnimals();
+		int start = mStepCounter;
+		int before = mCount;
+		int end = (steps > Integer.MAX_VALUE - start) ? Integer.MAX_VALUE : start + steps;
+
+		// runs every animal on its own up to the last step under the limit
+		int batchEnd = Math.min(end, COUNTER_LIMIT);
+		boolean allArrived = true;
+		int lastArrival = mStepCounter;
+		for (int i = 0; i < mCount; i++) {
+			while (mClocks[i] < batchEnd && !hasArrived(i)) {
+				moveAnimal(i, null, true);
+			}
+			if (hasArrived(i) && mClocks[i] <= batchEnd) {
+				lastArrival = Math.max(lastArrival, mClocks[i]);
+			} else {
+				allArrived = false;
+			}
+		}
+
+		// stops at the last arrival if every animal found the exit
+		if (mCount > 0 && mStepCounter < batchEnd) {
+			mStepCounter = allArrived ? lastArrival : batchEnd;
+		}
+		collectArrivals();
+
+		// the step over the limit gives up on the remaining animals
+		if (mStepCounter < end && !isOver()) {
+			mStepCounter++;
+			loseAnimals();
+		}
+
+		return new RunSummary(mStepCounter - start, mStepCounter, before - mCount, mCount, isOver(),
+				mSeed);
+	}
+
+	@Override
+	public RunSummary runUntilDone(int maxSteps) {
+		return advance(maxSteps);
+	}
+
+	@Override
+	public boolean isOver() {
+		return mCount == 0;
+	}
+
+	@Override
+	public World getWorld() {
+		return mMaze;
+	}
+
+	@Override
+	public int getSteps() {
+		return mStepCounter;
+	}
+
+	/**
+	 * Returns the junction graph on which the animals jump.
+	 * 
+	 * @return The junction graph of the labyrinth
+	 */
+
+	public JunctionGraph getGraph() {
+		return mGraph;
+	}
+
+	@Override
+	public Map<Integer, List<Animal>> getArrivalTimes() {
+		return new TreeMap<Integer, List<Animal>>(mArrivalTimes);
+	}
+
+	@Override
+	public String getRecordTable() {
+		return MazeSimulation.recordTable(mArrivalTimes);
+	}
+
+	@Override
+	public long getSeed() {
+		return mSeed;
+	}
+
+	@Override
+	public void restart() {
+		restart(mSeeds.nextLong());
+	}
+
+	@Override
+	public void restart(long seed) {
+		mMaze.reset();
+		mSeed = seed;
+		mSeeded = false;
+		mArrivalTimes.clear();
+		mStepCounter = 0;
+		loadAnimals();
+	}
+
+	@Override
+	public void stop() {
+		loseAnimals();
+	}
+
+	@Override
+	public Simulation copy() {
+		return new JunctionSimulation(mMaze.copy(), mGraph, splitSeeds());
+	}
+
+	@Override
+	public Simulation fork() {
+		Maze maze = mMaze.copy();
+		maze.restore(mMaze.snapshot());
+
+		// the animals of the maze are in the same order as in the arrays
+		JunctionSimulation fork = new JunctionSimulation(maze, mGraph, splitSeeds());
+		fork.mStepCounter = mStepCounter;
+		System.arraycopy(mClocks, 0, fork.mClocks, 0, mCount);
+		for (Map.Entry<Integer, List<Animal>> entry : mArrivalTimes.entrySet()) {
+			fork.mArrivalTimes.put(entry.getKey(), new LinkedList<Animal>(entry.getValue()));
+		}
+		return fork;
+	}
+
+	/**
+	 * Hands the animals their random generators for the current run, the
+	 * first time they move.
+	 */
+
+	private void seedAnimals() {
+		if (!mSeeded) {
+			mMaze.seedAnimals(mSeed);
+			mSeeded = true;
+		}
+	}
+
+	/**
+	 * Splits the generator of the seeds, for a copy or a fork of the
+	 * simulation. Copies can be made from several threads at once.
+	 * 
+	 * @return A new generator of seeds
+	 */
+
+	private SplittableRandom splitSeeds() {
+		synchronized (mSeeds) {
+			return mSeeds.split();
+		}
+	}
+
+	/**
+	 * Fills the arrays of the simulation with the animals of the maze.
+	 */
+
+	private void loadAnimals() {
+		List<Animal> animals = mMaze.getAnimals();
+		mCount = animals.size();
+		mAnimals = animals.toArray(new Animal[mCount]);
+		mIndices = new int[mCount];
+		mClocks = new int[mCount];
+		for (int i = 0; i < mCount; i++) {
+			mIndices[i] = mMaze.indexOf(mAnimals[i].getPosition());
+		}
+	}
+
+	/**
+	 * Determines if an animal stands on the exit, possibly ahead of the step
+	 * counter.
+	 * 
+	 * @param i
+	 *            Index of the animal
+	 * @return <b>true</b> if the animal reached the exit, <b>false</b>
+	 *         otherwise
+	 */
+
+	private boolean hasArrived(int i) {
+		return mMaze.tileAt(mIndices[i]) == World.EXIT;
+	}
+
+	/**
+	 * Removes from the maze the animals which reached the exit at the current
+	 * step or before, and records their arrival times.
+	 */
+
+	private void collectArrivals() {
+		int kept = 0;
+		for (int i = 0; i < mCount; i++) {
+			Animal animal = mAnimals[i];
+			if (hasArrived(i) && mClocks[i] <= mStepCounter) {
+				mMaze.removeAnimal(animal);
+				if (mArrivalTimes.get(mClocks[i]) == null) {
+					mArrivalTimes.put(mClocks[i], new LinkedList<Animal>());
+				}
+				mArrivalTimes.get(mClocks[i]).add(animal);
+			} else {
+				mAnimals[kept] = animal;
+				mIndices[kept] = mIndices[i];
+				mClocks[kept] = mClocks[i];
+				kept++;
+			}
+		}
+		for (int i = kept; i < mCount; i++) {
+			mAnimals[i] = null;
+		}
+		mCount = kept;
+	}
+
+	/**
+	 * Removes the remaining animals from the maze and records them as lost.
+	 */
+
+	private void loseAnimals() {
+		List<Animal> lostAnimals = new LinkedList<Animal>();
+		for (int i = 0; i < mCount; i++) {
+			mMaze.removeAnimal(mAnimals[i]);
+			lostAnimals.add(mAnimals[i]);
+			mAnimals[i] = null;
+		}
+		mCount = 0;
+
+		mArrivalTimes.put(Integer.MAX_VALUE, lostAnimals); // infinite
+	}
+
+	/**
+	 * Makes an animal take one decision, and moves it either by one tile or to
+	 * the other end of the corridor it enters.
+	 * 
+	 * @param i
+	 *            Index of the animal
+	 * @param listener
+	 *            The listener to which the function will notify the changes
+	 *            (can be null)
+	 * @param jump
+	 *            Whether the animal can jump over a corridor
+	 */
+
+	private void moveAnimal(int i, Animation listener, boolean jump) {
+		Animal animal = mAnimals[i];
+		int index = mIndices[i];
+		Direction[] choices = mMaze.getChoices(index);
+
+		// tries to make animal move
+		Direction choice;
+		try {
+			choice = animal.move(choices);
+			if (mMaze.indexOf(animal.getPosition()) != index) {
+				System.err.println("Error : Animal position changed while choosing direction.");
+				System.err.println("\tDid you call setPosition(Vector2D) or update(Direction) ?\n");
+				animal.setPosition(mMaze.positionOf(index));
+				choice = null;
+			}
+		} catch (Exception E) {
+			System.err.print("Exception occurred while moving animals: ");
+			E.printStackTrace();
+			choice = null;
+		}
+		mClocks[i]++;
+
+		if (choice == null) {
+			// asks animation to draw a confused animal
+			if (listener != null) {
+				listener.update(animal, i, new Action(Direction.NONE, false));
+			}
+			return;
+		}
+
+		// jumps to the next junction, the steps along the corridor being
+		// counted as if they were taken one by one
+		int node = mGraph.nodeOf(index);
+		if (jump && node >= 0 && animal instanceof CorridorWalker
+				&& mGraph.getTarget(node, choice) >= 0) {
+			mClocks[i] += mGraph.getLength(node, choice) - 1;
+			mIndices[i] = mGraph.tileOf(mGraph.getTarget(node, choice));
+			animal.setPosition(mMaze.positionOf(mIndices[i]));
+			((CorridorWalker) animal).followCorridor(mGraph.getLastDirection(node, choice));
+			return;
+		}
+
+		int next = mMaze.neighbourIndex(index, choice);
+		if (mMaze.isFree(next)) {
+			// asks animation to draw the action of the animal
+			if (listener != null) {
+				listener.update(animal, i, new Action(choice, true));
+			}
+			mIndices[i] = next;
+			animal.setPosition(mMaze.positionOf(next));
+		} else if (listener != null) {
+			// asks animation to draw an interrupted movement
+			listener.update(animal, i, new Action(choice, false));
+		}
+	}
+}
@@ -3,6 +3,7 @@ package ch.epfl.maze.simulation;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.TreeMap;
 
 import ch.epfl.maze.graphics.Animation;
@@ -30,6 +31,14 @@ public final class MazeSimulation implements Simulation {
 	private Map<Integer, List<Animal>> mArrivalTimes;
 	private int mStepCounter;
 
+	/*
+	 * seed of the current run, generator of the seeds of the next runs, and
+	 * whether the animals were handed their random generators for this run
+	 */
+	private final SplittableRandom mSeeds;
+	private long mSeed;
+	private boolean mSeeded;
+
 	/**
 	 * Constructs a simulation with a {@code Maze} to simulate.
 	 * 
@@ -38,9 +47,40 @@ public final class MazeSimulation implements Simulation {
 	 */
 
 	public MazeSimulation(Maze maze) {
+		this(maze, new SplittableRandom());
+	}
+
+	/**
+	 * Constructs a simulation with a {@code Maze} to simulate, whose runs are
+	 * all determined by a seed.
+	 * 
+	 * @param maze
+	 *            The maze to simulate
+	 * @param seed
+	 *            The seed from which the seeds of the runs are drawn
+	 */
+
+	public MazeSimulation(Maze maze, long seed) {
+		this(maze, new SplittableRandom(seed));
+	}
+
+	/**
+	 * Constructs a simulation with a {@code Maze} to simulate and a generator
+	 * of the seeds of its runs.
+	 * 
+	 * @param maze
+	 *            The maze to simulate
+	 * @param seeds
+	 *            The generator of the seeds of the runs
+	 */
+
+	private MazeSimulation(Maze maze, SplittableRandom seeds) {
 		mMaze = maze;
 		mArrivalTimes = new TreeMap<Integer, List<Animal>>();
 		mStepCounter = 0;
+		mSeeds = seeds;
+		mSeed = seeds.nextLong();
+		mSeeded = false;
 	}
 
 	@Override
@@ -54,18 +94,12 @@ public final class MazeSimulation implements Simulation {
 
 		// if counter exceeded limit, it considers animals lost
 		if (mStepCounter > COUNTER_LIMIT) {
-			List<Animal> animals = mMaze.getAnimals();
-			List<Animal> lostAnimals = new LinkedList<Animal>();
-			for (Animal animal : animals) {
-				mMaze.removeAnimal(animal);
-				lostAnimals.add(animal);
-			}
-
-			mArrivalTimes.put(Integer.MAX_VALUE, lostAnimals); // infinite
+			loseAnimals();
 			return;
 		}
 
 		// asks animals to move
+		seedAnimals();
 		moveAnimals(listener);
 
 		// notifies animation that all the changes are done
@@ -74,6 +108,40 @@ public final class MazeSimulation implements Simulation {
 		}
 	}
 
+	@Override
+	public RunSummary advance(int steps) {
+		if (steps < 0) {
+			throw new IllegalArgumentException("Number of steps must be positive.");
+		}
+
+		seedAnimals();
+		int start = mStepCounter;
+		int before = mMaze.getAnimals().size();
+		int end = (steps > Integer.MAX_VALUE - start) ? Integer.MAX_VALUE : start + steps;
+
+		// runs the steps under the limit without checking it at each step
+		int batchEnd = Math.min(end, COUNTER_LIMIT);
+		while (mStepCounter < batchEnd && !isOver()) {
+			mStepCounter++;
+			moveAnimals(null);
+		}
+
+		// the step over the limit gives up on the remaining animals
+		if (mStepCounter < end && !isOver()) {
+			mStepCounter++;
+			loseAnimals();
+		}
+
+		int left = mMaze.getAnimals().size();
+		return new RunSummary(mStepCounter - start, mStepCounter, before - left, left, isOver(),
+				mSeed);
+	}
+
+	@Override
+	public RunSummary runUntilDone(int maxSteps) {
+		return advance(maxSteps);
+	}
+
 	@Override
 	public boolean isOver() {
 		return mMaze.isSolved();
@@ -94,9 +162,93 @@ public final class MazeSimulation implements Simulation {
 	}
 
 	public String getRecordTable() {
+		return recordTable(mArrivalTimes);
+	}
+
+	@Override
+	public long getSeed() {
+		return mSeed;
+	}
+
+	@Override
+	public void restart() {
+		restart(mSeeds.nextLong());
+	}
+
+	@Override
+	public void restart(long seed) {
+		mMaze.reset();
+		mSeed = seed;
+		mSeeded = false;
+		mArrivalTimes.clear();
+		mStepCounter = 0;
+	}
+
+	@Override
+	public void stop() {
+		List<Animal> forgottenAnimals = new LinkedList<Animal>();
+		for (Animal animal : mMaze.getAnimals()) {
+			forgottenAnimals.add(animal);
+			mMaze.removeAnimal(animal);
+		}
+		mArrivalTimes.put(Integer.MAX_VALUE, forgottenAnimals);
+	}
+
+	@Override
+	public Simulation copy() {
+		return new MazeSimulation(mMaze.copy(), splitSeeds());
+	}
+
+	@Override
+	public Simulation fork() {
+		Maze maze = mMaze.copy();
+		maze.restore(mMaze.snapshot());
+
+		MazeSimulation fork = new MazeSimulation(maze, splitSeeds());
+		fork.mStepCounter = mStepCounter;
+		for (Map.Entry<Integer, List<Animal>> entry : mArrivalTimes.entrySet()) {
+			fork.mArrivalTimes.put(entry.getKey(), new LinkedList<Animal>(entry.getValue()));
+		}
+		return fork;
+	}
+
+	/**
+	 * Hands the animals their random generators for the current run, the
+	 * first time they move.
+	 */
+
+	private void seedAnimals() {
+		if (!mSeeded) {
+			mMaze.seedAnimals(mSeed);
+			mSeeded = true;
+		}
+	}
+
+	/**
+	 * Splits the generator of the seeds, for a copy or a fork of the
+	 * simulation. Copies can be made from several threads at once.
+	 * 
+	 * @return A new generator of seeds
+	 */
+
+	private SplittableRandom splitSeeds() {
+		synchronized (mSeeds) {
+			return mSeeds.split();
+		}
+	}
+
+	/**
+	 * Formats the ten first arrivals of a simulation.
+	 * 
+	 * @param arrivalTimes
+	 *            The animals that arrived, sorted by arrival time
+	 * @return The record table of the simulation
+	 */
+
+	static String recordTable(Map<Integer, List<Animal>> arrivalTimes) {
 		String recordTable = "";
 		int position = 1;
-		for (Map.Entry<Integer, List<Animal>> entry : mArrivalTimes.entrySet()) {
+		for (Map.Entry<Integer, List<Animal>> entry : arrivalTimes.entrySet()) {
 			// only returns the 10 first
 			if (position > 10) {
 				return recordTable;
@@ -119,21 +271,20 @@ public final class MazeSimulation implements Simulation {
 		return recordTable;
 	}
 
-	@Override
-	public void restart() {
-		mMaze.reset();
-		mArrivalTimes.clear();
-		mStepCounter = 0;
-	}
+	/**
+	 * Removes the remaining animals from the maze and records them as lost,
+	 * once the step counter exceeded its limit.
+	 */
 
-	@Override
-	public void stop() {
-		List<Animal> forgottenAnimals = new LinkedList<Animal>();
-		for (Animal animal : mMaze.getAnimals()) {
-			forgottenAnimals.add(animal);
+	private void loseAnimals() {
+		List<Animal> animals = mMaze.getAnimals();
+		List<Animal> lostAnimals = new LinkedList<Animal>();
+		for (Animal animal : animals) {
 			mMaze.removeAnimal(animal);
+			lostAnimals.add(animal);
 		}
-		mArrivalTimes.put(Integer.MAX_VALUE, forgottenAnimals);
+
+		mArrivalTimes.put(Integer.MAX_VALUE, lostAnimals); // infinite
 	}
 
 	/**
@@ -169,8 +320,7 @@ public final class MazeSimulation implements Simulation {
 
 			// if animal could move
 			if (choice != null) {
-				Vector2D futurePosition = animal.getPosition();
-				futurePosition = futurePosition.addDirectionTo(choice);
+				Vector2D futurePosition = mMaze.addDirectionTo(position, choice);
 
 				int x = futurePosition.getX();
 				int y = futurePosition.getY();
@@ -193,7 +343,7 @@ public final class MazeSimulation implements Simulation {
 						}
 						mArrivalTimes.get(mStepCounter).add(animal);
 					} else {
-						animal.update(choice);
+						animal.setPosition(futurePosition);
 					}
 				} else if (listener != null) {
 					// asks animation to draw an interrupted movement
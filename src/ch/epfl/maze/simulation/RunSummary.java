@@ -0,0 +1,119 @@
+package ch.epfl.maze.simulation;
+
+/**
+ * Immutable summary of a batch of steps executed without animation by
+ * {@link Simulation#advance(int)} or {@link Simulation#runUntilDone(int)}.
+ * 
+ */
+
+public final class RunSummary {
+
+	/* steps executed by the batch, and step counter once it is done */
+	private final int mSteps;
+	private final int mTotalSteps;
+
+	/* animals which left the world during the batch, and those remaining */
+	private final int mFinished;
+	private final int mRemaining;
+
+	/* whether the simulation is over after the batch */
+	private final boolean mOver;
+
+	/* seed of the random generators of the animals during the run */
+	private final long mSeed;
+
+	/**
+	 * Constructs the summary of a batch of steps.
+	 * 
+	 * @param steps
+	 *            Number of steps executed by the batch
+	 * @param totalSteps
+	 *            Step counter of the simulation after the batch
+	 * @param finished
+	 *            Number of animals which left the world during the batch
+	 * @param remaining
+	 *            Number of animals still in the world after the batch
+	 * @param over
+	 *            Whether the simulation is over after the batch
+	 * @param seed
+	 *            Seed of the run, as returned by {@link Simulation#getSeed()}
+	 */
+
+	public RunSummary(int steps, int totalSteps, int finished, int remaining, boolean over,
+			long seed) {
+		mSteps = steps;
+		mTotalSteps = totalSteps;
+		mFinished = finished;
+		mRemaining = remaining;
+		mOver = over;
+		mSeed = seed;
+	}
+
+	/**
+	 * Returns the number of steps executed by the batch.
+	 * 
+	 * @return The number of steps of the batch
+	 */
+
+	public int getSteps() {
+		return mSteps;
+	}
+
+	/**
+	 * Returns the step counter of the simulation after the batch.
+	 * 
+	 * @return The total number of steps simulated so far
+	 */
+
+	public int getTotalSteps() {
+		return mTotalSteps;
+	}
+
+	/**
+	 * Returns the number of animals which left the world during the batch,
+	 * whether they reached the exit, were caught or were given up on.
+	 * 
+	 * @return The number of animals which finished during the batch
+	 */
+
+	public int getFinished() {
+		return mFinished;
+	}
+
+	/**
+	 * Returns the number of animals still in the world after the batch.
+	 * 
+	 * @return The number of remaining animals
+	 */
+
+	public int getRemaining() {
+		return mRemaining;
+	}
+
+	/**
+	 * Determines if the simulation is over after the batch.
+	 * 
+	 * @return <b>true</b> if no more moves can be made, <b>false</b> otherwise
+	 */
+
+	public boolean isOver() {
+		return mOver;
+	}
+
+	/**
+	 * Returns the seed of the run, with which the run can be replayed by
+	 * {@link Simulation#restart(long)}.
+	 * 
+	 * @return The seed of the random generators of the animals
+	 */
+
+	public long getSeed() {
+		return mSeed;
+	}
+
+	@Override
+	public String toString() {
+		return mSteps + " steps (" + mTotalSteps + " total), " + mFinished + " finished, "
+				+ mRemaining + " remaining" + (mOver ? ", over" : "") + ", seed " + mSeed;
+	}
+}
@@ -26,6 +26,34 @@ public interface Simulation {
 
 	public void move(Animation listener);
 
+	/**
+	 * Executes up to {@code steps} steps without any animation, stopping
+	 * early if the simulation gets over. This is equivalent to calling
+	 * {@code move(null)} repeatedly, but without the per-step checks.
+	 * 
+	 * @param steps
+	 *            Maximum number of steps to execute
+	 * @return A summary of the executed steps
+	 * @throws IllegalArgumentException
+	 *             If the number of steps is negative
+	 */
+
+	public RunSummary advance(int steps);
+
+	/**
+	 * Runs the simulation without any animation until it is over, or until
+	 * {@code maxSteps} steps have been executed.
+	 * 
+	 * @param maxSteps
+	 *            Maximum number of steps to execute, or
+	 *            {@code Integer.MAX_VALUE} to run until the end
+	 * @return A summary of the executed steps
+	 * @throws IllegalArgumentException
+	 *             If the number of steps is negative
+	 */
+
+	public RunSummary runUntilDone(int maxSteps);
+
 	/**
 	 * Determines if the simulation is over.
 	 * 
@@ -71,14 +99,58 @@ public interface Simulation {
 	public String getRecordTable();
 
 	/**
-	 * Restarts the simulation from the beginning.
+	 * Returns the seed of the current run. Every animal draws its random
+	 * choices from its own generator, split from this seed, so that the run
+	 * can be replayed exactly with {@link #restart(long)}.
+	 * 
+	 * @return The seed of the current run
+	 */
+
+	public long getSeed();
+
+	/**
+	 * Restarts the simulation from the beginning, with the next seed drawn
+	 * from the own generator of the simulation.
 	 */
 
 	public void restart();
 
+	/**
+	 * Restarts the simulation from the beginning with a given seed.
+	 * 
+	 * @param seed
+	 *            The seed of the new run
+	 */
+
+	public void restart(long seed);
+
 	/**
 	 * Stops abruptly the simulation.
 	 */
 
 	public void stop();
+
+	/**
+	 * Creates a new simulation of a copy of the world, in its initial state.
+	 * The copy shares no mutable state with this simulation, so both can be
+	 * run concurrently. Its seeds are drawn from a generator split from the
+	 * one of this simulation.
+	 * 
+	 * @return An independent copy of the simulation
+	 */
+
+	public Simulation copy();
+
+	/**
+	 * Creates a new simulation of a copy of the world, in the current state of
+	 * this simulation : same animals, step counter and arrival times. The fork
+	 * shares no mutable state with this simulation, so that both can go on
+	 * separately, and restarting it goes back to the initial state of the
+	 * world. The animals of the fork draw their next random choices from a new
+	 * seed.
+	 * 
+	 * @return An independent branch of the simulation
+	 */
+
+	public Simulation fork();
 }
@@ -5,6 +5,10 @@ import junit.framework.TestCase;
 import org.junit.Test;
 
 import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.zoo.Hamster;
+import ch.epfl.maze.physical.zoo.Monkey;
+import ch.epfl.maze.physical.zoo.Mouse;
+import ch.epfl.maze.physical.zoo.Panda;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
@@ -69,6 +73,31 @@ public class AnimalTest extends TestCase {
 		assertEquals(new Vector2D(2, 1), animal.getPosition());
 	}
 
+	/**
+	 * Test case for {@code move(Direction[] choices)} on animals which never
+	 * entered a world, walking back and forth between two dead ends.
+	 */
+
+	@Test
+	public void testMoveWithoutWorld() {
+		Direction[] right = { Direction.RIGHT };
+		Direction[] left = { Direction.LEFT };
+		Animal[] animals = {
+				new Hamster(new Vector2D(1, 1)), new Monkey(new Vector2D(1, 1)),
+				new Mouse(new Vector2D(1, 1)), new Panda(new Vector2D(1, 1))
+		};
+
+		for (Animal animal : animals) {
+			String name = animal.getClass().getSimpleName();
+			for (int i = 0; i < 4; i++) {
+				assertEquals(name + " should go right", Direction.RIGHT, animal.move(right));
+				animal.update(Direction.RIGHT);
+				assertEquals(name + " should go back left", Direction.LEFT, animal.move(left));
+				animal.update(Direction.LEFT);
+			}
+		}
+	}
+
 	/**
 	 * Mock class that makes {@code Animal} concrete.
 	 * 
@@ -0,0 +1,366 @@
+package ch.epfl.maze.tests;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.Daedalus;
+import ch.epfl.maze.physical.Predator;
+import ch.epfl.maze.physical.Prey;
+import ch.epfl.maze.physical.pacman.Blinky;
+import ch.epfl.maze.physical.pacman.Clyde;
+import ch.epfl.maze.physical.pacman.Inky;
+import ch.epfl.maze.physical.pacman.Pinky;
+import ch.epfl.maze.simulation.DaedalusSimulation;
+import ch.epfl.maze.simulation.RunSummary;
+import ch.epfl.maze.simulation.Simulation;
+import ch.epfl.maze.util.Direction;
+import ch.epfl.maze.util.MazeGenerator;
+import ch.epfl.maze.util.Vector2D;
+
+/**
+ * Test case for {@code DaedalusSimulation} implementation.
+ * 
+ */
+
+public class DaedalusSimulationTest extends TestCase {
+
+	private final static int[][] LABYRINTH = {
+		{ 1, 1, 1, 1, 1, 1, 1 },
+		{ 1, 0, 0, 0, 0, 0, 1 },
+		{ 1, 1, 1, 1, 1, 1, 1 }
+	};
+
+	/* number of animals of each kind in a crowded daedalus */
+	private final static int CROWD = 2 * DaedalusSimulation.PARALLEL_THRESHOLD;
+
+	/**
+	 * Test case for a predator and a prey landing on the same tile.
+	 */
+
+	@Test
+	public void testCollisionInPlace() {
+		DaedalusSimulation simulation = createSimulation(
+				new Vector2D(3, 1), Direction.LEFT, new Vector2D(1, 1), Direction.RIGHT);
+		simulation.move(null);
+
+		assertTrue("Prey should be caught on the same tile", simulation.isOver());
+		assertTrue(simulation.getArrivalTimes().containsKey(1));
+	}
+
+	/**
+	 * Test case for a predator and a prey running into each other.
+	 */
+
+	@Test
+	public void testCollisionInBetween() {
+		DaedalusSimulation simulation = createSimulation(
+				new Vector2D(3, 1), Direction.LEFT, new Vector2D(2, 1), Direction.RIGHT);
+		simulation.move(null);
+
+		assertTrue("Prey should be caught between two tiles", simulation.isOver());
+	}
+
+	/**
+	 * Test case for a predator and a prey that do not meet.
+	 */
+
+	@Test
+	public void testNoCollision() {
+		DaedalusSimulation simulation = createSimulation(
+				new Vector2D(5, 1), Direction.LEFT, new Vector2D(1, 1), Direction.NONE);
+		simulation.move(null);
+		simulation.move(null);
+
+		assertFalse("Prey should not be caught yet", simulation.isOver());
+		simulation.move(null);
+		simulation.move(null);
+		assertTrue("Prey should be caught after four steps", simulation.isOver());
+		assertTrue(simulation.getArrivalTimes().containsKey(4));
+	}
+
+	/**
+	 * Test case for {@code advance(int)} and {@code runUntilDone(int)}.
+	 */
+
+	@Test
+	public void testAdvance() {
+		DaedalusSimulation simulation = createSimulation(
+				new Vector2D(5, 1), Direction.LEFT, new Vector2D(1, 1), Direction.NONE);
+
+		RunSummary summary = simulation.advance(2);
+		assertEquals(2, summary.getSteps());
+		assertEquals(0, summary.getFinished());
+		assertFalse(summary.isOver());
+
+		summary = simulation.runUntilDone(Integer.MAX_VALUE);
+		assertEquals("Prey should be caught after two more steps", 2, summary.getSteps());
+		assertEquals(4, summary.getTotalSteps());
+		assertEquals(1, summary.getFinished());
+		assertEquals(0, summary.getRemaining());
+		assertTrue(summary.isOver());
+		assertTrue(simulation.getArrivalTimes().containsKey(4));
+	}
+
+	/**
+	 * Test case for a prey surviving over the step counter limit.
+	 */
+
+	@Test
+	public void testAdvanceOverLimit() {
+		DaedalusSimulation simulation = createSimulation(
+				new Vector2D(5, 1), Direction.NONE, new Vector2D(1, 1), Direction.NONE);
+
+		RunSummary summary = simulation.runUntilDone(Integer.MAX_VALUE);
+		assertEquals(DaedalusSimulation.COUNTER_LIMIT + 1, summary.getSteps());
+		assertTrue(summary.isOver());
+		assertTrue(simulation.getArrivalTimes().containsKey(Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Test case for {@code fork()}.
+	 */
+
+	@Test
+	public void testFork() {
+		DaedalusSimulation simulation = createSimulation(
+				new Vector2D(5, 1), Direction.LEFT, new Vector2D(1, 1), Direction.NONE);
+		simulation.advance(2);
+
+		// the fork goes on from the current step
+		Simulation fork = simulation.fork();
+		assertEquals(2, fork.getSteps());
+		assertEquals(2, fork.runUntilDone(Integer.MAX_VALUE).getSteps());
+		assertTrue(fork.getArrivalTimes().containsKey(4));
+		assertFalse("Fork should not change the simulation", simulation.isOver());
+
+		simulation.runUntilDone(Integer.MAX_VALUE);
+		assertEquals(fork.getSteps(), simulation.getSteps());
+
+		// restarting the fork goes back to the initial state
+		fork.restart();
+		assertEquals(0, fork.getSteps());
+		assertEquals(4, fork.runUntilDone(Integer.MAX_VALUE).getSteps());
+	}
+
+	/**
+	 * Test case for the parallel decisions, which must give the same results
+	 * as the serial ones.
+	 */
+
+	@Test
+	public void testParallelDecisions() {
+		DaedalusSimulation parallel = createCrowd(2014);
+		DaedalusSimulation serial = createCrowd(2014);
+		serial.setParallelThreshold(Integer.MAX_VALUE);
+
+		for (int step = 0; step < 300 && !serial.isOver(); step++) {
+			parallel.move(null);
+			serial.move(null);
+			assertEquals(serial.getSteps(), parallel.getSteps());
+
+			List<Animal> expected = serial.getWorld().getAnimals();
+			List<Animal> animals = parallel.getWorld().getAnimals();
+			assertEquals(expected.size(), animals.size());
+			for (int i = 0; i < animals.size(); i++) {
+				assertEquals("Animal " + i + " should be at the same position after step " + step,
+						expected.get(i).getPosition(), animals.get(i).getPosition());
+			}
+		}
+
+		// the same preys are caught at the same steps
+		Map<Integer, List<Animal>> serialTimes = serial.getArrivalTimes();
+		Map<Integer, List<Animal>> parallelTimes = parallel.getArrivalTimes();
+		assertFalse("Some preys should be caught", serialTimes.isEmpty());
+		assertEquals(serialTimes.keySet(), parallelTimes.keySet());
+		for (Map.Entry<Integer, List<Animal>> entry : serialTimes.entrySet()) {
+			List<Animal> caught = parallelTimes.get(entry.getKey());
+			assertEquals(entry.getValue().size(), caught.size());
+			for (int i = 0; i < caught.size(); i++) {
+				assertSame(entry.getValue().get(i).getClass(), caught.get(i).getClass());
+			}
+		}
+	}
+
+	/**
+	 * Creates a seeded simulation of a braid labyrinth crowded with ghosts,
+	 * random predators and random preys.
+	 * 
+	 * @param seed
+	 *            Seed of the labyrinth, of the positions and of the
+	 *            simulation
+	 * @return The simulation
+	 */
+
+	private DaedalusSimulation createCrowd(long seed) {
+		Daedalus daedalus = new Daedalus(MazeGenerator.braid(61, 61, 1.0, seed));
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = 0; i < CROWD; i++) {
+			Vector2D position = randomFreeTile(daedalus, random);
+			switch (i % 5) {
+			case 0:
+				daedalus.addPredator(new Blinky(position));
+				break;
+
+			case 1:
+				daedalus.addPredator(new Pinky(position));
+				break;
+
+			case 2:
+				daedalus.addPredator(new Inky(position));
+				break;
+
+			case 3:
+				daedalus.addPredator(new Clyde(position));
+				break;
+
+			default:
+				daedalus.addPredator(new RandomPredator(position));
+			}
+			daedalus.addPrey(new RandomPrey(randomFreeTile(daedalus, random)));
+		}
+		return new DaedalusSimulation(daedalus, seed);
+	}
+
+	/**
+	 * Draws a free tile of a daedalus.
+	 * 
+	 * @param daedalus
+	 *            The daedalus
+	 * @param random
+	 *            The random generator
+	 * @return The position of a free tile
+	 */
+
+	private Vector2D randomFreeTile(Daedalus daedalus, SplittableRandom random) {
+		while (true) {
+			int x = random.nextInt(daedalus.getWidth());
+			int y = random.nextInt(daedalus.getHeight());
+			if (daedalus.isFree(x, y)) {
+				return new Vector2D(x, y);
+			}
+		}
+	}
+
+	/**
+	 * Creates a simulation with one predator and one prey, each always
+	 * choosing the same direction.
+	 * 
+	 * @param predator
+	 *            Position of the predator
+	 * @param predatorDir
+	 *            Direction always chosen by the predator
+	 * @param prey
+	 *            Position of the prey
+	 * @param preyDir
+	 *            Direction always chosen by the prey
+	 * @return The simulation
+	 */
+
+	private DaedalusSimulation createSimulation(Vector2D predator, Direction predatorDir,
+			Vector2D prey, Direction preyDir) {
+		Daedalus daedalus = new Daedalus(LABYRINTH);
+		daedalus.addPredator(new StraightPredator(predator, predatorDir));
+		daedalus.addPrey(new StraightPrey(prey, preyDir));
+		return new DaedalusSimulation(daedalus);
+	}
+
+	/**
+	 * Mock predator that always chooses the same direction.
+	 * 
+	 */
+
+	private class StraightPredator extends Predator {
+
+		private final Direction mDirection;
+
+		public StraightPredator(Vector2D position, Direction dir) {
+			super(position);
+			mDirection = dir;
+		}
+
+		@Override
+		public Direction move(Direction[] choices, Daedalus daedalus) {
+			return mDirection;
+		}
+
+		@Override
+		public Animal copy() {
+			return new StraightPredator(getPosition(), mDirection);
+		}
+	}
+
+	/**
+	 * Mock predator that walks randomly.
+	 * 
+	 */
+
+	private class RandomPredator extends Predator {
+
+		public RandomPredator(Vector2D position) {
+			super(position);
+		}
+
+		@Override
+		public Direction move(Direction[] choices, Daedalus daedalus) {
+			return move(choices);
+		}
+
+		@Override
+		public Animal copy() {
+			return new RandomPredator(getPosition());
+		}
+	}
+
+	/**
+	 * Mock prey that walks randomly.
+	 * 
+	 */
+
+	private class RandomPrey extends Prey {
+
+		public RandomPrey(Vector2D position) {
+			super(position);
+		}
+
+		@Override
+		public Direction move(Direction[] choices, Daedalus daedalus) {
+			return move(choices);
+		}
+
+		@Override
+		public Animal copy() {
+			return new RandomPrey(getPosition());
+		}
+	}
+
+	/**
+	 * Mock prey that always chooses the same direction.
+	 * 
+	 */
+
+	private class StraightPrey extends Prey {
+
+		private final Direction mDirection;
+
+		public StraightPrey(Vector2D position, Direction dir) {
+			super(position);
+			mDirection = dir;
+		}
+
+		@Override
+		public Direction move(Direction[] choices, Daedalus daedalus) {
+			return mDirection;
+		}
+
+		@Override
+		public Animal copy() {
+			return new StraightPrey(getPosition(), mDirection);
+		}
+	}
+}
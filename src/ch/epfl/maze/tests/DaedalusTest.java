@@ -120,4 +120,29 @@ public class DaedalusTest extends TestCase {
 		assertTrue("Animals in Daedalus should be not null", retrievedPred != null);
 		assertTrue("Animals in Daedalus should be not null", retrievedPrey != null);
 	}
+
+	/**
+	 * Test case for the indexed accessors to the animals.
+	 */
+
+	@Test
+	public void testIndexedAnimals() {
+		Daedalus daedalus = new Daedalus(LABYRINTH);
+		Predator pred = new Blinky(new Vector2D(3, 1));
+		Prey first = new PacMan(new Vector2D(1, 1));
+		Prey second = new PacMan(new Vector2D(2, 1));
+		daedalus.addPredator(pred);
+		daedalus.addPrey(first);
+		daedalus.addPrey(second);
+
+		assertEquals(1, daedalus.getPredatorCount());
+		assertEquals(2, daedalus.getPreyCount());
+		assertSame(pred, daedalus.getPredator(0));
+		assertSame(second, daedalus.getPrey(1));
+
+		// removing a slot shifts the following preys
+		assertSame(first, daedalus.removePreyAt(0));
+		assertEquals(1, daedalus.getPreyCount());
+		assertSame(second, daedalus.getPrey(0));
+	}
 }
@@ -0,0 +1,83 @@
+package ch.epfl.maze.tests;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.util.Distribution;
+
+/**
+ * Test case for {@code Distribution} implementation.
+ * 
+ */
+
+public class DistributionTest extends TestCase {
+
+	/**
+	 * Test case for the moments and the quantiles of small values, which are
+	 * counted exactly.
+	 */
+
+	@Test
+	public void testSmallValues() {
+		Distribution distribution = new Distribution();
+		int[] values = { 7, 3, 9, 1, 5 };
+		for (int value : values) {
+			distribution.add(value);
+		}
+
+		assertEquals(5, distribution.count());
+		assertEquals(5.0, distribution.mean(), 1e-9);
+		assertEquals(8.0, distribution.var(), 1e-9);
+		assertEquals(1, distribution.min());
+		assertEquals(9, distribution.max());
+		assertEquals(5, distribution.median());
+		assertEquals(3, distribution.quantile(0.4));
+	}
+
+	/**
+	 * Test case for {@code merge(Distribution other)}.
+	 */
+
+	@Test
+	public void testMerge() {
+		Distribution all = new Distribution();
+		Distribution even = new Distribution();
+		Distribution odd = new Distribution();
+		for (int i = 0; i < 10000; i++) {
+			int value = (i * 7919) % 5000;
+			all.add(value);
+			if (i % 2 == 0) {
+				even.add(value);
+			} else {
+				odd.add(value);
+			}
+		}
+		even.merge(odd);
+
+		// checks that merging gives the same result as a single distribution
+		assertEquals(all.count(), even.count());
+		assertEquals(all.mean(), even.mean(), 1e-6);
+		assertEquals(all.var(), even.var(), 1e-3);
+		assertEquals(all.median(), even.median());
+		assertEquals(all.max(), even.max());
+	}
+
+	/**
+	 * Test case for infinite values.
+	 */
+
+	@Test
+	public void testInfinite() {
+		Distribution distribution = new Distribution();
+		distribution.add(10);
+		distribution.add(Integer.MAX_VALUE);
+
+		assertEquals(2, distribution.count());
+		assertEquals(1, distribution.infiniteCount());
+		assertEquals(Integer.MAX_VALUE, distribution.max());
+		assertEquals(10, distribution.finiteMax());
+		assertEquals(10, distribution.quantile(0.5));
+		assertEquals(Integer.MAX_VALUE, distribution.quantile(1));
+	}
+}
@@ -0,0 +1,197 @@
+package ch.epfl.maze.tests;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.physical.Daedalus;
+import ch.epfl.maze.physical.GhostPredator;
+import ch.epfl.maze.physical.Prey;
+import ch.epfl.maze.physical.pacman.Blinky;
+import ch.epfl.maze.physical.pacman.Clyde;
+import ch.epfl.maze.physical.pacman.Inky;
+import ch.epfl.maze.physical.pacman.PacMan;
+import ch.epfl.maze.physical.pacman.Pinky;
+import ch.epfl.maze.util.Direction;
+import ch.epfl.maze.util.Vector2D;
+
+/**
+ * Test case for the directions chosen by the ghosts, without any display.
+ * <p>
+ * The ghosts start in the dead end at (1, 2) and reach the junction at
+ * (2, 2). From there, going up leads around to the dead end at (6, 4), while
+ * going down leads to the dead end at (4, 4). The tile (6, 4) is closer to
+ * the bottom branch as the crow flies, but can only be reached from the top.
+ * 
+ */
+
+public class GhostPredatorTest extends TestCase {
+
+	private final static int[][] LABYRINTH = {
+		{ 1, 1, 1, 1, 1, 1, 1, 1 },
+		{ 1, 1, 0, 0, 0, 0, 0, 1 },
+		{ 1, 0, 0, 1, 1, 1, 0, 1 },
+		{ 1, 1, 0, 1, 1, 1, 0, 1 },
+		{ 1, 1, 0, 0, 0, 1, 0, 1 },
+		{ 1, 1, 1, 1, 1, 1, 1, 1 }
+	};
+
+	/* starting position of the ghosts, and junction */
+	private final static Vector2D HOME = new Vector2D(1, 2);
+	private final static Vector2D JUNCTION = new Vector2D(2, 2);
+
+	/**
+	 * Test case for Blinky, which follows the shortest path to the prey
+	 * instead of the closest branch.
+	 */
+
+	@Test
+	public void testBlinky() {
+		Daedalus daedalus = new Daedalus(LABYRINTH);
+		GhostPredator blinky = new Blinky(HOME);
+		daedalus.addPredator(blinky);
+		assertEquals(Direction.UP, moveToJunction(daedalus, blinky, new Vector2D(6, 3),
+				Direction.DOWN));
+
+		// while the prey at (4, 4) is reached from the bottom
+		daedalus = new Daedalus(LABYRINTH);
+		blinky = new Blinky(HOME);
+		daedalus.addPredator(blinky);
+		assertEquals(Direction.DOWN, moveToJunction(daedalus, blinky, new Vector2D(3, 4),
+				Direction.RIGHT));
+	}
+
+	/**
+	 * Test case for Pinky, which targets 4 squares in front of the prey.
+	 */
+
+	@Test
+	public void testPinky() {
+		// the target (8, 4) lies outside, and is moved to (6, 4)
+		Daedalus daedalus = new Daedalus(LABYRINTH);
+		GhostPredator pinky = new Pinky(HOME);
+		daedalus.addPredator(pinky);
+		assertEquals(Direction.UP, moveToJunction(daedalus, pinky, new Vector2D(3, 4),
+				Direction.RIGHT));
+
+		// whatever fields were computed by other animals
+		daedalus = new Daedalus(LABYRINTH);
+		pinky = new Pinky(HOME);
+		daedalus.addPredator(pinky);
+		daedalus.getDistanceField(new Vector2D(8, 4));
+		daedalus.getDistanceField(new Vector2D(3, 4));
+		assertEquals(Direction.UP, moveToJunction(daedalus, pinky, new Vector2D(3, 4),
+				Direction.RIGHT));
+	}
+
+	/**
+	 * Test case for Inky, which doubles the vector from Blinky to 2 squares in
+	 * front of the prey.
+	 */
+
+	@Test
+	public void testInky() {
+		// without Blinky, chases the prey directly
+		Daedalus daedalus = new Daedalus(LABYRINTH);
+		GhostPredator inky = new Inky(HOME);
+		daedalus.addPredator(inky);
+		assertEquals(Direction.DOWN, moveToJunction(daedalus, inky, new Vector2D(3, 4),
+				Direction.RIGHT));
+
+		// with Blinky at (6, 2), the target (6, 6) is moved to (6, 4)
+		daedalus = new Daedalus(LABYRINTH);
+		inky = new Inky(HOME);
+		daedalus.addPredator(new Blinky(new Vector2D(6, 2)));
+		daedalus.addPredator(inky);
+		assertEquals(Direction.UP, moveToJunction(daedalus, inky, new Vector2D(3, 4),
+				Direction.RIGHT));
+	}
+
+	/**
+	 * Test case for Clyde, which chases the prey when far from it and goes
+	 * back home when close.
+	 */
+
+	@Test
+	public void testClyde() {
+		Vector2D home = new Vector2D(3, 4);
+
+		// far from the prey, chases it
+		Daedalus daedalus = new Daedalus(LABYRINTH);
+		GhostPredator clyde = new Clyde(home);
+		clyde.setPosition(JUNCTION);
+		daedalus.addPredator(clyde);
+		daedalus.addPrey(new PacMan(new Vector2D(6, 4)));
+		assertEquals(Direction.UP, move(daedalus, clyde));
+
+		// close to the prey, goes back home
+		daedalus = new Daedalus(LABYRINTH);
+		clyde = new Clyde(home);
+		clyde.setPosition(JUNCTION);
+		daedalus.addPredator(clyde);
+		daedalus.addPrey(new PacMan(new Vector2D(4, 1)));
+		assertEquals(Direction.DOWN, move(daedalus, clyde));
+	}
+
+	/**
+	 * Test case for the scatter mode, in which a ghost goes back home.
+	 */
+
+	@Test
+	public void testScatter() {
+		Daedalus daedalus = new Daedalus(LABYRINTH);
+		GhostPredator blinky = new Blinky(new Vector2D(3, 4));
+		blinky.setPosition(HOME);
+		daedalus.addPredator(blinky);
+		daedalus.addPrey(new PacMan(new Vector2D(6, 4)));
+
+		// chases from the dead end, where it can only go right
+		for (int i = 0; i < GhostPredator.CHASE_DURATION; i++) {
+			assertEquals(Direction.RIGHT, move(daedalus, blinky));
+		}
+
+		// then scatters, away from the prey
+		blinky.setPosition(JUNCTION);
+		assertEquals(Direction.DOWN, move(daedalus, blinky));
+	}
+
+	/**
+	 * Moves a ghost from its home to the junction while a prey makes one
+	 * step, then returns the direction chosen at the junction.
+	 * 
+	 * @param daedalus
+	 *            The daedalus containing the ghost
+	 * @param ghost
+	 *            The ghost, at its home
+	 * @param start
+	 *            Starting position of the prey
+	 * @param step
+	 *            Direction taken by the prey
+	 * @return The direction chosen by the ghost at the junction
+	 */
+
+	private Direction moveToJunction(Daedalus daedalus, GhostPredator ghost, Vector2D start,
+			Direction step) {
+		Prey prey = new PacMan(start);
+		daedalus.addPrey(prey);
+
+		assertEquals(Direction.RIGHT, move(daedalus, ghost));
+		ghost.update(Direction.RIGHT);
+		prey.update(step);
+		return move(daedalus, ghost);
+	}
+
+	/**
+	 * Asks a ghost for its next direction.
+	 * 
+	 * @param daedalus
+	 *            The daedalus containing the ghost
+	 * @param ghost
+	 *            The ghost
+	 * @return The direction chosen by the ghost
+	 */
+
+	private Direction move(Daedalus daedalus, GhostPredator ghost) {
+		return ghost.move(daedalus.getChoices(ghost.getPosition()), daedalus);
+	}
+}
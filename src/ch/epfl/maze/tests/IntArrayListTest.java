@@ -0,0 +1,66 @@
+package ch.epfl.maze.tests;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.util.IntArrayList;
+
+/**
+ * Test case for {@code IntArrayList} implementation.
+ * 
+ */
+
+public class IntArrayListTest extends TestCase {
+
+	/**
+	 * Test case for {@code add(int value)} and {@code get(int index)}.
+	 */
+
+	@Test
+	public void testAdd() {
+		IntArrayList list = new IntArrayList(1);
+
+		// adds more values than the initial capacity
+		for (int i = 0; i < 100; i++) {
+			list.add(100 - i);
+		}
+
+		assertEquals(100, list.size());
+		assertEquals(100, list.get(0));
+		assertEquals(1, list.get(99));
+
+		// appends another list
+		IntArrayList other = new IntArrayList();
+		other.add(0);
+		list.addAll(other);
+		assertEquals(101, list.size());
+		assertEquals(0, list.get(100));
+	}
+
+	/**
+	 * Test case for the order statistics.
+	 */
+
+	@Test
+	public void testOrderStatistics() {
+		IntArrayList list = new IntArrayList();
+		int[] values = { 7, 3, 9, 1, 5 };
+		for (int value : values) {
+			list.add(value);
+		}
+
+		// checks that the list gets sorted
+		assertEquals(1, list.min());
+		assertEquals(9, list.max());
+		assertEquals(5, list.median());
+		assertEquals(1, list.get(0));
+		assertEquals(9, list.get(4));
+
+		// checks percentiles with the nearest-rank method
+		assertEquals(1, list.percentile(0));
+		assertEquals(3, list.percentile(0.4));
+		assertEquals(9, list.percentile(0.9));
+		assertEquals(9, list.percentile(1));
+	}
+}
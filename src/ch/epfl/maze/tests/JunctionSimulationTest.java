@@ -0,0 +1,171 @@
+package ch.epfl.maze.tests;
+
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.JunctionGraph;
+import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.physical.zoo.Monkey;
+import ch.epfl.maze.simulation.JunctionSimulation;
+import ch.epfl.maze.simulation.MazeSimulation;
+import ch.epfl.maze.simulation.RunSummary;
+import ch.epfl.maze.simulation.Simulation;
+import ch.epfl.maze.util.Direction;
+import ch.epfl.maze.util.Labyrinth;
+import ch.epfl.maze.util.MazeGenerator;
+import ch.epfl.maze.util.Vector2D;
+
+/**
+ * Test case for {@code JunctionGraph} and {@code JunctionSimulation}
+ * implementations.
+ * 
+ */
+
+public class JunctionSimulationTest extends TestCase {
+
+	private final static int[][] LABYRINTH = {
+		{ 1, 2, 1, 1, 1, 1, 1 },
+		{ 1, 0, 0, 0, 1, 1, 1 },
+		{ 1, 1, 1, 0, 0, 0, 1 },
+		{ 1, 0, 0, 0, 1, 0, 1 },
+		{ 1, 1, 1, 1, 1, 3, 1 }
+	};
+
+	/**
+	 * Test case for the nodes and edges of {@code JunctionGraph}.
+	 */
+
+	@Test
+	public void testGraph() {
+		Maze maze = new Maze(LABYRINTH);
+		JunctionGraph graph = new JunctionGraph(maze);
+
+		// start, exit, one dead end and one intersection
+		assertEquals(4, graph.getNodeCount());
+		int start = graph.nodeOf(maze.indexOf(1, 0));
+		int junction = graph.nodeOf(maze.indexOf(3, 2));
+		int deadEnd = graph.nodeOf(maze.indexOf(1, 3));
+		int exit = graph.nodeOf(maze.indexOf(5, 4));
+		assertTrue(start >= 0 && junction >= 0 && deadEnd >= 0 && exit >= 0);
+		assertEquals(-1, graph.nodeOf(maze.indexOf(2, 1)));
+		assertEquals(maze.indexOf(3, 2), graph.tileOf(junction));
+
+		// corridor from the start to the intersection
+		assertEquals(junction, graph.getTarget(start, Direction.DOWN));
+		assertEquals(4, graph.getLength(start, Direction.DOWN));
+		Direction[] corridor = { Direction.DOWN, Direction.RIGHT, Direction.RIGHT, Direction.DOWN };
+		for (int step = 0; step < corridor.length; step++) {
+			assertEquals(corridor[step], graph.getDirection(start, Direction.DOWN, step));
+		}
+		assertEquals(start, graph.getTarget(junction, Direction.UP));
+		assertEquals(Direction.UP, graph.getLastDirection(junction, Direction.UP));
+
+		// other corridors of the intersection
+		assertEquals(deadEnd, graph.getTarget(junction, Direction.DOWN));
+		assertEquals(3, graph.getLength(junction, Direction.DOWN));
+		assertEquals(exit, graph.getTarget(junction, Direction.RIGHT));
+		assertEquals(4, graph.getLength(junction, Direction.RIGHT));
+		assertEquals(-1, graph.getTarget(junction, Direction.LEFT));
+		assertEquals(0, graph.getLength(junction, Direction.LEFT));
+		assertEquals(-1, graph.getTarget(junction, Direction.NONE));
+	}
+
+	/**
+	 * Test case for the equivalence of {@code JunctionSimulation} and
+	 * {@code MazeSimulation}.
+	 */
+
+	@Test
+	public void testEquivalence() {
+		Labyrinth[] labyrinths = {
+				new Labyrinth(LABYRINTH),
+				MazeGenerator.recursiveBacktracker(41, 31, 1),
+				MazeGenerator.braid(41, 31, 0.5, 2),
+				MazeGenerator.kruskal(201, 201, 3)
+		};
+		for (Labyrinth labyrinth : labyrinths) {
+			Maze maze = createMaze(labyrinth);
+			MazeSimulation expected = new MazeSimulation(maze.copy());
+			JunctionSimulation actual = new JunctionSimulation(maze.copy());
+			while (!expected.isOver()) {
+				expected.move(null);
+			}
+			RunSummary summary = actual.runUntilDone(Integer.MAX_VALUE);
+
+			assertTrue(summary.isOver());
+			assertEquals(expected.getSteps(), actual.getSteps());
+			assertArrivals(expected, actual);
+
+			// step by step, and after a restart
+			actual.restart();
+			while (!actual.isOver()) {
+				actual.move(null);
+			}
+			assertEquals(expected.getSteps(), actual.getSteps());
+			assertArrivals(expected, actual);
+		}
+	}
+
+	/**
+	 * Test case for {@code advance(int)} stopping inside a corridor.
+	 */
+
+	@Test
+	public void testAdvance() {
+		Maze maze = createMaze(new Labyrinth(LABYRINTH));
+		JunctionSimulation simulation = new JunctionSimulation(maze);
+
+		RunSummary summary = simulation.advance(2);
+		assertEquals(2, summary.getTotalSteps());
+		assertEquals(0, summary.getFinished());
+		assertFalse(simulation.isOver());
+
+		summary = simulation.advance(100);
+		assertTrue(summary.isOver());
+		assertEquals(simulation.getSteps(), summary.getTotalSteps());
+		assertTrue(simulation.getArrivalTimes().containsKey(simulation.getSteps()));
+
+		Simulation copy = simulation.copy();
+		assertFalse(copy.isOver());
+		assertEquals(simulation.getSteps(), copy.runUntilDone(Integer.MAX_VALUE).getTotalSteps());
+	}
+
+	/**
+	 * Creates a maze with a few monkeys at its start.
+	 * 
+	 * @param labyrinth
+	 *            The labyrinth of the maze
+	 * @return A maze ready to be simulated
+	 */
+
+	private Maze createMaze(Labyrinth labyrinth) {
+		Maze maze = new Maze(labyrinth);
+		for (int i = 0; i < 3; i++) {
+			maze.addAnimal(new Monkey(new Vector2D(0, 0)));
+		}
+		return maze;
+	}
+
+	/**
+	 * Checks that two simulations recorded the same arrivals.
+	 * 
+	 * @param expected
+	 *            The reference simulation
+	 * @param actual
+	 *            The simulation to check
+	 */
+
+	private void assertArrivals(Simulation expected, Simulation actual) {
+		Map<Integer, List<Animal>> expectedTimes = expected.getArrivalTimes();
+		Map<Integer, List<Animal>> actualTimes = actual.getArrivalTimes();
+		assertEquals(expectedTimes.keySet(), actualTimes.keySet());
+		for (Integer time : expectedTimes.keySet()) {
+			assertEquals(expectedTimes.get(time).size(), actualTimes.get(time).size());
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package ch.epfl.maze.tests;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.util.Labyrinth;
+import ch.epfl.maze.util.LabyrinthFile;
+import ch.epfl.maze.util.LabyrinthGenerator;
+
+/**
+ * Test case for {@code LabyrinthFile} implementation.
+ * 
+ */
+
+public class LabyrinthFileTest extends TestCase {
+
+	/**
+	 * Test case for {@code write(Labyrinth, String)} and
+	 * {@code read(String)}.
+	 */
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		File file = File.createTempFile("labyrinth", ".maze");
+		try {
+			// the Pac-Man level contains NOTHING tiles and no start
+			int[][][] labyrinths = {
+					LabyrinthGenerator.getSmall(),
+					LabyrinthGenerator.getPacMan()
+			};
+			for (int[][] labyrinth : labyrinths) {
+				LabyrinthFile.write(new Labyrinth(labyrinth), file.getPath());
+				Labyrinth read = LabyrinthFile.read(file.getPath());
+				assertTrue("Labyrinth should be read as written",
+						Arrays.deepEquals(labyrinth, read.toArray()));
+			}
+
+			// builds a maze directly from the file
+			Maze maze = new Maze(LabyrinthFile.read(file.getPath()));
+			assertEquals(null, maze.getStart());
+			assertEquals(19, maze.getWidth());
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Test case for the start and the exit, which are read from the header.
+	 */
+
+	@Test
+	public void testStartAndExit() throws IOException {
+		File file = File.createTempFile("labyrinth", ".maze");
+		try {
+			Labyrinth small = new Labyrinth(LabyrinthGenerator.getSmall());
+			LabyrinthFile.write(small, file.getPath());
+			Labyrinth read = LabyrinthFile.read(file.getPath());
+			assertEquals(small.getStart(), read.getStart());
+			assertEquals(small.getExit(), read.getExit());
+
+			// the world takes them from the labyrinth
+			Maze maze = new Maze(read);
+			assertEquals(small.getStart(), maze.getStart());
+			assertEquals(small.getExit(), maze.getExit());
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Test case for reading a file which is not a labyrinth.
+	 */
+
+	@Test
+	public void testInvalidFile() throws IOException {
+		File file = File.createTempFile("labyrinth", ".maze");
+		FileOutputStream output = new FileOutputStream(file);
+		try {
+			output.write(new byte[40]);
+		} finally {
+			output.close();
+		}
+
+		try {
+			LabyrinthFile.read(file.getPath());
+			fail("Reading an invalid file should throw an IOException");
+		} catch (IOException e) {
+			// expected
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package ch.epfl.maze.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.util.Labyrinth;
+import ch.epfl.maze.util.LabyrinthParser;
+
+/**
+ * Test case for {@code LabyrinthParser} implementation.
+ * 
+ */
+
+public class LabyrinthParserTest extends TestCase {
+
+	/**
+	 * Test case for parsing valid labyrinths.
+	 */
+
+	@Test
+	public void testParse() throws IOException {
+		String text = "To load this labyrinth, write :\n\n"
+				+ "{ 1, 2, 1 },\r\n"
+				+ "{ 1, 0, -1 },\r\n"
+				+ "{ 1, 3, 1 }\r\n";
+		int[][] expected = {
+				{ 1, 2, 1 },
+				{ 1, 0, -1 },
+				{ 1, 3, 1 }
+		};
+
+		Labyrinth fromBuffer = LabyrinthParser.parse(ByteBuffer.wrap(text.getBytes()));
+		assertTrue("Labyrinth should be parsed from a buffer",
+				Arrays.deepEquals(expected, fromBuffer.toArray()));
+
+		Labyrinth fromStream = LabyrinthParser.parse(new ByteArrayInputStream(text.getBytes()));
+		assertTrue("Labyrinth should be parsed from a stream",
+				Arrays.deepEquals(expected, fromStream.toArray()));
+	}
+
+	/**
+	 * Test case for the errors reported while parsing.
+	 */
+
+	@Test
+	public void testErrors() {
+		assertError("1 1 1\n1 1\n", "Line 2");
+		assertError("1 1\n1 1 1\n", "Line 2, column 5");
+		assertError("1 2\n2 1\n", "second start");
+		assertError("3 1\n1 3\n", "second exit");
+		assertError("1 5 1\n", "Line 1, column 3");
+	}
+
+	/**
+	 * Asserts that parsing a text fails with a message containing a given
+	 * string.
+	 * 
+	 * @param text
+	 *            The text to parse
+	 * @param expected
+	 *            Part of the expected error message
+	 */
+
+	private void assertError(String text, String expected) {
+		try {
+			LabyrinthParser.parse(ByteBuffer.wrap(text.getBytes()));
+			fail("Parsing \"" + text + "\" should fail");
+		} catch (IllegalArgumentException e) {
+			assertTrue("Unexpected message : " + e.getMessage(),
+					e.getMessage().contains(expected));
+		}
+	}
+}
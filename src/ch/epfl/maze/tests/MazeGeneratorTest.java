@@ -0,0 +1,176 @@
+package ch.epfl.maze.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.physical.World;
+import ch.epfl.maze.util.Labyrinth;
+import ch.epfl.maze.util.LabyrinthFile;
+import ch.epfl.maze.util.MazeGenerator;
+
+/**
+ * Test case for {@code MazeGenerator} implementation.
+ * 
+ */
+
+public class MazeGeneratorTest extends TestCase {
+
+	/**
+	 * Test case for the perfect labyrinth generators.
+	 */
+
+	@Test
+	public void testPerfect() {
+		int[][] sizes = { { 3, 3 }, { 5, 3 }, { 3, 9 }, { 41, 31 } };
+		for (int[] size : sizes) {
+			int width = size[0];
+			int height = size[1];
+			assertPerfect(MazeGenerator.recursiveBacktracker(width, height, 1));
+			assertPerfect(MazeGenerator.kruskal(width, height, 2));
+			assertPerfect(MazeGenerator.wilson(width, height, 3));
+			assertPerfect(MazeGenerator.eller(width, height, 4));
+		}
+	}
+
+	/**
+	 * Test case for {@code braid(int, int, double, long)}.
+	 */
+
+	@Test
+	public void testBraid() {
+		Labyrinth labyrinth = MazeGenerator.braid(41, 31, 1.0, 5);
+		int cells = (41 / 2) * (31 / 2);
+		assertEquals("Every free tile should be reachable",
+				countFree(labyrinth), countReachable(labyrinth));
+		assertTrue("Braid labyrinth should have loops",
+				countPassages(labyrinth) > cells - 1);
+	}
+
+	/**
+	 * Test case for the reproducibility of the generators.
+	 */
+
+	@Test
+	public void testSeed() {
+		assertTrue(Arrays.deepEquals(MazeGenerator.kruskal(21, 21, 42).toArray(),
+				MazeGenerator.kruskal(21, 21, 42).toArray()));
+		assertFalse(Arrays.deepEquals(MazeGenerator.kruskal(21, 21, 42).toArray(),
+				MazeGenerator.kruskal(21, 21, 43).toArray()));
+	}
+
+	/**
+	 * Test case for {@code writeEller(int, int, long, String)}.
+	 */
+
+	@Test
+	public void testWriteEller() throws IOException {
+		File file = File.createTempFile("labyrinth", ".maze");
+		try {
+			MazeGenerator.writeEller(23, 17, 7, file.getPath());
+			Labyrinth read = LabyrinthFile.read(file.getPath());
+			assertTrue("Streamed labyrinth should be the one generated in memory",
+					Arrays.deepEquals(MazeGenerator.eller(23, 17, 7).toArray(), read.toArray()));
+		} finally {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Asserts that a labyrinth is perfect : every free tile is reachable from
+	 * the start, and there is exactly one path between two cells.
+	 * 
+	 * @param labyrinth
+	 *            The labyrinth to check
+	 */
+
+	private void assertPerfect(Labyrinth labyrinth) {
+		int width = labyrinth.getWidth();
+		int height = labyrinth.getHeight();
+		assertEquals(World.START, labyrinth.getTile(1, 0));
+		assertEquals(World.EXIT, labyrinth.getTile(width - 2, height - 1));
+		assertEquals("Every free tile should be reachable",
+				countFree(labyrinth), countReachable(labyrinth));
+		assertEquals("A perfect labyrinth is a tree",
+				(width / 2) * (height / 2) - 1, countPassages(labyrinth));
+	}
+
+	/**
+	 * Counts the free tiles of a labyrinth.
+	 * 
+	 * @param labyrinth
+	 *            The labyrinth
+	 * @return The number of tiles which are not walls
+	 */
+
+	private int countFree(Labyrinth labyrinth) {
+		int free = 0;
+		for (int y = 0; y < labyrinth.getHeight(); y++) {
+			for (int x = 0; x < labyrinth.getWidth(); x++) {
+				if (labyrinth.getTile(x, y) != World.WALL) {
+					free++;
+				}
+			}
+		}
+		return free;
+	}
+
+	/**
+	 * Counts the open walls between two cells of a labyrinth.
+	 * 
+	 * @param labyrinth
+	 *            The labyrinth
+	 * @return The number of passages
+	 */
+
+	private int countPassages(Labyrinth labyrinth) {
+		int passages = 0;
+		for (int y = 1; y < labyrinth.getHeight() - 1; y++) {
+			for (int x = 1; x < labyrinth.getWidth() - 1; x++) {
+				if ((x + y) % 2 == 1 && labyrinth.getTile(x, y) != World.WALL) {
+					passages++;
+				}
+			}
+		}
+		return passages;
+	}
+
+	/**
+	 * Counts the tiles reachable from the start of a labyrinth.
+	 * 
+	 * @param labyrinth
+	 *            The labyrinth
+	 * @return The number of reachable tiles
+	 */
+
+	private int countReachable(Labyrinth labyrinth) {
+		int width = labyrinth.getWidth();
+		int height = labyrinth.getHeight();
+		boolean[] seen = new boolean[width * height];
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		queue.add(1);
+		seen[1] = true;
+
+		int count = 0;
+		int[][] moves = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+		while (!queue.isEmpty()) {
+			int index = queue.poll();
+			count++;
+			for (int[] move : moves) {
+				int x = index % width + move[0];
+				int y = index / width + move[1];
+				if (x >= 0 && x < width && y >= 0 && y < height
+						&& !seen[y * width + x] && labyrinth.getTile(x, y) != World.WALL) {
+					seen[y * width + x] = true;
+					queue.add(y * width + x);
+				}
+			}
+		}
+		return count;
+	}
+}
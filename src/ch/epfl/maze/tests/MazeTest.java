@@ -6,7 +6,10 @@ import org.junit.Test;
 
 import ch.epfl.maze.physical.Animal;
 import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.physical.Snapshot;
+import ch.epfl.maze.physical.World;
 import ch.epfl.maze.physical.zoo.Mouse;
+import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
 
 /**
@@ -88,4 +91,132 @@ public class MazeTest extends TestCase {
 
 		assertTrue("Animal in Maze should be a Mouse", retrieved != null);
 	}
+
+	/**
+	 * Test case for {@code copy()}.
+	 */
+
+	@Test
+	public void testCopy() {
+		Maze maze = new Maze(LABYRINTH);
+
+		// adds dummy animal and removes it
+		Animal dummy = new Mouse(new Vector2D(2, 2));
+		maze.addAnimal(dummy);
+		maze.removeAnimal(dummy);
+
+		// checks that the copy is in the initial state of the maze
+		Maze copy = maze.copy();
+		assertTrue("Copy should contain the Mouse", copy.getAnimals().size() == 1);
+		assertFalse("Mouse in the copy should be a new Mouse",
+				copy.getAnimals().get(0) == dummy);
+		assertEquals(maze.getStart(), copy.getAnimals().get(0).getPosition());
+		assertEquals(maze.getWidth(), copy.getWidth());
+		assertEquals(World.EXIT, copy.getTile(3, 0));
+
+		// checks that the copy is independent from the maze
+		copy.reset();
+		assertTrue("Maze should still be solved", maze.isSolved());
+	}
+
+	/**
+	 * Test case for {@code snapshot()} and {@code restore(Snapshot)}.
+	 */
+
+	@Test
+	public void testSnapshot() {
+		Maze maze = new Maze(LABYRINTH);
+		maze.addAnimal(new Mouse(new Vector2D(2, 2)));
+		maze.getAnimals().get(0).setPosition(new Vector2D(2, 1));
+
+		// takes a snapshot, then changes the maze
+		Snapshot snapshot = maze.snapshot();
+		assertEquals(1, snapshot.getAnimalCount());
+		Animal moved = maze.getAnimals().get(0);
+		moved.setPosition(new Vector2D(3, 1));
+		maze.removeAnimal(moved);
+
+		// restores the snapshot, twice and in a copy
+		maze.restore(snapshot);
+		assertEquals(new Vector2D(2, 1), maze.getAnimals().get(0).getPosition());
+		assertFalse("Restored animal should be a new one", maze.getAnimals().get(0) == moved);
+		maze.getAnimals().get(0).setPosition(new Vector2D(1, 1));
+		maze.restore(snapshot);
+		assertEquals(new Vector2D(2, 1), maze.getAnimals().get(0).getPosition());
+
+		Maze copy = maze.copy();
+		copy.restore(snapshot);
+		assertEquals(new Vector2D(2, 1), copy.getAnimals().get(0).getPosition());
+
+		// reset still goes back to the initial animals
+		maze.reset();
+		assertEquals(maze.getStart(), maze.getAnimals().get(0).getPosition());
+
+		// snapshots only fit the labyrinth they were taken on
+		try {
+			new Maze(LABYRINTH).restore(snapshot);
+			fail("Snapshot of another labyrinth should be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+
+		// restored animals enter the world they are restored in
+		maze = new Maze(LABYRINTH);
+		maze.addAnimal(new Visitor(new Vector2D(2, 2)));
+		snapshot = maze.snapshot();
+		copy = maze.copy();
+		copy.restore(snapshot);
+		assertSame(copy, ((Visitor) copy.getAnimals().get(0)).getWorld());
+		maze.restore(snapshot);
+		assertSame(maze, ((Visitor) maze.getAnimals().get(0)).getWorld());
+	}
+
+	/**
+	 * Animal remembering the last world it entered.
+	 * 
+	 */
+
+	private static final class Visitor extends Animal {
+
+		/* last world entered */
+		private World mWorld;
+
+		/**
+		 * Constructs a visitor with a starting position.
+		 * 
+		 * @param position
+		 *            Starting position of the visitor
+		 */
+
+		public Visitor(Vector2D position) {
+			super(position);
+		}
+
+		@Override
+		public void enter(World world) {
+			mWorld = world;
+		}
+
+		@Override
+		public Direction move(Direction[] choices) {
+			return Direction.NONE;
+		}
+
+		@Override
+		public Animal copy() {
+			Visitor visitor = new Visitor(getPosition());
+			visitor.mWorld = mWorld;
+			return visitor;
+		}
+
+		/**
+		 * Returns the last world entered.
+		 * 
+		 * @return The last world entered
+		 */
+
+		public World getWorld() {
+			return mWorld;
+		}
+	}
 }
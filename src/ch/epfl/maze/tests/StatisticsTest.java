@@ -0,0 +1,139 @@
+package ch.epfl.maze.tests;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.physical.zoo.Hamster;
+import ch.epfl.maze.physical.zoo.Mouse;
+import ch.epfl.maze.physical.zoo.Panda;
+import ch.epfl.maze.simulation.MazeSimulation;
+import ch.epfl.maze.simulation.RunSummary;
+import ch.epfl.maze.simulation.Simulation;
+import ch.epfl.maze.util.IntArrayList;
+import ch.epfl.maze.util.MazeGenerator;
+import ch.epfl.maze.util.Statistics;
+
+/**
+ * Test case for {@code Statistics}, and for the reproducibility of its
+ * batches.
+ * 
+ */
+
+public class StatisticsTest extends TestCase {
+
+	/* number of runs of the batches */
+	private static final int RUNS = 40;
+
+	/**
+	 * Test case for {@code total(IntArrayList)} and {@code mean(IntArrayList)}
+	 * on large and infinite results.
+	 */
+
+	@Test
+	public void testTotal() {
+		// a sum of exactly Integer.MAX_VALUE is not infinite
+		IntArrayList results = new IntArrayList();
+		results.add(Integer.MAX_VALUE - 1);
+		results.add(1);
+		assertEquals(Integer.MAX_VALUE, Statistics.total(results));
+		assertEquals(Integer.MAX_VALUE / 2, Statistics.mean(results));
+
+		// sums over Integer.MAX_VALUE do not overflow
+		results.add(Integer.MAX_VALUE - 1);
+		assertEquals(2L * Integer.MAX_VALUE - 1, Statistics.total(results));
+
+		// a single infinite result makes the total infinite
+		results.add(Integer.MAX_VALUE);
+		assertEquals(Statistics.INFINITE, Statistics.total(results));
+		assertEquals(Integer.MAX_VALUE, Statistics.mean(results));
+		assertEquals((double) Integer.MAX_VALUE, Statistics.var(results));
+	}
+
+	/**
+	 * Test case for statistics computed with the same seed, sequentially and
+	 * in parallel.
+	 */
+
+	@Test
+	public void testSeed() {
+		Simulation simulation = createSimulation(7);
+		long batchSeed = simulation.getSeed();
+		Map<String, IntArrayList> sequential = Statistics.computeStatistics(simulation, RUNS);
+		assertEquals(batchSeed, simulation.getSeed());
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			simulation = createSimulation(7);
+			Map<String, IntArrayList> parallel = Statistics.computeStatistics(
+					simulation, RUNS, pool);
+			assertEquals(batchSeed, simulation.getSeed());
+			assertEquals(sequential.keySet(), parallel.keySet());
+			for (String name : sequential.keySet()) {
+				assertEquals(RUNS, parallel.get(name).size());
+				for (int i = 0; i < RUNS; i++) {
+					assertEquals(sequential.get(name).get(i), parallel.get(name).get(i));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test case for the replay of a single run of a batch.
+	 */
+
+	@Test
+	public void testReplay() {
+		Simulation simulation = createSimulation(11);
+		long batchSeed = simulation.getSeed();
+		Map<String, IntArrayList> results = Statistics.computeStatistics(simulation, RUNS);
+
+		// the seed of the batch is kept, and replays the whole batch
+		assertEquals(batchSeed, simulation.getSeed());
+		Map<String, IntArrayList> replay = Statistics.computeStatistics(simulation, RUNS);
+		for (String name : results.keySet()) {
+			for (int i = 0; i < RUNS; i++) {
+				assertEquals(results.get(name).get(i), replay.get(name).get(i));
+			}
+		}
+
+		// replays a run of the batch
+		simulation.restart(Statistics.seedOf(batchSeed, 17));
+		RunSummary summary = simulation.runUntilDone(Integer.MAX_VALUE);
+		assertEquals(Statistics.seedOf(batchSeed, 17), summary.getSeed());
+		for (Map.Entry<Integer, List<Animal>> entry : simulation.getArrivalTimes().entrySet()) {
+			for (Animal animal : entry.getValue()) {
+				String name = animal.getClass().getSimpleName();
+				assertEquals(results.get(name).get(17), entry.getKey().intValue());
+			}
+		}
+
+		// replays the same run twice
+		simulation.restart(summary.getSeed());
+		assertEquals(summary.getTotalSteps(),
+				simulation.runUntilDone(Integer.MAX_VALUE).getTotalSteps());
+	}
+
+	/**
+	 * Creates a seeded simulation of random walkers.
+	 * 
+	 * @param seed
+	 *            The seed of the simulation
+	 * @return The simulation
+	 */
+
+	private Simulation createSimulation(long seed) {
+		Maze maze = new Maze(MazeGenerator.braid(21, 21, 0.5, 3));
+		maze.addAnimal(new Mouse(maze.getStart()));
+		maze.addAnimal(new Hamster(maze.getStart()));
+		maze.addAnimal(new Panda(maze.getStart()));
+		return new MazeSimulation(maze, seed);
+	}
+}
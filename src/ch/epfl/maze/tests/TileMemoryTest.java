@@ -0,0 +1,110 @@
+package ch.epfl.maze.tests;
+
+import junit.framework.TestCase;
+
+import org.junit.Test;
+
+import ch.epfl.maze.physical.Maze;
+import ch.epfl.maze.physical.TileMemory;
+
+/**
+ * Test case for {@code TileMemory} implementation.
+ * 
+ */
+
+public class TileMemoryTest extends TestCase {
+
+	private final static int[][] LABYRINTH = {
+		{ 1, 1, 1, 1 },
+		{ 1, 0, 0, 1 },
+		{ 1, 1, 1, 1 }
+	};
+
+	/**
+	 * Test case for {@code set(int, int)} and {@code get(int)}.
+	 */
+
+	@Test
+	public void testSet() {
+		TileMemory memory = new TileMemory(new Maze(LABYRINTH));
+		assertEquals(0, memory.get(5));
+		assertFalse(memory.isMarked(5));
+
+		memory.set(5, 2);
+		memory.set(11, TileMemory.MAX_VALUE);
+		assertEquals(2, memory.get(5));
+		assertTrue(memory.isMarked(5));
+		assertEquals(TileMemory.MAX_VALUE, memory.get(11));
+		assertEquals(0, memory.get(-1));
+		assertEquals(0, memory.get(12));
+
+		// values and indices out of range
+		try {
+			memory.set(12, 1);
+			fail("Index outside the labyrinth should be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			memory.set(5, TileMemory.MAX_VALUE + 1);
+			fail("Value too large should be rejected");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Test case for {@code clear()}.
+	 */
+
+	@Test
+	public void testClear() {
+		TileMemory memory = new TileMemory(new Maze(LABYRINTH));
+		memory.set(5, 1);
+		memory.clear();
+		assertEquals(0, memory.get(5));
+
+		memory.set(6, 3);
+		assertEquals(0, memory.get(5));
+		assertEquals(3, memory.get(6));
+	}
+
+	/**
+	 * Test case for {@code copy()}.
+	 */
+
+	@Test
+	public void testCopy() {
+		TileMemory memory = new TileMemory(new Maze(LABYRINTH));
+		memory.set(5, 1);
+		TileMemory copy = memory.copy();
+		copy.set(6, 2);
+		memory.clear();
+
+		assertEquals(1, copy.get(5));
+		assertEquals(2, copy.get(6));
+		assertEquals(0, memory.get(6));
+
+		// copies of copies share nothing they write
+		TileMemory other = copy.copy();
+		other.set(5, 3);
+		copy.set(7, 4);
+		assertEquals(1, copy.get(5));
+		assertEquals(3, other.get(5));
+		assertEquals(0, other.get(7));
+	}
+
+	/**
+	 * Test case for {@code belongsTo(World world)}.
+	 */
+
+	@Test
+	public void testBelongsTo() {
+		Maze maze = new Maze(LABYRINTH);
+		TileMemory memory = new TileMemory(maze);
+		assertTrue(memory.belongsTo(maze));
+		assertTrue(memory.belongsTo(maze.copy()));
+		assertTrue(memory.copy().belongsTo(maze));
+		assertFalse(memory.belongsTo(new Maze(LABYRINTH)));
+	}
+}
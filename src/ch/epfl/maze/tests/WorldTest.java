@@ -10,6 +10,9 @@ import junit.framework.TestCase;
 import org.junit.Test;
 
 import ch.epfl.maze.physical.Animal;
+import ch.epfl.maze.physical.DeadEnds;
+import ch.epfl.maze.physical.DistanceField;
+import ch.epfl.maze.physical.Snapshot;
 import ch.epfl.maze.physical.World;
 import ch.epfl.maze.util.Direction;
 import ch.epfl.maze.util.Vector2D;
@@ -47,6 +50,13 @@ public class WorldTest extends TestCase {
 		{1, 0, 0, 0, 1},
 		{1, 1, 1, 1, 1}
 	};
+	private static final int[][] LABYRINTH_BRANCH = {
+		{1, 1, 1, 1, 1, 3, 1},
+		{1, 0, 0, 0, 0, 0, 1},
+		{1, 2, 1, 0, 1, 1, 1},
+		{1, 1, 1, 0, 1, 1, 1},
+		{1, 1, 1, 1, 1, 1, 1}
+	};
 	private static final int[][] LABYRINTH_SQUARE = {
 		{1, 1, 1, 1, 1},
 		{1, 0, 0, 0, 1},
@@ -93,6 +103,58 @@ public class WorldTest extends TestCase {
 		assertFalse("NOTHING tile should NOT be free", world.isFree(0, 3));
 	}
 
+	/**
+	 * Test case for the tile index methods.
+	 */
+
+	@Test
+	public void testTileIndex() {
+		World world = new ConcreteWorld(LABYRINTH_SAMPLE);
+
+		// checks that indices follow the rows of the labyrinth
+		int index = world.indexOf(5, 1);
+		assertEquals(12, index);
+		assertEquals(5, world.xOf(index));
+		assertEquals(1, world.yOf(index));
+		assertEquals(-1, world.indexOf(7, 0));
+		assertEquals(-1, world.indexOf(0, -1));
+
+		// checks tiles and neighbours
+		assertEquals(World.FREE, world.tileAt(index));
+		assertEquals(World.EXIT, world.tileAt(world.neighbourIndex(index, Direction.UP)));
+		assertEquals(World.WALL, world.tileAt(world.neighbourIndex(index, Direction.RIGHT)));
+		assertEquals(index, world.neighbourIndex(index, Direction.NONE));
+		assertEquals(-1, world.neighbourIndex(world.indexOf(6, 1), Direction.RIGHT));
+		assertEquals(-1, world.neighbourIndex(world.indexOf(0, 1), Direction.LEFT));
+		assertEquals(-1, world.neighbourIndex(world.indexOf(1, 2), Direction.DOWN));
+		assertEquals(World.NOTHING, world.tileAt(-1));
+		assertSame(world.getChoices(new Vector2D(5, 1)), world.getChoices(index));
+	}
+
+	/**
+	 * Test case for the shared positions of the tiles.
+	 */
+
+	@Test
+	public void testSharedPositions() {
+		World world = new ConcreteWorld(LABYRINTH_SAMPLE);
+
+		// checks that positions inside the labyrinth are shared
+		Vector2D position = world.intern(3, 1);
+		assertEquals(new Vector2D(3, 1), position);
+		assertSame(position, world.intern(new Vector2D(3, 1)));
+		assertSame(position, world.positionOf(world.indexOf(3, 1)));
+		assertSame(position, world.addDirectionTo(world.intern(2, 1), Direction.RIGHT));
+		assertSame(position, world.addDirectionTo(position, Direction.NONE));
+
+		// checks positions outside the labyrinth
+		assertEquals(new Vector2D(3, 3), world.addDirectionTo(new Vector2D(3, 2), Direction.DOWN));
+
+		// checks that distinct positions of large labyrinths are not equal
+		assertFalse(new Vector2D(1, 0).equals(new Vector2D(0, 1000)));
+		assertFalse(new Vector2D(2000, 5).hashCode() == new Vector2D(5, 2000).hashCode());
+	}
+
 	/**
 	 * Test case for {@code getWidth()}.
 	 */
@@ -272,6 +334,92 @@ public class WorldTest extends TestCase {
 				new Direction[] { Direction.DOWN, Direction.UP, Direction.RIGHT, Direction.LEFT });
 	}
 
+	/**
+	 * Test case for {@code getChoices(Vector2D position)}
+	 * when two positions have the same exits.
+	 */
+
+	@Test
+	public void testSharedChoices() {
+		World world = new ConcreteWorld(LABYRINTH_DOGHNUT);
+
+		// checks that the precomputed choices are reused
+		assertSame(world.getChoices(new Vector2D(1, 2)),
+				world.getChoices(new Vector2D(3, 2)));
+		assertSame(world.getChoices(new Vector2D(1, 2)),
+				world.getChoices(new Vector2D(1, 2)));
+	}
+
+	/**
+	 * Test case for {@code getDistanceField(Vector2D target)}.
+	 */
+
+	@Test
+	public void testDistanceField() {
+		World world = new ConcreteWorld(LABYRINTH_SAMPLE);
+		DistanceField field = world.getDistanceField(new Vector2D(5, 0));
+
+		// distances follow the corridor, walls cannot be reached
+		assertEquals(0, field.getDistance(world.indexOf(5, 0)));
+		assertEquals(1, field.getDistance(world.indexOf(5, 1)));
+		assertEquals(5, field.getDistance(world.indexOf(1, 1)));
+		assertEquals(6, field.getDistance(world.indexOf(1, 2)));
+		assertEquals(DistanceField.UNREACHABLE, field.getDistance(world.indexOf(0, 0)));
+
+		// fields are cached, and targets outside are moved inside
+		assertSame(field, world.getDistanceField(new Vector2D(5, 0)));
+		assertSame(field, world.getDistanceField(new Vector2D(5, -3)));
+	}
+
+	/**
+	 * Test case for {@code closestFreeIndex(Vector2D position)}.
+	 */
+
+	@Test
+	public void testClosestFreeIndex() {
+		World world = new ConcreteWorld(LABYRINTH_CORRIDOR);
+
+		// free tiles are their own closest tile
+		assertEquals(world.indexOf(1, 1), world.closestFreeIndex(new Vector2D(1, 1)));
+		assertEquals(world.indexOf(4, 1), world.closestFreeIndex(new Vector2D(4, 1)));
+
+		// ties are broken in row order
+		assertEquals(world.indexOf(1, 1), world.closestFreeIndex(new Vector2D(2, 1)));
+		assertEquals(world.indexOf(3, 1), world.closestFreeIndex(new Vector2D(3, 2)));
+
+		// positions outside are first moved inside
+		assertEquals(world.indexOf(4, 1), world.closestFreeIndex(new Vector2D(10, -5)));
+		assertEquals(world.indexOf(1, 2), world.closestFreeIndex(new Vector2D(-3, 9)));
+
+		// walls only
+		World walls = new ConcreteWorld(new int[][] { {1, 1}, {1, 1} });
+		assertEquals(-1, walls.closestFreeIndex(new Vector2D(0, 0)));
+	}
+
+	/**
+	 * Test case for {@code getDeadEnds()}.
+	 */
+
+	@Test
+	public void testDeadEnds() {
+		// the branch off the path is pruned tile by tile
+		World world = new ConcreteWorld(LABYRINTH_BRANCH);
+		DeadEnds deadEnds = world.getDeadEnds();
+		assertEquals(2, deadEnds.getCount());
+		assertTrue(deadEnds.isDeadEnd(new Vector2D(3, 3)));
+		assertTrue(deadEnds.isDeadEnd(world.indexOf(3, 2)));
+		assertFalse(deadEnds.isDeadEnd(new Vector2D(3, 1)));
+		assertFalse(deadEnds.isDeadEnd(new Vector2D(1, 2)));
+		assertFalse(deadEnds.isDeadEnd(new Vector2D(-1, 2)));
+
+		// no dead ends on a single path, nor on a loop
+		assertEquals(0, new ConcreteWorld(LABYRINTH_SAMPLE).getDeadEnds().getCount());
+		assertEquals(0, new ConcreteWorld(LABYRINTH_DOGHNUT).getDeadEnds().getCount());
+
+		// without start nor exit, every tree is pruned
+		assertEquals(4, new ConcreteWorld(LABYRINTH_CORRIDOR).getDeadEnds().getCount());
+	}
+
 	// ==========================================================
 
 	/**
@@ -322,6 +470,16 @@ public class WorldTest extends TestCase {
 			// do nothing
 		}
 
+		@Override
+		public Snapshot snapshot() {
+			return null;
+		}
+
+		@Override
+		public void restore(Snapshot snapshot) {
+			// do nothing
+		}
+
 		@Override
 		public List<Animal> getAnimals() {
 			return null;
@@ -0,0 +1,305 @@
+package ch.epfl.maze.util;
+
+/**
+ * Streaming summary of a distribution of non-negative integers, such as the
+ * number of steps needed by an animal to finish a simulation.
+ * <p>
+ * The values are not stored : the mean and the variance are accumulated with
+ * Welford's algorithm, and the values are counted in a log-linear histogram
+ * whose buckets have a width of at most 1/{@value #SUB_BUCKETS} of their
+ * lower bound. The quantiles are therefore exact for values smaller than
+ * {@code 2 * SUB_BUCKETS}, and within about 3% above, in constant memory.
+ * <p>
+ * {@code Integer.MAX_VALUE} stands for an infinite value (an animal that never
+ * finished) and is counted apart from the finite values. Two distributions
+ * can be merged, for instance when they were computed by different threads.
+ * 
+ */
+
+public final class Distribution {
+
+	/* number of sub-buckets per power of two, and its logarithm */
+	public static final int SUB_BUCKET_BITS = 5;
+	public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/* number of buckets needed to cover every non-negative integer */
+	private static final int BUCKETS = bucketOf(Integer.MAX_VALUE - 1) + 1;
+
+	/* histogram of the finite values */
+	private final long[] mCounts;
+
+	/* moments of the finite values */
+	private long mCount;
+	private double mMean;
+	private double mSquares;
+	private int mMin;
+	private int mMax;
+
+	/* number of infinite values */
+	private long mInfinite;
+
+	/**
+	 * Constructs an empty distribution.
+	 */
+
+	public Distribution() {
+		mCounts = new long[BUCKETS];
+		mCount = 0;
+		mMean = 0;
+		mSquares = 0;
+		mMin = Integer.MAX_VALUE;
+		mMax = Integer.MIN_VALUE;
+		mInfinite = 0;
+	}
+
+	/**
+	 * Adds a value to the distribution.
+	 * 
+	 * @param value
+	 *            A non-negative value, or {@code Integer.MAX_VALUE} if it is
+	 *            infinite
+	 */
+
+	public void add(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Value cannot be negative : " + value);
+		}
+		if (value == Integer.MAX_VALUE) {
+			mInfinite++;
+			return;
+		}
+
+		mCounts[bucketOf(value)]++;
+		mCount++;
+		double delta = value - mMean;
+		mMean += delta / mCount;
+		mSquares += delta * (value - mMean);
+		mMin = Math.min(mMin, value);
+		mMax = Math.max(mMax, value);
+	}
+
+	/**
+	 * Adds all the values of another distribution to the distribution.
+	 * 
+	 * @param other
+	 *            The distribution to merge into this one
+	 */
+
+	public void merge(Distribution other) {
+		mInfinite += other.mInfinite;
+		if (other.mCount == 0) {
+			return;
+		}
+
+		for (int i = 0; i < BUCKETS; i++) {
+			mCounts[i] += other.mCounts[i];
+		}
+
+		// combines the moments of both distributions (Chan et al.)
+		long count = mCount + other.mCount;
+		double delta = other.mMean - mMean;
+		mMean += delta * other.mCount / count;
+		mSquares += other.mSquares + delta * delta * ((double) mCount * other.mCount / count);
+		mCount = count;
+		mMin = Math.min(mMin, other.mMin);
+		mMax = Math.max(mMax, other.mMax);
+	}
+
+	/**
+	 * Returns the number of values in the distribution, infinite ones
+	 * included.
+	 * 
+	 * @return The number of values added
+	 */
+
+	public long count() {
+		return mCount + mInfinite;
+	}
+
+	/**
+	 * Returns the number of infinite values in the distribution.
+	 * 
+	 * @return The number of {@code Integer.MAX_VALUE} added
+	 */
+
+	public long infiniteCount() {
+		return mInfinite;
+	}
+
+	/**
+	 * Determines whether the distribution is empty.
+	 * 
+	 * @return <b>true</b> if no value was added, <b>false</b> otherwise
+	 */
+
+	public boolean isEmpty() {
+		return count() == 0;
+	}
+
+	/**
+	 * Returns the mean of the values.
+	 * 
+	 * @return The mean of the values, or {@code Integer.MAX_VALUE} if one of
+	 *         them is infinite
+	 */
+
+	public double mean() {
+		if (mInfinite > 0) {
+			return Integer.MAX_VALUE;
+		}
+		return mMean;
+	}
+
+	/**
+	 * Returns the variance of the values.
+	 * 
+	 * @return The variance of the values, or {@code Integer.MAX_VALUE} if one
+	 *         of them is infinite
+	 */
+
+	public double var() {
+		if (mInfinite > 0) {
+			return Integer.MAX_VALUE;
+		}
+		return (mCount == 0) ? 0 : mSquares / mCount;
+	}
+
+	/**
+	 * Returns the standard deviation of the values.
+	 * 
+	 * @return The standard deviation of the values
+	 */
+
+	public double std() {
+		return Math.sqrt(var());
+	}
+
+	/**
+	 * Returns the smallest value of the distribution.
+	 * 
+	 * @return The minimum, or {@code Integer.MAX_VALUE} if there are only
+	 *         infinite values
+	 */
+
+	public int min() {
+		return (mCount == 0) ? Integer.MAX_VALUE : mMin;
+	}
+
+	/**
+	 * Returns the largest value of the distribution.
+	 * 
+	 * @return The maximum, or {@code Integer.MAX_VALUE} if one of the values
+	 *         is infinite
+	 */
+
+	public int max() {
+		return (mInfinite > 0 || mCount == 0) ? Integer.MAX_VALUE : mMax;
+	}
+
+	/**
+	 * Returns the largest finite value of the distribution.
+	 * 
+	 * @return The maximum of the finite values, or {@code Integer.MAX_VALUE}
+	 *         if there are only infinite values
+	 */
+
+	public int finiteMax() {
+		return (mCount == 0) ? Integer.MAX_VALUE : mMax;
+	}
+
+	/**
+	 * Returns the median of the distribution.
+	 * 
+	 * @return The approximate median
+	 * @see #quantile(double)
+	 */
+
+	public int median() {
+		return quantile(0.5);
+	}
+
+	/**
+	 * Returns the value below which a fraction of the values lie
+	 * (nearest-rank method). The result is the largest value of the bucket
+	 * containing the rank, bounded by the minimum and the maximum.
+	 * 
+	 * @param fraction
+	 *            The fraction of values, between 0 and 1
+	 * @return The approximate quantile, or {@code Integer.MAX_VALUE} if it
+	 *         falls on an infinite value
+	 */
+
+	public int quantile(double fraction) {
+		if (fraction < 0 || fraction > 1) {
+			throw new IllegalArgumentException("Fraction must be between 0 and 1.");
+		}
+		long rank = Math.max(1, (long) Math.ceil(fraction * count()));
+		if (rank > mCount) {
+			return Integer.MAX_VALUE;
+		}
+
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += mCounts[i];
+			if (seen >= rank) {
+				return Math.max(mMin, Math.min(mMax, upperBoundOf(i)));
+			}
+		}
+		return mMax;
+	}
+
+	/**
+	 * Returns the number of finite values smaller or equal to a bound. The
+	 * count is exact when the bound is the upper end of a bucket, and
+	 * otherwise includes the whole bucket containing the bound.
+	 * 
+	 * @param bound
+	 *            The upper bound of the values counted
+	 * @return The approximate number of values smaller or equal to the bound
+	 */
+
+	public long countAtMost(int bound) {
+		if (bound < 0) {
+			return 0;
+		}
+		int last = bucketOf(Math.min(bound, Integer.MAX_VALUE - 1));
+		long count = 0;
+		for (int i = 0; i <= last; i++) {
+			count += mCounts[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the bucket of the histogram in which a value is counted.
+	 * 
+	 * @param value
+	 *            A non-negative value
+	 * @return The index of the bucket of the value
+	 */
+
+	private static int bucketOf(int value) {
+		if (value < 2 * SUB_BUCKETS) {
+			return value;
+		}
+		int shift = (31 - Integer.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		return shift * SUB_BUCKETS + (value >>> shift);
+	}
+
+	/**
+	 * Returns the largest value counted in a bucket of the histogram.
+	 * 
+	 * @param bucket
+	 *            The index of the bucket
+	 * @return The upper bound of the bucket
+	 */
+
+	private static int upperBoundOf(int bucket) {
+		if (bucket < 2 * SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		return (int) Math.min(Integer.MAX_VALUE - 1, ((mantissa + 1) << shift) - 1);
+	}
+}
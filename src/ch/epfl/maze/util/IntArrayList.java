@@ -0,0 +1,228 @@
+package ch.epfl.maze.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive integers, used to store large amounts of results
+ * without boxing them.
+ * <p>
+ * The list remembers whether it is sorted, so that the order statistics
+ * ({@link #min()}, {@link #max()}, {@link #median()},
+ * {@link #percentile(double)}) only sort it once and are then answered in
+ * constant time.
+ * 
+ */
+
+public final class IntArrayList {
+
+	/* default capacity of an empty list */
+	public static final int DEFAULT_CAPACITY = 16;
+
+	/* values of the list, only the first mSize are meaningful */
+	private int[] mValues;
+	private int mSize;
+
+	/* true if the values are known to be sorted */
+	private boolean mSorted;
+
+	/**
+	 * Constructs an empty list with the default capacity.
+	 */
+
+	public IntArrayList() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty list with an initial capacity.
+	 * 
+	 * @param capacity
+	 *            Number of values the list can hold before growing
+	 */
+
+	public IntArrayList(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Capacity cannot be negative.");
+		}
+		mValues = new int[capacity];
+		mSize = 0;
+		mSorted = true;
+	}
+
+	/**
+	 * Appends a value at the end of the list.
+	 * 
+	 * @param value
+	 *            The value to append
+	 */
+
+	public void add(int value) {
+		if (mSize == mValues.length) {
+			grow(mSize + 1);
+		}
+		if (mSize > 0 && value < mValues[mSize - 1]) {
+			mSorted = false;
+		}
+		mValues[mSize++] = value;
+	}
+
+	/**
+	 * Appends all the values of another list at the end of the list.
+	 * 
+	 * @param list
+	 *            The list whose values are appended
+	 */
+
+	public void addAll(IntArrayList list) {
+		if (list.mSize == 0) {
+			return;
+		}
+		if (mSize + list.mSize > mValues.length) {
+			grow(mSize + list.mSize);
+		}
+		if (!list.mSorted || (mSize > 0 && list.mValues[0] < mValues[mSize - 1])) {
+			mSorted = false;
+		}
+		System.arraycopy(list.mValues, 0, mValues, mSize, list.mSize);
+		mSize += list.mSize;
+	}
+
+	/**
+	 * Returns the value at a position of the list.
+	 * 
+	 * @param index
+	 *            Position of the value
+	 * @return The value at position {@code index}
+	 */
+
+	public int get(int index) {
+		if (index < 0 || index >= mSize) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+		}
+		return mValues[index];
+	}
+
+	/**
+	 * Returns the number of values in the list.
+	 * 
+	 * @return The size of the list
+	 */
+
+	public int size() {
+		return mSize;
+	}
+
+	/**
+	 * Determines whether the list is empty.
+	 * 
+	 * @return <b>true</b> if the list has no value, <b>false</b> otherwise
+	 */
+
+	public boolean isEmpty() {
+		return mSize == 0;
+	}
+
+	/**
+	 * Removes all the values of the list, keeping its capacity.
+	 */
+
+	public void clear() {
+		mSize = 0;
+		mSorted = true;
+	}
+
+	/**
+	 * Sorts the values of the list in ascending order, in place.
+	 */
+
+	public void sort() {
+		if (!mSorted) {
+			Arrays.sort(mValues, 0, mSize);
+			mSorted = true;
+		}
+	}
+
+	/**
+	 * Returns the smallest value of the list, sorting it if needed.
+	 * 
+	 * @return The minimum of the list
+	 */
+
+	public int min() {
+		return percentile(0);
+	}
+
+	/**
+	 * Returns the largest value of the list, sorting it if needed.
+	 * 
+	 * @return The maximum of the list
+	 */
+
+	public int max() {
+		return percentile(1);
+	}
+
+	/**
+	 * Returns the median of the list, sorting it if needed. For an even number
+	 * of values, the upper median is returned.
+	 * 
+	 * @return The median of the list
+	 */
+
+	public int median() {
+		sort();
+		return get(mSize / 2);
+	}
+
+	/**
+	 * Returns the value below which a fraction of the values lie, sorting the
+	 * list if needed (nearest-rank method).
+	 * 
+	 * @param fraction
+	 *            The fraction of values, between 0 and 1
+	 * @return The percentile of the list corresponding to the fraction
+	 */
+
+	public int percentile(double fraction) {
+		if (fraction < 0 || fraction > 1) {
+			throw new IllegalArgumentException("Fraction must be between 0 and 1.");
+		}
+		sort();
+		int rank = (int) Math.ceil(fraction * mSize);
+		return get(Math.max(rank - 1, 0));
+	}
+
+	/**
+	 * Returns a copy of the values of the list.
+	 * 
+	 * @return An array containing the values of the list, in order
+	 */
+
+	public int[] toArray() {
+		return Arrays.copyOf(mValues, mSize);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < mSize; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(mValues[i]);
+		}
+		return builder.append(']').toString();
+	}
+
+	/**
+	 * Grows the capacity of the list to hold at least a number of values.
+	 * 
+	 * @param minCapacity
+	 *            The minimum capacity needed
+	 */
+
+	private void grow(int minCapacity) {
+		int capacity = Math.max(mValues.length + (mValues.length >> 1), minCapacity);
+		mValues = Arrays.copyOf(mValues, Math.max(capacity, DEFAULT_CAPACITY));
+	}
+}
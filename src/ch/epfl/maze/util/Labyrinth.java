@@ -0,0 +1,198 @@
+package ch.epfl.maze.util;
+
+import ch.epfl.maze.physical.World;
+
+/**
+ * Immutable labyrinth structure, made of a rectangle of tiles stored row by
+ * row in a byte array. Tiles use the numbers of the {@code World} constants
+ * ({@code FREE}, {@code WALL}, {@code START}, {@code EXIT} and
+ * {@code NOTHING}). The start and the exit are located when the labyrinth is
+ * built, so that worlds do not need to look for them.
+ * 
+ */
+
+public final class Labyrinth {
+
+	/* dimensions and tiles of the labyrinth, stored row by row */
+	private final int mWidth;
+	private final int mHeight;
+	private final byte[] mTiles;
+
+	/* indices of the start and of the exit, -1 if there is none */
+	private final int mStart;
+	private final int mExit;
+
+	/**
+	 * Constructs a labyrinth from an array of tiles. The array must be
+	 * rectangle. If there are several starts or exits, the last ones are
+	 * kept.
+	 * 
+	 * @param labyrinth
+	 *            Structure of the labyrinth, an NxM array of tiles
+	 */
+
+	public Labyrinth(int[][] labyrinth) {
+		mHeight = labyrinth.length;
+		mWidth = (mHeight == 0) ? 0 : labyrinth[0].length;
+		mTiles = new byte[mWidth * mHeight];
+		int start = -1;
+		int exit = -1;
+		for (int y = 0; y < mHeight; y++) {
+			if (labyrinth[y].length != mWidth) {
+				throw new IllegalArgumentException("Labyrinth must be rectangle.");
+			}
+			for (int x = 0; x < mWidth; x++) {
+				int index = y * mWidth + x;
+				int tile = labyrinth[y][x];
+				if (tile == World.START) {
+					start = index;
+				} else if (tile == World.EXIT) {
+					exit = index;
+				}
+				mTiles[index] = (byte) tile;
+			}
+		}
+		mStart = start;
+		mExit = exit;
+	}
+
+	/**
+	 * Constructs a labyrinth from tiles already stored row by row, whose
+	 * start and exit are already known. The array is not copied, so the
+	 * caller must not modify it afterwards.
+	 * 
+	 * @param width
+	 *            Number of tiles in a row
+	 * @param height
+	 *            Number of rows
+	 * @param tiles
+	 *            Tiles of the labyrinth, of length {@code width * height}
+	 * @param start
+	 *            Index of the start tile, -1 if there is none
+	 * @param exit
+	 *            Index of the exit tile, -1 if there is none
+	 */
+
+	Labyrinth(int width, int height, byte[] tiles, int start, int exit) {
+		if (width < 0 || height < 0 || (long) width * height != tiles.length) {
+			throw new IllegalArgumentException("Labyrinth must be rectangle.");
+		}
+		if (start >= tiles.length || exit >= tiles.length) {
+			throw new IllegalArgumentException("Start and exit must be inside the labyrinth.");
+		}
+		mWidth = width;
+		mHeight = height;
+		mTiles = tiles;
+		mStart = start;
+		mExit = exit;
+	}
+
+	/**
+	 * Returns the width of the labyrinth.
+	 * 
+	 * @return Width of the labyrinth
+	 */
+
+	public int getWidth() {
+		return mWidth;
+	}
+
+	/**
+	 * Returns the height of the labyrinth.
+	 * 
+	 * @return Height of the labyrinth
+	 */
+
+	public int getHeight() {
+		return mHeight;
+	}
+
+	/**
+	 * Returns the tile number at position (x, y), which must lie inside the
+	 * labyrinth.
+	 * 
+	 * @param x
+	 *            Horizontal coordinate
+	 * @param y
+	 *            Vertical coordinate
+	 * @return The tile number at position (x, y)
+	 */
+
+	public int getTile(int x, int y) {
+		return mTiles[y * mWidth + x];
+	}
+
+	/**
+	 * Returns the position of the start of the labyrinth.
+	 * 
+	 * @return Start position of the labyrinth, null if none
+	 */
+
+	public Vector2D getStart() {
+		return positionOf(mStart);
+	}
+
+	/**
+	 * Returns the position of the exit of the labyrinth.
+	 * 
+	 * @return Exit position of the labyrinth, null if none
+	 */
+
+	public Vector2D getExit() {
+		return positionOf(mExit);
+	}
+
+	/**
+	 * Returns the tiles themselves, stored row by row, so that worlds can be
+	 * built on them without copying them. Since the labyrinth is immutable,
+	 * the array is shared and <b>must not</b> be modified.
+	 * 
+	 * @return The array of {@code getWidth() * getHeight()} tiles
+	 * @see #copyTiles()
+	 */
+
+	public byte[] getSharedTiles() {
+		return mTiles;
+	}
+
+	/**
+	 * Returns a copy of the tiles, stored row by row.
+	 * 
+	 * @return A new array of {@code getWidth() * getHeight()} tiles
+	 */
+
+	public byte[] copyTiles() {
+		return mTiles.clone();
+	}
+
+	/**
+	 * Returns the labyrinth as an NxM array of tiles.
+	 * 
+	 * @return A new array of tiles
+	 */
+
+	public int[][] toArray() {
+		int[][] labyrinth = new int[mHeight][mWidth];
+		for (int y = 0; y < mHeight; y++) {
+			for (int x = 0; x < mWidth; x++) {
+				labyrinth[y][x] = mTiles[y * mWidth + x];
+			}
+		}
+		return labyrinth;
+	}
+
+	/**
+	 * Returns the position of a tile index.
+	 * 
+	 * @param index
+	 *            Index of the tile, -1 if there is none
+	 * @return The position of the tile, null if there is none
+	 */
+
+	private Vector2D positionOf(int index) {
+		if (index < 0) {
+			return null;
+		}
+		return new Vector2D(index % mWidth, index / mWidth);
+	}
+}
@@ -0,0 +1,389 @@
+package ch.epfl.maze.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import ch.epfl.maze.physical.World;
+
+/**
+ * Reads and writes labyrinths in a compact binary format, much faster to load
+ * than the text format of {@link LabyrinthGenerator#readFromFile(String)}.
+ * <p>
+ * A file starts with a header of eight big-endian integers : the magic number
+ * {@code "MAZE"}, the format version, the width and the height of the
+ * labyrinth, then the coordinates of the start and of the exit ({@code -1}
+ * if there is none). The tiles follow row by row, packed four per byte from
+ * the least significant bits, each on two bits : {@code 0} for a free tile,
+ * {@code 1} for a wall and {@code 2} for nothing. The start and the exit are
+ * stored as free tiles.
+ * 
+ */
+
+public final class LabyrinthFile {
+
+	/* header of the format */
+	public static final int MAGIC = 0x4D415A45; // "MAZE"
+	public static final int VERSION = 1;
+	private static final int HEADER_SIZE = 8 * 4;
+
+	/* two-bit codes of the tiles */
+	private static final int CODE_FREE = 0;
+	private static final int CODE_WALL = 1;
+	private static final int CODE_NOTHING = 2;
+
+	/* tile numbers of the codes */
+	private static final byte[] DECODE = {
+			World.FREE, World.WALL, World.NOTHING
+	};
+
+	/**
+	 * Reads a labyrinth from a binary file, by mapping it in memory.
+	 * 
+	 * @param filename
+	 *            The file location
+	 * @return Labyrinth structure read from the file
+	 * @throws IOException
+	 *             If the file cannot be read or is not a valid labyrinth file
+	 */
+
+	public static Labyrinth read(String filename) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(filename, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			long size = channel.size();
+			if (size < HEADER_SIZE) {
+				throw new IOException("Labyrinth file is too short.");
+			}
+
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return decode(buffer);
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Writes a labyrinth to a binary file.
+	 * 
+	 * @param labyrinth
+	 *            The labyrinth to write, with at most one start and one exit
+	 * @param filename
+	 *            The file location
+	 * @throws IOException
+	 *             If the file cannot be written
+	 */
+
+	public static void write(Labyrinth labyrinth, String filename) throws IOException {
+		ByteBuffer buffer = encode(labyrinth);
+		FileOutputStream output = new FileOutputStream(filename);
+		try {
+			FileChannel channel = output.getChannel();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Converts a labyrinth from the text format to the binary format.
+	 * 
+	 * @param textFilename
+	 *            Location of the text file to read
+	 * @param binaryFilename
+	 *            Location of the binary file to write
+	 * @throws IOException
+	 *             If one of the files cannot be read or written
+	 * @throws IllegalArgumentException
+	 *             If the text file does not contain a valid labyrinth
+	 */
+
+	public static void convert(String textFilename, String binaryFilename) throws IOException {
+		write(LabyrinthParser.parseFile(textFilename), binaryFilename);
+	}
+
+	/**
+	 * Converts a text labyrinth file to the binary format.
+	 * 
+	 * @param args
+	 *            Location of the text file, then of the binary file
+	 */
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage : LabyrinthFile <text file> <binary file>");
+			return;
+		}
+		convert(args[0], args[1]);
+	}
+
+	/**
+	 * Encodes a labyrinth in the binary format.
+	 * 
+	 * @param labyrinth
+	 *            The labyrinth to encode
+	 * @return A buffer containing the whole file, ready to be read
+	 */
+
+	static ByteBuffer encode(Labyrinth labyrinth) {
+		int width = labyrinth.getWidth();
+		int height = labyrinth.getHeight();
+		int count = width * height;
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + (count + 3) / 4);
+
+		// packs the tiles, looking for entrance and exit
+		int start = -1;
+		int exit = -1;
+		int packed = 0;
+		for (int i = 0; i < count; i++) {
+			int tile = labyrinth.getTile(i % width, i / width);
+			if (tile == World.START) {
+				if (start >= 0) {
+					throw new IllegalArgumentException("Labyrinth must have at most one start.");
+				}
+				start = i;
+			} else if (tile == World.EXIT) {
+				if (exit >= 0) {
+					throw new IllegalArgumentException("Labyrinth must have at most one exit.");
+				}
+				exit = i;
+			}
+
+			packed |= codeOf(tile) << ((i & 3) << 1);
+			if ((i & 3) == 3) {
+				buffer.put(HEADER_SIZE + (i >> 2), (byte) packed);
+				packed = 0;
+			}
+		}
+		if ((count & 3) != 0) {
+			buffer.put(HEADER_SIZE + (count >> 2), (byte) packed);
+		}
+
+		buffer.putInt(MAGIC);
+		buffer.putInt(VERSION);
+		buffer.putInt(width);
+		buffer.putInt(height);
+		buffer.putInt(start < 0 ? -1 : start % width);
+		buffer.putInt(start < 0 ? -1 : start / width);
+		buffer.putInt(exit < 0 ? -1 : exit % width);
+		buffer.putInt(exit < 0 ? -1 : exit / width);
+		buffer.rewind();
+		return buffer;
+	}
+
+	/**
+	 * Decodes a labyrinth from a buffer in the binary format.
+	 * 
+	 * @param buffer
+	 *            A buffer containing the whole file
+	 * @return Labyrinth structure read from the buffer
+	 * @throws IOException
+	 *             If the buffer does not contain a valid labyrinth
+	 */
+
+	static Labyrinth decode(ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+			throw new IOException("Not a labyrinth file.");
+		}
+		int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported labyrinth file version " + version + ".");
+		}
+
+		int width = buffer.getInt();
+		int height = buffer.getInt();
+		long count = (long) width * height;
+		if (width < 0 || height < 0 || count > Integer.MAX_VALUE) {
+			throw new IOException("Invalid labyrinth size " + width + "x" + height + ".");
+		}
+		int start = readPosition(buffer, width, height);
+		int exit = readPosition(buffer, width, height);
+		if (buffer.remaining() != (count + 3) / 4) {
+			throw new IOException("Labyrinth file does not match its size.");
+		}
+
+		// unpacks the tiles four by four
+		byte[] tiles = new byte[(int) count];
+		for (int i = 0; i < tiles.length; i += 4) {
+			int packed = buffer.get();
+			int end = Math.min(i + 4, tiles.length);
+			for (int j = i; j < end; j++) {
+				int code = packed & 3;
+				if (code >= DECODE.length) {
+					throw new IOException("Invalid tile code at index " + j + ".");
+				}
+				tiles[j] = DECODE[code];
+				packed >>= 2;
+			}
+		}
+
+		if (start >= 0) {
+			tiles[start] = World.START;
+		}
+		if (exit >= 0) {
+			tiles[exit] = World.EXIT;
+		}
+		return new Labyrinth(width, height, tiles, start, exit);
+	}
+
+	/**
+	 * Returns the two-bit code of a tile. The start and the exit are coded as
+	 * free tiles.
+	 * 
+	 * @param tile
+	 *            The tile number
+	 * @return The code of the tile
+	 */
+
+	private static int codeOf(int tile) {
+		switch (tile) {
+		case World.FREE:
+		case World.START:
+		case World.EXIT:
+			return CODE_FREE;
+
+		case World.WALL:
+			return CODE_WALL;
+
+		case World.NOTHING:
+			return CODE_NOTHING;
+
+		default:
+			throw new IllegalArgumentException("Unknown tile " + tile + ".");
+		}
+	}
+
+	/**
+	 * Reads the coordinates of a tile from the header.
+	 * 
+	 * @param buffer
+	 *            Buffer positioned on the coordinates
+	 * @param width
+	 *            Width of the labyrinth
+	 * @param height
+	 *            Height of the labyrinth
+	 * @return The index of the tile, or -1 if there is none
+	 * @throws IOException
+	 *             If the coordinates are outside the labyrinth
+	 */
+
+	private static int readPosition(ByteBuffer buffer, int width, int height) throws IOException {
+		int x = buffer.getInt();
+		int y = buffer.getInt();
+		if (x == -1 && y == -1) {
+			return -1;
+		}
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			throw new IOException("Position (" + x + ", " + y + ") is outside the labyrinth.");
+		}
+		return y * width + x;
+	}
+
+	/**
+	 * Writes a labyrinth to a binary file one row after the other, so that
+	 * labyrinths larger than the memory can be written. The start and the exit
+	 * must be known before the first row is written.
+	 * 
+	 */
+
+	static final class RowWriter {
+
+		/* destination and dimensions of the labyrinth */
+		private final OutputStream mOutput;
+		private final int mWidth;
+		private final int mHeight;
+
+		/* tiles packed so far in the current byte, and rows written */
+		private int mPacked;
+		private long mCount;
+		private int mRows;
+
+		/**
+		 * Opens a binary file and writes its header.
+		 * 
+		 * @param filename
+		 *            The file location
+		 * @param width
+		 *            Width of the labyrinth
+		 * @param height
+		 *            Height of the labyrinth
+		 * @param start
+		 *            Position of the start, or {@code null} if there is none
+		 * @param exit
+		 *            Position of the exit, or {@code null} if there is none
+		 * @throws IOException
+		 *             If the file cannot be written
+		 */
+
+		public RowWriter(String filename, int width, int height, Vector2D start, Vector2D exit)
+				throws IOException {
+			mOutput = new BufferedOutputStream(new FileOutputStream(filename));
+			mWidth = width;
+			mHeight = height;
+
+			DataOutputStream header = new DataOutputStream(mOutput);
+			header.writeInt(MAGIC);
+			header.writeInt(VERSION);
+			header.writeInt(width);
+			header.writeInt(height);
+			header.writeInt(start == null ? -1 : start.getX());
+			header.writeInt(start == null ? -1 : start.getY());
+			header.writeInt(exit == null ? -1 : exit.getX());
+			header.writeInt(exit == null ? -1 : exit.getY());
+		}
+
+		/**
+		 * Writes the next row of the labyrinth.
+		 * 
+		 * @param row
+		 *            The tiles of the row, of length {@code width}
+		 * @throws IOException
+		 *             If the file cannot be written
+		 */
+
+		public void writeRow(byte[] row) throws IOException {
+			if (row.length != mWidth || mRows == mHeight) {
+				throw new IllegalArgumentException("Row does not fit in the labyrinth.");
+			}
+			for (int x = 0; x < mWidth; x++) {
+				int shift = (int) (mCount & 3) << 1;
+				mPacked |= codeOf(row[x]) << shift;
+				mCount++;
+				if (shift == 6) {
+					mOutput.write(mPacked);
+					mPacked = 0;
+				}
+			}
+			mRows++;
+		}
+
+		/**
+		 * Writes the last tiles and closes the file.
+		 * 
+		 * @throws IOException
+		 *             If the file cannot be written, or if some rows are
+		 *             missing
+		 */
+
+		public void close() throws IOException {
+			try {
+				if ((mCount & 3) != 0) {
+					mOutput.write(mPacked);
+				}
+				if (mRows != mHeight) {
+					throw new IOException("Only " + mRows + " rows of " + mHeight + " were written.");
+				}
+			} finally {
+				mOutput.close();
+			}
+		}
+	}
+}
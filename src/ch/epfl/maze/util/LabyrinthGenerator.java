@@ -1,11 +1,6 @@
 package ch.epfl.maze.util;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.Scanner;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
 
 /**
  * Generates a set of pre-computed labyrinth structures
@@ -480,52 +475,18 @@ public final class LabyrinthGenerator {
 	 * @param filename
 	 *            The file location
 	 * @return Labyrinth structure parsed from a file
+	 * @see LabyrinthParser
 	 */
 
 	public static int[][] readFromFile(String filename) {
-		File file = new File(filename);
 		int[][] labyrinth = null;
-		Scanner scanner = null;
 
 		try {
-			scanner = new Scanner(file);
-
-			// reads one line after the other
-			ArrayList<ArrayList<String>> lines = new ArrayList<ArrayList<String>>();
-			while (scanner.hasNext()) {
-				String line = scanner.nextLine();
-
-				// looks for a single number in the line using a Regular Expression
-				Matcher match = Pattern.compile("-?[0-9]").matcher(line);
-				ArrayList<String> list = new ArrayList<String>();
-				while (match.find()) {
-					list.add(match.group());
-				}
-
-				// gets rid of empty lines
-				if (!list.isEmpty()) {
-					lines.add(list);
-				}
-			}
-
-			// parses the Strings found into a labyrinth
-			labyrinth = new int[lines.size()][];
-			for (int i = 0; i < labyrinth.length; i++) {
-				ArrayList<String> line = lines.get(i);
-				labyrinth[i] = new int[line.size()];
-				for (int j = 0; j < line.size(); j++) {
-					labyrinth[i][j] = Integer.parseInt(line.get(j));
-				}
-			}
-
-		} catch (FileNotFoundException e) {
+			labyrinth = LabyrinthParser.parseFile(filename).toArray();
+		} catch (IOException e) {
 			e.printStackTrace();
-		} catch (NumberFormatException e) {
+		} catch (IllegalArgumentException e) {
 			e.printStackTrace();
-		} finally {
-			if (scanner != null) {
-				scanner.close();
-			}
 		}
 
 		return labyrinth;
@@ -0,0 +1,268 @@
+package ch.epfl.maze.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import ch.epfl.maze.physical.World;
+
+/**
+ * Streaming parser of labyrinths in the text format read by
+ * {@link LabyrinthGenerator#readFromFile(String)}. The input is read byte
+ * after byte, and the tiles are written directly in the tile array of the
+ * resulting {@code Labyrinth}.
+ * <p>
+ * Every line containing at least one digit is a row of the labyrinth, in
+ * which every digit, optionally preceded by a minus sign, is a tile. Any
+ * other character is a separator, and lines without any digit are skipped.
+ * The rows must all have the same number of tiles, and the labyrinth must
+ * have at most one start and one exit. Errors are reported with an
+ * {@code IllegalArgumentException} giving the line and column at fault.
+ * 
+ */
+
+public final class LabyrinthParser {
+
+	/* size of the chunks read from an input stream */
+	private static final int CHUNK_SIZE = 8192;
+
+	/* tiles parsed so far, row by row */
+	private byte[] mTiles;
+	private int mCount;
+
+	/* dimensions of the labyrinth, width is -1 until the first row ends */
+	private int mWidth;
+	private int mHeight;
+
+	/* position in the input, both starting at 1 */
+	private int mLine;
+	private int mColumn;
+
+	/* whether the previous character was a minus sign */
+	private boolean mMinus;
+
+	/* index of the start and of the exit, -1 if not found yet */
+	private int mStart;
+	private int mExit;
+
+	/**
+	 * Constructs a parser, expecting around a given number of tiles.
+	 * 
+	 * @param capacity
+	 *            Initial capacity of the tile array
+	 */
+
+	private LabyrinthParser(int capacity) {
+		mTiles = new byte[Math.max(capacity, 16)];
+		mCount = 0;
+		mWidth = -1;
+		mHeight = 0;
+		mLine = 1;
+		mColumn = 0;
+		mMinus = false;
+		mStart = -1;
+		mExit = -1;
+	}
+
+	/**
+	 * Parses a labyrinth from the remaining bytes of a buffer.
+	 * 
+	 * @param buffer
+	 *            The buffer to read, whose position is moved to its limit
+	 * @return Labyrinth structure parsed from the buffer
+	 * @throws IllegalArgumentException
+	 *             If the buffer does not contain a valid labyrinth
+	 */
+
+	public static Labyrinth parse(ByteBuffer buffer) {
+		// a tile takes at least one byte
+		LabyrinthParser parser = new LabyrinthParser(buffer.remaining());
+		while (buffer.hasRemaining()) {
+			parser.accept(buffer.get());
+		}
+		return parser.finish();
+	}
+
+	/**
+	 * Parses a labyrinth from an input stream, until its end. The stream is
+	 * not closed.
+	 * 
+	 * @param input
+	 *            The stream to read
+	 * @return Labyrinth structure parsed from the stream
+	 * @throws IOException
+	 *             If the stream cannot be read
+	 * @throws IllegalArgumentException
+	 *             If the stream does not contain a valid labyrinth
+	 */
+
+	public static Labyrinth parse(InputStream input) throws IOException {
+		LabyrinthParser parser = new LabyrinthParser(CHUNK_SIZE);
+		byte[] chunk = new byte[CHUNK_SIZE];
+		int read;
+		while ((read = input.read(chunk)) >= 0) {
+			for (int i = 0; i < read; i++) {
+				parser.accept(chunk[i]);
+			}
+		}
+		return parser.finish();
+	}
+
+	/**
+	 * Parses a labyrinth from a text file, by mapping it in memory.
+	 * 
+	 * @param filename
+	 *            The file location
+	 * @return Labyrinth structure parsed from the file
+	 * @throws IOException
+	 *             If the file cannot be read
+	 * @throws IllegalArgumentException
+	 *             If the file does not contain a valid labyrinth
+	 */
+
+	public static Labyrinth parseFile(String filename) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(filename, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Handles the next character of the input.
+	 * 
+	 * @param c
+	 *            The character, as a byte
+	 */
+
+	private void accept(byte c) {
+		mColumn++;
+		if (c >= '0' && c <= '9') {
+			int tile = mMinus ? '0' - c : c - '0';
+			mMinus = false;
+			addTile(tile);
+		} else if (c == '\n') {
+			mMinus = false;
+			endLine();
+			mLine++;
+			mColumn = 0;
+		} else {
+			mMinus = (c == '-');
+		}
+	}
+
+	/**
+	 * Appends a tile to the current row.
+	 * 
+	 * @param tile
+	 *            The tile number
+	 */
+
+	private void addTile(int tile) {
+		switch (tile) {
+		case World.START:
+			if (mStart >= 0) {
+				throw error("second start, first one is at " + describe(mStart));
+			}
+			mStart = mCount;
+			break;
+
+		case World.EXIT:
+			if (mExit >= 0) {
+				throw error("second exit, first one is at " + describe(mExit));
+			}
+			mExit = mCount;
+			break;
+
+		case World.FREE:
+		case World.WALL:
+		case World.NOTHING:
+			break;
+
+		default:
+			throw error("unknown tile " + tile);
+		}
+
+		// a row cannot be longer than the first one
+		if (mWidth >= 0 && mCount - mHeight * mWidth == mWidth) {
+			throw error("row has more than " + mWidth + " tiles");
+		}
+
+		if (mCount == mTiles.length) {
+			mTiles = Arrays.copyOf(mTiles, 2 * mTiles.length);
+		}
+		mTiles[mCount++] = (byte) tile;
+	}
+
+	/**
+	 * Ends the current line, checking that it has as many tiles as the
+	 * previous rows.
+	 */
+
+	private void endLine() {
+		int rowStart = (mWidth < 0) ? 0 : mHeight * mWidth;
+		int length = mCount - rowStart;
+		if (length == 0) {
+			return;
+		}
+
+		if (mWidth < 0) {
+			mWidth = length;
+		} else if (length != mWidth) {
+			throw error("row has " + length + " tiles instead of " + mWidth);
+		}
+		mHeight++;
+	}
+
+	/**
+	 * Ends the input and returns the parsed labyrinth.
+	 * 
+	 * @return Labyrinth structure parsed from the input
+	 */
+
+	private Labyrinth finish() {
+		endLine();
+		if (mWidth < 0) {
+			mWidth = 0;
+		}
+
+		byte[] tiles = mTiles;
+		if (tiles.length != mCount) {
+			tiles = Arrays.copyOf(tiles, mCount);
+		}
+		return new Labyrinth(mWidth, mHeight, tiles, mStart, mExit);
+	}
+
+	/**
+	 * Returns the description of a tile already parsed.
+	 * 
+	 * @param index
+	 *            Index of the tile in the tile array
+	 * @return The position of the tile in the labyrinth
+	 */
+
+	private String describe(int index) {
+		if (mWidth < 0) {
+			return "(" + index + ", 0)";
+		}
+		return "(" + (index % mWidth) + ", " + (index / mWidth) + ")";
+	}
+
+	/**
+	 * Creates an exception for an error at the current position of the input.
+	 * 
+	 * @param message
+	 *            Description of the error
+	 * @return The exception to throw
+	 */
+
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException("Line " + mLine + ", column " + mColumn + ": "
+				+ message + ".");
+	}
+}
@@ -0,0 +1,640 @@
+package ch.epfl.maze.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import ch.epfl.maze.physical.World;
+
+/**
+ * Generates random labyrinths of any size from a seed. The same seed and
+ * dimensions always give the same labyrinth.
+ * <p>
+ * Labyrinths are made of cells at odd coordinates, separated by walls at even
+ * coordinates, so their dimensions must be odd. The start is at the top left
+ * corner, in the outer wall, and the exit is at the bottom right corner.
+ * Except for Wilson's algorithm, whose random walks take longer, every
+ * generator runs in time linear in the number of tiles. Except for the braid
+ * variant, the generated labyrinths are perfect : there is exactly one path
+ * between any two cells.
+ * 
+ */
+
+public final class MazeGenerator {
+
+	/**
+	 * Generates a labyrinth with a recursive backtracker, which gives long and
+	 * winding corridors with few dead ends.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth, odd and at least 3
+	 * @param height
+	 *            Height of the labyrinth, odd and at least 3
+	 * @param seed
+	 *            Seed of the random generator
+	 * @return A perfect labyrinth
+	 */
+
+	public static Labyrinth recursiveBacktracker(int width, int height, long seed) {
+		byte[] tiles = walls(width, height);
+		backtrack(tiles, width, height, new SplittableRandom(seed));
+		return finish(tiles, width, height);
+	}
+
+	/**
+	 * Generates a labyrinth with Kruskal's algorithm, by opening the walls in
+	 * a random order whenever they separate two unconnected cells. This gives
+	 * many short dead ends.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth, odd and at least 3
+	 * @param height
+	 *            Height of the labyrinth, odd and at least 3
+	 * @param seed
+	 *            Seed of the random generator
+	 * @return A perfect labyrinth
+	 */
+
+	public static Labyrinth kruskal(int width, int height, long seed) {
+		byte[] tiles = walls(width, height);
+		SplittableRandom random = new SplittableRandom(seed);
+		int cellsX = width / 2;
+		int cellsY = height / 2;
+		int cells = cellsX * cellsY;
+
+		// lists the walls between two cells : 2c for the right one of cell c,
+		// 2c + 1 for the one below it
+		int[] edges = new int[2 * cells];
+		int count = 0;
+		for (int c = 0; c < cells; c++) {
+			tiles[tileOf(c, cellsX, width)] = World.FREE;
+			if (c % cellsX != cellsX - 1) {
+				edges[count++] = 2 * c;
+			}
+			if (c / cellsX != cellsY - 1) {
+				edges[count++] = 2 * c + 1;
+			}
+		}
+
+		// opens the walls in a random order, unless their cells are connected
+		int[] parent = new int[cells];
+		byte[] rank = new byte[cells];
+		for (int c = 0; c < cells; c++) {
+			parent[c] = c;
+		}
+		for (int i = count - 1; i >= 0; i--) {
+			int j = random.nextInt(i + 1);
+			int edge = edges[j];
+			edges[j] = edges[i];
+
+			int a = edge >> 1;
+			int b = ((edge & 1) == 0) ? a + 1 : a + cellsX;
+			int rootA = find(parent, a);
+			int rootB = find(parent, b);
+			if (rootA != rootB) {
+				// attaches the lower tree under the higher one
+				if (rank[rootA] > rank[rootB]) {
+					parent[rootB] = rootA;
+				} else {
+					parent[rootA] = rootB;
+					if (rank[rootA] == rank[rootB]) {
+						rank[rootB]++;
+					}
+				}
+				carve(tiles, a, b, cellsX, width);
+			}
+		}
+
+		return finish(tiles, width, height);
+	}
+
+	/**
+	 * Generates a labyrinth with Wilson's algorithm, made of loop-erased
+	 * random walks. Every perfect labyrinth has the same probability to be
+	 * generated.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth, odd and at least 3
+	 * @param height
+	 *            Height of the labyrinth, odd and at least 3
+	 * @param seed
+	 *            Seed of the random generator
+	 * @return A perfect labyrinth
+	 */
+
+	public static Labyrinth wilson(int width, int height, long seed) {
+		byte[] tiles = walls(width, height);
+		SplittableRandom random = new SplittableRandom(seed);
+		int cellsX = width / 2;
+		int cellsY = height / 2;
+		int cells = cellsX * cellsY;
+
+		// a cell is in the labyrinth once its tile is free
+		byte[] next = new byte[cells];
+		int[] neighbours = new int[4];
+		tiles[tileOf(0, cellsX, width)] = World.FREE;
+		for (int c = 1; c < cells; c++) {
+			// walks randomly until the labyrinth, remembering the last exit
+			// of every cell, which erases the loops
+			int current = c;
+			while (tiles[tileOf(current, cellsX, width)] != World.FREE) {
+				int n = neighbours(current, cellsX, cellsY, neighbours);
+				int k = random.nextInt(n);
+				next[current] = (byte) k;
+				current = neighbours[k];
+			}
+
+			// adds the loop-erased walk to the labyrinth
+			current = c;
+			while (tiles[tileOf(current, cellsX, width)] != World.FREE) {
+				tiles[tileOf(current, cellsX, width)] = World.FREE;
+				neighbours(current, cellsX, cellsY, neighbours);
+				int following = neighbours[next[current]];
+				carve(tiles, current, following, cellsX, width);
+				current = following;
+			}
+		}
+
+		return finish(tiles, width, height);
+	}
+
+	/**
+	 * Generates a braid labyrinth, with loops like the one of
+	 * {@link LabyrinthGenerator#getMultiplyConnected()}. A perfect labyrinth
+	 * is generated with a recursive backtracker, then dead ends are opened
+	 * towards one of their neighbours, preferably another dead end.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth, odd and at least 3
+	 * @param height
+	 *            Height of the labyrinth, odd and at least 3
+	 * @param ratio
+	 *            Probability to remove each dead end, between 0 and 1
+	 * @param seed
+	 *            Seed of the random generator
+	 * @return A labyrinth with loops
+	 */
+
+	public static Labyrinth braid(int width, int height, double ratio, long seed) {
+		if (!(ratio >= 0 && ratio <= 1)) {
+			throw new IllegalArgumentException("Ratio must be between 0 and 1.");
+		}
+
+		byte[] tiles = walls(width, height);
+		SplittableRandom random = new SplittableRandom(seed);
+		backtrack(tiles, width, height, random);
+
+		int cellsX = width / 2;
+		int cellsY = height / 2;
+		int[] neighbours = new int[4];
+		int[] around = new int[4];
+		int[] closed = new int[4];
+		for (int c = 0; c < cellsX * cellsY; c++) {
+			int tile = tileOf(c, cellsX, width);
+			int n = neighbours(c, cellsX, cellsY, neighbours);
+			if (openings(tiles, tile, neighbours, n, cellsX, width) != 1
+					|| random.nextDouble() >= ratio) {
+				continue;
+			}
+
+			// looks for the closed neighbours, and for dead ends among them
+			int closedCount = 0;
+			int deadEnds = 0;
+			for (int k = 0; k < n; k++) {
+				int other = tileOf(neighbours[k], cellsX, width);
+				if (tiles[(tile + other) >> 1] == World.WALL) {
+					int m = neighbours(neighbours[k], cellsX, cellsY, around);
+					if (openings(tiles, other, around, m, cellsX, width) == 1) {
+						// keeps dead ends first
+						closed[closedCount] = closed[deadEnds];
+						closed[deadEnds++] = neighbours[k];
+					} else {
+						closed[closedCount] = neighbours[k];
+					}
+					closedCount++;
+				}
+			}
+
+			if (closedCount > 0) {
+				int choices = (deadEnds > 0) ? deadEnds : closedCount;
+				carve(tiles, c, closed[random.nextInt(choices)], cellsX, width);
+			}
+		}
+
+		return finish(tiles, width, height);
+	}
+
+	/**
+	 * Generates a labyrinth with Eller's algorithm, which builds it one row
+	 * of cells after the other while only remembering the current row.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth, odd and at least 3
+	 * @param height
+	 *            Height of the labyrinth, odd and at least 3
+	 * @param seed
+	 *            Seed of the random generator
+	 * @return A perfect labyrinth
+	 */
+
+	public static Labyrinth eller(int width, int height, long seed) {
+		checkDimensions(width, height);
+		final byte[] tiles = new byte[width * height];
+		final int rowWidth = width;
+		try {
+			eller(width, height, seed, new RowSink() {
+				private int mRow = 0;
+
+				@Override
+				public void accept(byte[] row) {
+					System.arraycopy(row, 0, tiles, mRow * rowWidth, rowWidth);
+					mRow++;
+				}
+			});
+		} catch (IOException e) {
+			// cannot happen, the rows are kept in memory
+			throw new IllegalStateException(e);
+		}
+		return new Labyrinth(width, height, tiles, 1, tiles.length - 2);
+	}
+
+	/**
+	 * Generates a labyrinth with Eller's algorithm and writes it to a binary
+	 * file as the rows are built, so that the whole labyrinth is never held in
+	 * memory. The file can be read back with {@link LabyrinthFile#read(String)}.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth, odd and at least 3
+	 * @param height
+	 *            Height of the labyrinth, odd and at least 3
+	 * @param seed
+	 *            Seed of the random generator
+	 * @param filename
+	 *            Location of the binary file to write
+	 * @throws IOException
+	 *             If the file cannot be written
+	 * @see #eller(int, int, long)
+	 */
+
+	public static void writeEller(int width, int height, long seed, String filename)
+			throws IOException {
+		checkDimensions(width, height);
+		final LabyrinthFile.RowWriter writer = new LabyrinthFile.RowWriter(filename, width,
+				height, new Vector2D(1, 0), new Vector2D(width - 2, height - 1));
+		try {
+			eller(width, height, seed, new RowSink() {
+				@Override
+				public void accept(byte[] row) throws IOException {
+					writer.writeRow(row);
+				}
+			});
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Runs Eller's algorithm, handing every row of tiles to a sink as soon as
+	 * it is built. Sets of connected cells are kept in a union-find over the
+	 * labels of the current row, relabelled after every row.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth
+	 * @param height
+	 *            Height of the labyrinth
+	 * @param seed
+	 *            Seed of the random generator
+	 * @param sink
+	 *            Destination of the rows of tiles, from top to bottom
+	 * @throws IOException
+	 *             If the sink cannot accept a row
+	 */
+
+	private static void eller(int width, int height, long seed, RowSink sink) throws IOException {
+		checkDimensions(width, height);
+		SplittableRandom random = new SplittableRandom(seed);
+		int cellsX = width / 2;
+		int cellsY = height / 2;
+
+		int[] sets = new int[cellsX];
+		int[] parent = new int[cellsX];
+		int[] remaining = new int[cellsX];
+		boolean[] down = new boolean[cellsX];
+		boolean[] hasDown = new boolean[cellsX];
+		int[] labels = new int[cellsX];
+		byte[] cellRow = new byte[width];
+		byte[] wallRow = new byte[width];
+
+		// outer wall with the start
+		Arrays.fill(wallRow, (byte) World.WALL);
+		wallRow[1] = World.START;
+		sink.accept(wallRow);
+
+		Arrays.fill(sets, -1);
+		for (int y = 0; y < cellsY; y++) {
+			boolean last = (y == cellsY - 1);
+
+			// gives a new set to the cells not connected to the row above
+			int used = 0;
+			for (int x = 0; x < cellsX; x++) {
+				if (sets[x] >= 0) {
+					used = Math.max(used, sets[x] + 1);
+				}
+			}
+			for (int x = 0; x < cellsX; x++) {
+				if (sets[x] < 0) {
+					sets[x] = used++;
+				}
+				parent[sets[x]] = sets[x];
+			}
+
+			// joins adjacent cells of different sets at random
+			Arrays.fill(cellRow, (byte) World.WALL);
+			for (int x = 0; x < cellsX; x++) {
+				cellRow[2 * x + 1] = World.FREE;
+				if (x == cellsX - 1) {
+					break;
+				}
+				int a = find(parent, sets[x]);
+				int b = find(parent, sets[x + 1]);
+				if (a != b && (last || random.nextBoolean())) {
+					parent[b] = a;
+					cellRow[2 * x + 2] = World.FREE;
+				}
+			}
+			sink.accept(cellRow);
+
+			// opens at least one wall below each set
+			Arrays.fill(wallRow, (byte) World.WALL);
+			if (!last) {
+				for (int x = 0; x < cellsX; x++) {
+					sets[x] = find(parent, sets[x]);
+					remaining[sets[x]]++;
+					hasDown[sets[x]] = false;
+				}
+				for (int x = 0; x < cellsX; x++) {
+					int set = sets[x];
+					remaining[set]--;
+					down[x] = random.nextBoolean() || (remaining[set] == 0 && !hasDown[set]);
+					if (down[x]) {
+						hasDown[set] = true;
+						wallRow[2 * x + 1] = World.FREE;
+					}
+				}
+
+				// relabels the sets carried to the next row from 0
+				Arrays.fill(labels, -1);
+				int label = 0;
+				for (int x = 0; x < cellsX; x++) {
+					if (down[x]) {
+						if (labels[sets[x]] < 0) {
+							labels[sets[x]] = label++;
+						}
+						sets[x] = labels[sets[x]];
+					} else {
+						sets[x] = -1;
+					}
+				}
+			} else {
+				// outer wall with the exit
+				wallRow[width - 2] = World.EXIT;
+			}
+			sink.accept(wallRow);
+		}
+	}
+
+	/**
+	 * Destination of the rows built by Eller's algorithm.
+	 * 
+	 */
+
+	private interface RowSink {
+
+		/**
+		 * Accepts the next row of tiles. The array is reused for the next
+		 * rows, so it must be copied if needed.
+		 * 
+		 * @param row
+		 *            The tiles of the row
+		 * @throws IOException
+		 *             If the row cannot be stored
+		 */
+
+		void accept(byte[] row) throws IOException;
+	}
+
+	/**
+	 * Carves a perfect labyrinth with a recursive backtracker, using an
+	 * explicit stack instead of recursion.
+	 * 
+	 * @param tiles
+	 *            Tiles of the labyrinth, only walls at first
+	 * @param width
+	 *            Width of the labyrinth
+	 * @param height
+	 *            Height of the labyrinth
+	 * @param random
+	 *            The random generator
+	 */
+
+	private static void backtrack(byte[] tiles, int width, int height, SplittableRandom random) {
+		int cellsX = width / 2;
+		int cellsY = height / 2;
+		int[] stack = new int[cellsX * cellsY];
+		int[] neighbours = new int[4];
+		int top = 0;
+
+		stack[top++] = 0;
+		tiles[tileOf(0, cellsX, width)] = World.FREE;
+		while (top > 0) {
+			int cell = stack[top - 1];
+
+			// keeps the neighbours that were not visited yet
+			int n = neighbours(cell, cellsX, cellsY, neighbours);
+			int unvisited = 0;
+			for (int k = 0; k < n; k++) {
+				if (tiles[tileOf(neighbours[k], cellsX, width)] == World.WALL) {
+					neighbours[unvisited++] = neighbours[k];
+				}
+			}
+
+			if (unvisited == 0) {
+				top--;
+			} else {
+				int next = neighbours[random.nextInt(unvisited)];
+				carve(tiles, cell, next, cellsX, width);
+				tiles[tileOf(next, cellsX, width)] = World.FREE;
+				stack[top++] = next;
+			}
+		}
+	}
+
+	/**
+	 * Checks the dimensions of a labyrinth and returns its tiles, all walls.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth
+	 * @param height
+	 *            Height of the labyrinth
+	 * @return An array of {@code width * height} walls
+	 */
+
+	private static byte[] walls(int width, int height) {
+		checkDimensions(width, height);
+		byte[] tiles = new byte[width * height];
+		Arrays.fill(tiles, (byte) World.WALL);
+		return tiles;
+	}
+
+	/**
+	 * Checks that the dimensions of a labyrinth are odd and at least 3.
+	 * 
+	 * @param width
+	 *            Width of the labyrinth
+	 * @param height
+	 *            Height of the labyrinth
+	 */
+
+	private static void checkDimensions(int width, int height) {
+		if (width < 3 || height < 3 || width % 2 == 0 || height % 2 == 0) {
+			throw new IllegalArgumentException("Dimensions must be odd and at least 3.");
+		}
+		if ((long) width * height > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Labyrinth is too large.");
+		}
+	}
+
+	/**
+	 * Adds the start and the exit to the tiles of a labyrinth.
+	 * 
+	 * @param tiles
+	 *            Tiles of the labyrinth
+	 * @param width
+	 *            Width of the labyrinth
+	 * @param height
+	 *            Height of the labyrinth
+	 * @return The labyrinth
+	 */
+
+	private static Labyrinth finish(byte[] tiles, int width, int height) {
+		tiles[1] = World.START;
+		tiles[tiles.length - 2] = World.EXIT;
+		return new Labyrinth(width, height, tiles, 1, tiles.length - 2);
+	}
+
+	/**
+	 * Returns the index of the tile of a cell.
+	 * 
+	 * @param cell
+	 *            Index of the cell, row by row
+	 * @param cellsX
+	 *            Number of cells in a row
+	 * @param width
+	 *            Width of the labyrinth
+	 * @return The index of the tile of the cell
+	 */
+
+	private static int tileOf(int cell, int cellsX, int width) {
+		return (2 * (cell / cellsX) + 1) * width + 2 * (cell % cellsX) + 1;
+	}
+
+	/**
+	 * Opens the wall between two adjacent cells.
+	 * 
+	 * @param tiles
+	 *            Tiles of the labyrinth
+	 * @param a
+	 *            Index of the first cell
+	 * @param b
+	 *            Index of the second cell
+	 * @param cellsX
+	 *            Number of cells in a row
+	 * @param width
+	 *            Width of the labyrinth
+	 */
+
+	private static void carve(byte[] tiles, int a, int b, int cellsX, int width) {
+		tiles[(tileOf(a, cellsX, width) + tileOf(b, cellsX, width)) >> 1] = World.FREE;
+	}
+
+	/**
+	 * Lists the cells adjacent to a cell.
+	 * 
+	 * @param cell
+	 *            Index of the cell
+	 * @param cellsX
+	 *            Number of cells in a row
+	 * @param cellsY
+	 *            Number of rows of cells
+	 * @param neighbours
+	 *            Array of length 4 in which the neighbours are stored
+	 * @return The number of neighbours
+	 */
+
+	private static int neighbours(int cell, int cellsX, int cellsY, int[] neighbours) {
+		int x = cell % cellsX;
+		int y = cell / cellsX;
+		int n = 0;
+		if (y < cellsY - 1) {
+			neighbours[n++] = cell + cellsX;
+		}
+		if (y > 0) {
+			neighbours[n++] = cell - cellsX;
+		}
+		if (x < cellsX - 1) {
+			neighbours[n++] = cell + 1;
+		}
+		if (x > 0) {
+			neighbours[n++] = cell - 1;
+		}
+		return n;
+	}
+
+	/**
+	 * Counts the open walls around the tile of a cell.
+	 * 
+	 * @param tiles
+	 *            Tiles of the labyrinth
+	 * @param tile
+	 *            Index of the tile of the cell
+	 * @param neighbours
+	 *            Neighbours of the cell
+	 * @param n
+	 *            Number of neighbours
+	 * @param cellsX
+	 *            Number of cells in a row
+	 * @param width
+	 *            Width of the labyrinth
+	 * @return The number of open walls
+	 */
+
+	private static int openings(byte[] tiles, int tile, int[] neighbours, int n, int cellsX,
+			int width) {
+		int open = 0;
+		for (int k = 0; k < n; k++) {
+			if (tiles[(tile + tileOf(neighbours[k], cellsX, width)) >> 1] != World.WALL) {
+				open++;
+			}
+		}
+		return open;
+	}
+
+	/**
+	 * Finds the representative of a set in a union-find, halving the path on
+	 * the way.
+	 * 
+	 * @param parent
+	 *            Parent of every element
+	 * @param element
+	 *            The element whose set is looked for
+	 * @return The representative of the set
+	 */
+
+	private static int find(int[] parent, int element) {
+		while (parent[element] != element) {
+			parent[element] = parent[parent[element]];
+			element = parent[element];
+		}
+		return element;
+	}
+}
@@ -1,11 +1,11 @@
 package ch.epfl.maze.util;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 import ch.epfl.maze.physical.Animal;
 import ch.epfl.maze.simulation.Simulation;
@@ -21,19 +21,33 @@ public final class Statistics {
 	public static final int X_LENGTH = 40;
 	public static final int Y_LENGTH = 13;
 
+	/* number of shards of simulations per thread in parallel computations */
+	public static final int SHARDS_PER_THREAD = 4;
+
+	/* odd constant spreading the seeds of consecutive runs */
+	private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/*
+	 * total of results containing an infinite one, which no sum of finite
+	 * results can reach since there are at most 2^31 of them
+	 */
+	public static final long INFINITE = Long.MAX_VALUE;
+
 	/**
 	 * Returns the sum of all the numbers in results.
 	 * 
 	 * @param results
 	 *            List of numbers
-	 * @return The total of the list
+	 * @return The total of the list, or {@link #INFINITE} if one of the
+	 *         numbers is infinite ({@code Integer.MAX_VALUE})
 	 */
 
-	public static int total(List<Integer> results) {
-		int total = 0;
-		for (Integer result : results) {
+	public static long total(IntArrayList results) {
+		long total = 0;
+		for (int i = 0; i < results.size(); i++) {
+			int result = results.get(i);
 			if (result == Integer.MAX_VALUE) {
-				return Integer.MAX_VALUE;
+				return INFINITE;
 			}
 			total += result;
 		}
@@ -47,15 +61,16 @@ public final class Statistics {
 	 * 
 	 * @param results
 	 *            List of numbers
-	 * @return The mean of the results
+	 * @return The mean of the results, or {@code Integer.MAX_VALUE} if one
+	 *         of them is infinite
 	 */
 
-	public static int mean(List<Integer> results) {
-		int total = total(results);
-		if (total == Integer.MAX_VALUE) {
+	public static int mean(IntArrayList results) {
+		long total = total(results);
+		if (total == INFINITE) {
 			return Integer.MAX_VALUE;
 		}
-		return total / results.size();
+		return (int) (total / results.size());
 	}
 
 	/**
@@ -68,13 +83,14 @@ public final class Statistics {
 	 * @return The variance of the results
 	 */
 
-	public static double var(List<Integer> results) {
+	public static double var(IntArrayList results) {
 		double mean = mean(results);
 		if (mean == Integer.MAX_VALUE) {
 			return Integer.MAX_VALUE;
 		}
 		double var = 0;
-		for (Integer result : results) {
+		for (int i = 0; i < results.size(); i++) {
+			double result = results.get(i);
 			var += (result - mean) * (result - mean);
 		}
 		return var / results.size();
@@ -90,69 +106,383 @@ public final class Statistics {
 	 * @return The variance of the results
 	 */
 
-	public static double std(List<Integer> results) {
+	public static double std(IntArrayList results) {
 		return Math.sqrt(var(results));
 	}
 
 	/**
-	 * Computes distribution for each animal in simulation
+	 * Returns the seed of a run of a batch of simulations. The statistics of
+	 * a simulation are computed on runs whose seeds only depend on the seed of
+	 * the simulation when the computation starts and on the number of the run,
+	 * so that any run of the batch can be replayed with
+	 * {@link Simulation#restart(long)}, whatever the number of threads.
+	 * 
+	 * @param batchSeed
+	 *            The seed of the simulation when the computation started
+	 * @param run
+	 *            The number of the run, from 0
+	 * @return The seed of the run
+	 */
+
+	public static long seedOf(long batchSeed, int run) {
+		return new SplittableRandom(batchSeed + run * SEED_GAMMA).nextLong();
+	}
+
+	/**
+	 * Computes distribution for each animal in simulation. The simulation is
+	 * then restarted with the seed of the batch, so that
+	 * {@link Simulation#getSeed()} still returns it.
+	 * 
+	 * @param simulation
+	 *            Simulation to make statistics on
+	 * @param numberOfSimulations
+	 *            The number of simulations
+	 */
+
+	public static Map<String, IntArrayList> computeStatistics(
+			Simulation simulation, int numberOfSimulations) {
+		long batchSeed = simulation.getSeed();
+		Map<String, IntArrayList> results = createResults(simulation, LISTS);
+		simulate(simulation, 0, numberOfSimulations, batchSeed, results, LISTS);
+		simulation.restart(batchSeed);
+		return results;
+	}
+
+	/**
+	 * Computes distribution for each animal in simulation, by spreading the
+	 * simulations over the threads of the common {@code ForkJoinPool}.
 	 * 
 	 * @param simulation
 	 *            Simulation to make statistics on
 	 * @param numberOfSimulations
 	 *            The number of simulations
+	 * @see #computeStatistics(Simulation, int, ForkJoinPool)
 	 */
 
-	public static Map<String, List<Integer>> computeStatistics(
+	public static Map<String, IntArrayList> computeStatisticsInParallel(
 			Simulation simulation, int numberOfSimulations) {
-		// maps animals' names with their overall results (which are linked-list)
-		Map<String, List<Integer>> results = new TreeMap<String, List<Integer>>();
+		return computeStatistics(simulation, numberOfSimulations, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes distribution for each animal in simulation, by spreading the
+	 * simulations over the threads of a {@code ForkJoinPool}.
+	 * <p>
+	 * The simulations are split in shards of consecutive runs. Every shard is
+	 * run on its own copy of the simulation (see {@link Simulation#copy()}),
+	 * and the results of the shards are merged in the order of the runs, so
+	 * that they do not depend on the scheduling of the threads. The seed of
+	 * every run is given by {@link #seedOf(long, int)}. The
+	 * simulation given must not be moved while the statistics are computed,
+	 * and keeps the seed of the batch.
+	 * 
+	 * @param simulation
+	 *            Simulation to make statistics on
+	 * @param numberOfSimulations
+	 *            The number of simulations
+	 * @param pool
+	 *            The pool of threads running the simulations
+	 */
+
+	public static Map<String, IntArrayList> computeStatistics(
+			Simulation simulation, int numberOfSimulations, ForkJoinPool pool) {
+		return compute(simulation, numberOfSimulations, pool, LISTS);
+	}
+
+	/**
+	 * Computes a streaming distribution for each animal in simulation. Unlike
+	 * {@link #computeStatistics(Simulation, int)}, the results are not kept,
+	 * so the memory used does not depend on the number of simulations. The
+	 * simulation is then restarted with the seed of the batch.
+	 * 
+	 * @param simulation
+	 *            Simulation to make statistics on
+	 * @param numberOfSimulations
+	 *            The number of simulations
+	 */
+
+	public static Map<String, Distribution> computeDistributions(
+			Simulation simulation, int numberOfSimulations) {
+		long batchSeed = simulation.getSeed();
+		Map<String, Distribution> results = createResults(simulation, DISTRIBUTIONS);
+		simulate(simulation, 0, numberOfSimulations, batchSeed, results, DISTRIBUTIONS);
+		simulation.restart(batchSeed);
+		return results;
+	}
+
+	/**
+	 * Computes a streaming distribution for each animal in simulation, by
+	 * spreading the simulations over the threads of a {@code ForkJoinPool}.
+	 * 
+	 * @param simulation
+	 *            Simulation to make statistics on
+	 * @param numberOfSimulations
+	 *            The number of simulations
+	 * @param pool
+	 *            The pool of threads running the simulations
+	 * @see #computeStatistics(Simulation, int, ForkJoinPool)
+	 */
+
+	public static Map<String, Distribution> computeDistributions(
+			Simulation simulation, int numberOfSimulations, ForkJoinPool pool) {
+		return compute(simulation, numberOfSimulations, pool, DISTRIBUTIONS);
+	}
+
+	/**
+	 * Computes the results of each animal in simulation, by spreading the
+	 * simulations over the threads of a {@code ForkJoinPool}.
+	 * 
+	 * @param simulation
+	 *            Simulation to make statistics on
+	 * @param numberOfSimulations
+	 *            The number of simulations
+	 * @param pool
+	 *            The pool of threads running the simulations
+	 * @param collector
+	 *            Collector of the results of each animal
+	 * @return Map of animals' names to their results
+	 */
+
+	private static <T> Map<String, T> compute(Simulation simulation,
+			int numberOfSimulations, ForkJoinPool pool, Collector<T> collector) {
+		int shards = pool.getParallelism() * SHARDS_PER_THREAD;
+		int shardSize = Math.max(1, (numberOfSimulations + shards - 1) / shards);
+		return pool.invoke(new StatisticsTask<T>(simulation, 0, numberOfSimulations,
+				shardSize, simulation.getSeed(), collector));
+	}
+
+	/**
+	 * Creates empty results for each animal of a simulation.
+	 * 
+	 * @param simulation
+	 *            Simulation to make statistics on
+	 * @param collector
+	 *            Collector of the results of each animal
+	 * @return Map of animals' names to their (empty) results
+	 */
+
+	private static <T> Map<String, T> createResults(Simulation simulation,
+			Collector<T> collector) {
+		// maps animals' names with their overall results
+		Map<String, T> results = new TreeMap<String, T>();
 
 		for (Animal a : simulation.getWorld().getAnimals()) {
-			results.put(a.getClass().getSimpleName(), new LinkedList<Integer>());
+			results.put(a.getClass().getSimpleName(), collector.create());
 		}
 
+		return results;
+	}
+
+	/**
+	 * Runs a simulation until the end several times, and appends the arrival
+	 * times of the animals to the results.
+	 * 
+	 * @param simulation
+	 *            Simulation to run
+	 * @param from
+	 *            Number of the first run
+	 * @param to
+	 *            Number of the run after the last one
+	 * @param batchSeed
+	 *            The seed from which the seeds of the runs are computed
+	 * @param results
+	 *            Map of animals' names to their results
+	 * @param collector
+	 *            Collector of the results of each animal
+	 */
+
+	private static <T> void simulate(Simulation simulation, int from, int to, long batchSeed,
+			Map<String, T> results, Collector<T> collector) {
 		// simulates world a lot of times
-		for (int i = 0; i < numberOfSimulations; i++) {
+		for (int i = from; i < to; i++) {
 
 			// simulates world until the end
-			simulation.restart();
-			while (!simulation.isOver()) {
-				simulation.move(null);
-			}
+			simulation.restart(seedOf(batchSeed, i));
+			simulation.runUntilDone(Integer.MAX_VALUE);
 
 			// retrieves arrival times and appends them to the results
 			Map<Integer, List<Animal>> arrivalTimes = simulation.getArrivalTimes();
 			for (Map.Entry<Integer, List<Animal>> entry : arrivalTimes.entrySet()) {
 				for (Animal a : entry.getValue()) {
 					String animalName = a.getClass().getSimpleName();
-					List<Integer> list = results.get(animalName);
-					list.add(entry.getKey());
+					collector.add(results.get(animalName), entry.getKey());
 				}
 			}
 		}
+	}
 
-		return results;
+	/**
+	 * Strategy to accumulate and merge the results of an animal.
+	 * 
+	 * @param <T>
+	 *            Type of the results of an animal
+	 */
+
+	private interface Collector<T> {
+
+		/**
+		 * Creates empty results.
+		 * 
+		 * @return New empty results
+		 */
+
+		public T create();
+
+		/**
+		 * Adds the number of steps of one simulation to results.
+		 * 
+		 * @param results
+		 *            Results to add the steps to
+		 * @param steps
+		 *            Number of steps of the simulation
+		 */
+
+		public void add(T results, int steps);
+
+		/**
+		 * Appends results to other ones.
+		 * 
+		 * @param results
+		 *            Results to append to
+		 * @param other
+		 *            Results to append
+		 */
+
+		public void merge(T results, T other);
+	}
+
+	/* collects every result in a list */
+	private static final Collector<IntArrayList> LISTS = new Collector<IntArrayList>() {
+		@Override
+		public IntArrayList create() {
+			return new IntArrayList();
+		}
+
+		@Override
+		public void add(IntArrayList results, int steps) {
+			results.add(steps);
+		}
+
+		@Override
+		public void merge(IntArrayList results, IntArrayList other) {
+			results.addAll(other);
+		}
+	};
+
+	/* collects the results in a streaming distribution */
+	private static final Collector<Distribution> DISTRIBUTIONS = new Collector<Distribution>() {
+		@Override
+		public Distribution create() {
+			return new Distribution();
+		}
+
+		@Override
+		public void add(Distribution results, int steps) {
+			results.add(steps);
+		}
+
+		@Override
+		public void merge(Distribution results, Distribution other) {
+			results.merge(other);
+		}
+	};
+
+	/**
+	 * Task computing the results of a range of simulations, by splitting it
+	 * until it is small enough to be run on a single copy of the simulation.
+	 * 
+	 * @param <T>
+	 *            Type of the results of an animal
+	 */
+
+	private static final class StatisticsTask<T> extends RecursiveTask<Map<String, T>> {
+
+		private static final long serialVersionUID = 1L;
+
+		/* range of simulations to run */
+		private final Simulation mSimulation;
+		private final int mFrom;
+		private final int mTo;
+		private final int mShardSize;
+		private final long mBatchSeed;
+
+		/* collector of the results of each animal */
+		private final Collector<T> mCollector;
+
+		/**
+		 * Constructs a task that runs the simulations {@code from} (inclusive)
+		 * to {@code to} (exclusive).
+		 * 
+		 * @param simulation
+		 *            Simulation to copy
+		 * @param from
+		 *            First simulation of the range
+		 * @param to
+		 *            End of the range
+		 * @param shardSize
+		 *            Maximum number of simulations run on a single copy
+		 * @param batchSeed
+		 *            The seed from which the seeds of the runs are computed
+		 * @param collector
+		 *            Collector of the results of each animal
+		 */
+
+		public StatisticsTask(Simulation simulation, int from, int to, int shardSize,
+				long batchSeed, Collector<T> collector) {
+			mSimulation = simulation;
+			mFrom = from;
+			mTo = to;
+			mShardSize = shardSize;
+			mBatchSeed = batchSeed;
+			mCollector = collector;
+		}
+
+		@Override
+		protected Map<String, T> compute() {
+			if (mTo - mFrom <= mShardSize) {
+				Simulation copy = mSimulation.copy();
+				Map<String, T> results = createResults(copy, mCollector);
+				simulate(copy, mFrom, mTo, mBatchSeed, results, mCollector);
+				return results;
+			}
+
+			// splits the range in two halves
+			int middle = (mFrom + mTo) >>> 1;
+			StatisticsTask<T> left = new StatisticsTask<T>(mSimulation, mFrom, middle,
+					mShardSize, mBatchSeed, mCollector);
+			StatisticsTask<T> right = new StatisticsTask<T>(mSimulation, middle, mTo,
+					mShardSize, mBatchSeed, mCollector);
+			left.fork();
+			Map<String, T> rightResults = right.compute();
+			Map<String, T> results = left.join();
+
+			// appends the results of the right half to the left half
+			for (Map.Entry<String, T> entry : rightResults.entrySet()) {
+				mCollector.merge(results.get(entry.getKey()), entry.getValue());
+			}
+			return results;
+		}
 	}
 
 	/**
 	 * Prints the distribution of all the results.
 	 * 
 	 * @param results
-	 *            List of numbers
+	 *            List of numbers, which will be sorted
 	 */
 
-	public static void printDistribution(List<Integer> results) {
+	public static void printDistribution(IntArrayList results) {
+		results.sort();
 
-		int min = results.get(0);
-		int max = results.get(results.size() - 1);
+		int min = results.min();
+		int max = results.max();
 		int length = (max - min) / X_LENGTH;
 
 		// counts number of steps inside a range
 		int lowerBound = Integer.MIN_VALUE;
 		int upperBound = min + length;
 		int index = 0;
-		List<Integer> boxPlot = new ArrayList<>();
+		long[] boxPlot = new long[X_LENGTH];
 		for (int i = 0; i < X_LENGTH; i++) {
 			int counter = 0;
 
@@ -161,19 +491,66 @@ public final class Statistics {
 				counter++;
 				index++;
 			}
-			boxPlot.add(counter);
+			boxPlot[i] = counter;
 			lowerBound = upperBound;
 			upperBound += length;
 		}
 
+		printPlot(boxPlot);
+	}
+
+	/**
+	 * Prints the distribution of the finite values of a streaming
+	 * distribution. The ranges of the plot are rounded to the buckets of the
+	 * distribution.
+	 * 
+	 * @param distribution
+	 *            Distribution of numbers
+	 */
+
+	public static void printDistribution(Distribution distribution) {
+		int min = distribution.min();
+		int max = distribution.finiteMax();
+		if (min == Integer.MAX_VALUE) {
+			printPlot(new long[X_LENGTH]);
+			return;
+		}
+		int length = (max - min) / X_LENGTH;
+
+		// counts number of steps inside a range
+		long below = 0;
+		long upperBound = min + length;
+		long[] boxPlot = new long[X_LENGTH];
+		for (int i = 0; i < X_LENGTH; i++) {
+			long counter = distribution.countAtMost((int) Math.min(upperBound, Integer.MAX_VALUE));
+			boxPlot[i] = counter - below;
+			below = counter;
+			upperBound += length;
+		}
+
+		printPlot(boxPlot);
+	}
+
+	/**
+	 * Prints a plot of the number of results in consecutive ranges.
+	 * 
+	 * @param boxPlot
+	 *            Number of results in each range
+	 */
+
+	private static void printPlot(long[] boxPlot) {
+		long maxCount = 0;
+		for (long count : boxPlot) {
+			maxCount = Math.max(maxCount, count);
+		}
+
 		// draws plot on string
 		String[] printPlot = new String[Y_LENGTH];
 		for (int i = 0; i < Y_LENGTH; i++) {
 			printPlot[i] = "| ";
 		}
 
-		int maxCount = Collections.max(boxPlot);
-		for (Integer count : boxPlot) {
+		for (long count : boxPlot) {
 			for (int i = 0; i < Y_LENGTH; i++) {
 				if (count > (i * maxCount) / Y_LENGTH) {
 					printPlot[i] += "#";
@@ -189,7 +566,7 @@ public final class Statistics {
 			System.out.println(printPlot[i]);
 		}
 		System.out.print("--");
-		for (int i = 0; i < X_LENGTH; i++) {
+		for (int i = 0; i < boxPlot.length; i++) {
 			System.out.print("-");
 		}
 		System.out.println(">");
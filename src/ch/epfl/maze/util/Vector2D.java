@@ -8,7 +8,7 @@ package ch.epfl.maze.util;
 public final class Vector2D {
 
 	/* shift constant to compute the hash */
-	private static final int SHIFT = 1000;
+	private static final int SHIFT = 16;
 
 	/* 2-dimension coordinates */
 	private final int mX, mY;
@@ -209,9 +209,16 @@ public final class Vector2D {
 		return "(" + mX + ", " + mY + ")";
 	}
 
+	/**
+	 * Returns a hash code that is unique for every vector whose coordinates
+	 * both lie in the range of a {@code short}, which covers any labyrinth up
+	 * to 32768 tiles wide. Vectors outside that range are still compared
+	 * correctly by {@link #equals(Object)}.
+	 */
+
 	@Override
 	public int hashCode() {
-		return mX * SHIFT + mY;
+		return (mX << SHIFT) ^ (mY & 0xFFFF);
 	}
 
 	@Override
@@ -223,6 +230,7 @@ public final class Vector2D {
 			return false;
 		}
 
-		return o.hashCode() == this.hashCode();
+		Vector2D v = (Vector2D) o;
+		return v.mX == mX && v.mY == mY;
 	}
 }